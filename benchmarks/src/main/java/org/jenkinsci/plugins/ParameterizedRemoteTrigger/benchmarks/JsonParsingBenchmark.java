@@ -0,0 +1,79 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.JsonProjection;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.RemoteApi;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.StreamingJsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Parsing the responses of the remote API: json-lib on the whole body, compared to the
+ * {@link StreamingJsonParser} keeping all fields or only the fields of the projection used by the plugin.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class JsonParsingBenchmark
+{
+
+    /**
+     * The response: a queue item, a build or the metadata of a job, see {@link Payloads}.
+     */
+    @Param({ "queueItem", "build", "job" })
+    public String payload;
+
+    private String json;
+    private JsonProjection projection;
+
+    @Setup
+    public void setup()
+    {
+        if ("queueItem".equals(payload)) {
+            json = Payloads.queueItem(10);
+            projection = RemoteApi.QUEUE_ITEM;
+        } else if ("build".equals(payload)) {
+            json = Payloads.build(10, 20, 10);
+            projection = RemoteApi.BUILD_STATUS;
+        } else {
+            json = Payloads.job(50, 100);
+            projection = RemoteApi.JOB_METADATA;
+        }
+    }
+
+    @Benchmark
+    public JSONObject jsonLib()
+    {
+        return JSONObject.fromObject(json);
+    }
+
+    @Benchmark
+    public JSONObject streamingAll() throws IOException
+    {
+        return StreamingJsonParser.parseObject(new StringReader(json), JsonProjection.ALL);
+    }
+
+    @Benchmark
+    public JSONObject streamingProjection() throws IOException
+    {
+        return StreamingJsonParser.parseObject(new StringReader(json), projection);
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.benchmarks;
+
+/**
+ * Responses of the remote JSON API as sent by a Jenkins 2.x server without a <code>tree</code> parameter,
+ * i.e. including all the fields the plugin does not need. The content is generated deterministically,
+ * so runs on different commits parse exactly the same input.
+ */
+public final class Payloads
+{
+
+    private Payloads()
+    {
+    }
+
+    /**
+     * @return a queue item which left the queue, with its cause and parameters.
+     */
+    public static String queueItem(int parameters)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"_class\":\"hudson.model.Queue$LeftItem\",\"actions\":[");
+        sb.append(parametersAction(parameters)).append(',');
+        sb.append("{\"_class\":\"hudson.model.CauseAction\",\"causes\":[{\"_class\":\"hudson.model.Cause$RemoteCause\",");
+        sb.append("\"shortDescription\":\"Started by remote host 10.0.0.12\",\"addr\":\"10.0.0.12\",\"note\":null}]}],");
+        sb.append("\"blocked\":false,\"buildable\":false,\"id\":48213,\"inQueueSince\":1538471234567,");
+        sb.append("\"params\":\"\\nPARAM_0=value-0\",\"stuck\":false,");
+        sb.append("\"task\":{\"_class\":\"hudson.model.FreeStyleProject\",\"name\":\"deploy\",");
+        sb.append("\"url\":\"https://jenkins.example.com/job/team/job/deploy/\",\"color\":\"blue_anime\"},");
+        sb.append("\"url\":\"queue/item/48213/\",\"why\":null,\"cancelled\":false,");
+        sb.append("\"executable\":{\"_class\":\"hudson.model.FreeStyleBuild\",\"number\":1742,");
+        sb.append("\"url\":\"https://jenkins.example.com/job/team/job/deploy/1742/\"}}");
+        return sb.toString();
+    }
+
+    /**
+     * @return a finished build with parameters, a change set and artifacts.
+     */
+    public static String build(int parameters, int changes, int artifacts)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"_class\":\"hudson.model.FreeStyleBuild\",\"actions\":[");
+        sb.append(parametersAction(parameters)).append(',');
+        sb.append("{\"_class\":\"hudson.model.CauseAction\",\"causes\":[{\"_class\":\"hudson.model.Cause$UserIdCause\",");
+        sb.append("\"shortDescription\":\"Started by user builder\",\"userId\":\"builder\",\"userName\":\"builder\"}]},");
+        sb.append("{\"_class\":\"hudson.plugins.git.util.BuildData\",\"buildsByBranchName\":{\"refs/remotes/origin/master\":");
+        sb.append("{\"_class\":\"hudson.plugins.git.util.Build\",\"buildNumber\":1742,\"buildResult\":null,");
+        sb.append("\"marked\":{\"SHA1\":\"5f27170c1d2e3f4a5b6c7d8e9f0a1b2c3d4e5f60\",\"branch\":[{\"SHA1\":");
+        sb.append("\"5f27170c1d2e3f4a5b6c7d8e9f0a1b2c3d4e5f60\",\"name\":\"refs/remotes/origin/master\"}]}}},");
+        sb.append("\"remoteUrls\":[\"https://git.example.com/team/deploy.git\"],\"scmName\":\"\"},{},{}],");
+        sb.append("\"artifacts\":[");
+        for (int i = 0; i < artifacts; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"displayPath\":\"artifact-").append(i).append(".jar\",\"fileName\":\"artifact-").append(i);
+            sb.append(".jar\",\"relativePath\":\"target/artifact-").append(i).append(".jar\"}");
+        }
+        sb.append("],\"building\":false,\"description\":null,\"displayName\":\"#1742\",\"duration\":754213,");
+        sb.append("\"estimatedDuration\":731022,\"executor\":null,\"fullDisplayName\":\"team \u00bb deploy #1742\",");
+        sb.append("\"id\":\"1742\",\"keepLog\":false,\"number\":1742,\"queueId\":48213,\"result\":\"SUCCESS\",");
+        sb.append("\"timestamp\":1538471236789,\"url\":\"https://jenkins.example.com/job/team/job/deploy/1742/\",");
+        sb.append("\"builtOn\":\"linux-agent-07\",\"changeSet\":{\"_class\":\"hudson.plugins.git.GitChangeSetList\",\"items\":[");
+        for (int i = 0; i < changes; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"_class\":\"hudson.plugins.git.GitChangeSet\",\"affectedPaths\":[\"src/main/java/Deploy")
+                        .append(i).append(".java\",\"README.md\"],");
+            sb.append("\"commitId\":\"").append(String.format("%040x", 1000003L * (i + 1))).append("\",");
+            sb.append("\"timestamp\":").append(1538400000000L + i * 60000L).append(',');
+            sb.append("\"author\":{\"absoluteUrl\":\"https://jenkins.example.com/user/dev").append(i % 7);
+            sb.append("\",\"fullName\":\"Developer ").append(i % 7).append("\"},");
+            sb.append("\"authorEmail\":\"dev").append(i % 7).append("@example.com\",");
+            sb.append("\"comment\":\"Change number ").append(i).append(" with a \\\"quoted\\\" word\\n\\nAnd a body.\\n\",");
+            sb.append("\"date\":\"2018-10-02 10:").append(String.format("%02d", i % 60)).append(":00 +0200\",");
+            sb.append("\"id\":\"").append(String.format("%040x", 1000003L * (i + 1))).append("\",");
+            sb.append("\"msg\":\"Change number ").append(i).append("\",\"paths\":[{\"editType\":\"edit\",");
+            sb.append("\"file\":\"src/main/java/Deploy").append(i).append(".java\"}]}");
+        }
+        sb.append("],\"kind\":\"git\"},\"culprits\":[{\"absoluteUrl\":\"https://jenkins.example.com/user/dev0\",");
+        sb.append("\"fullName\":\"Developer 0\"}]}");
+        return sb.toString();
+    }
+
+    /**
+     * @return the metadata of a parameterized job with some recent builds.
+     */
+    public static String job(int parameters, int builds)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"_class\":\"hudson.model.FreeStyleProject\",\"actions\":[{},{},");
+        sb.append("{\"_class\":\"hudson.model.ParametersDefinitionProperty\",\"parameterDefinitions\":[");
+        for (int i = 0; i < parameters; i++) {
+            if (i > 0) sb.append(',');
+            if (i % 3 == 2) {
+                sb.append("{\"_class\":\"hudson.model.ChoiceParameterDefinition\",\"defaultParameterValue\":");
+                sb.append("{\"_class\":\"hudson.model.StringParameterValue\",\"name\":\"PARAM_").append(i);
+                sb.append("\",\"value\":\"a\"},\"description\":\"Choice parameter ").append(i);
+                sb.append("\",\"name\":\"PARAM_").append(i).append("\",\"type\":\"ChoiceParameterDefinition\",");
+                sb.append("\"choices\":[\"a\",\"b\",\"c\",\"d\"]}");
+            } else {
+                sb.append("{\"_class\":\"hudson.model.StringParameterDefinition\",\"defaultParameterValue\":");
+                sb.append("{\"_class\":\"hudson.model.StringParameterValue\",\"name\":\"PARAM_").append(i);
+                sb.append("\",\"value\":\"default-").append(i).append("\"},\"description\":\"String parameter ");
+                sb.append(i).append("\",\"name\":\"PARAM_").append(i).append("\",\"type\":\"StringParameterDefinition\"}");
+            }
+        }
+        sb.append("]},{},{\"_class\":\"com.cloudbees.plugins.credentials.ViewCredentialsAction\"}],");
+        sb.append("\"description\":\"Deploys the team services.\",\"displayName\":\"deploy\",\"displayNameOrNull\":null,");
+        sb.append("\"fullDisplayName\":\"team \u00bb deploy\",\"fullName\":\"team/deploy\",\"name\":\"deploy\",");
+        sb.append("\"url\":\"https://jenkins.example.com/job/team/job/deploy/\",\"buildable\":true,\"builds\":[");
+        for (int i = 0; i < builds; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"_class\":\"hudson.model.FreeStyleBuild\",\"number\":").append(1742 - i);
+            sb.append(",\"url\":\"https://jenkins.example.com/job/team/job/deploy/").append(1742 - i).append("/\"}");
+        }
+        sb.append("],\"color\":\"blue\",\"firstBuild\":{\"_class\":\"hudson.model.FreeStyleBuild\",\"number\":1,");
+        sb.append("\"url\":\"https://jenkins.example.com/job/team/job/deploy/1/\"},\"healthReport\":[{\"description\":");
+        sb.append("\"Build stability: No recent builds failed.\",\"iconClassName\":\"icon-health-80plus\",");
+        sb.append("\"iconUrl\":\"health-80plus.png\",\"score\":100}],\"inQueue\":false,\"keepDependencies\":false,");
+        sb.append("\"nextBuildNumber\":1743,\"property\":[{\"_class\":\"hudson.model.ParametersDefinitionProperty\"}],");
+        sb.append("\"queueItem\":null,\"concurrentBuild\":true,\"scm\":{\"_class\":\"hudson.plugins.git.GitSCM\"}}");
+        return sb.toString();
+    }
+
+    private static String parametersAction(int parameters)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"_class\":\"hudson.model.ParametersAction\",\"parameters\":[");
+        for (int i = 0; i < parameters; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"_class\":\"hudson.model.StringParameterValue\",\"name\":\"PARAM_").append(i);
+            sb.append("\",\"value\":\"value-").append(i).append("\"}");
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hudson.FilePath;
+
+/**
+ * Assembling the multipart form data sent to trigger a remote job with file parameters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class FormDataBenchmark
+{
+
+    /**
+     * The size of the file parameter in bytes.
+     */
+    @Param({ "1024", "1048576", "16777216" })
+    public int fileSize;
+
+    /**
+     * The number of string parameters sent along with the file.
+     */
+    @Param({ "10" })
+    public int parameters;
+
+    private File file;
+    private Map<String, Object> params;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        file = File.createTempFile("form-data", ".bin");
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+
+        params = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < parameters; i++) {
+            params.put("PARAM_" + i, "value-" + i);
+        }
+        params.put("FILE", new FilePath(file));
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        file.delete();
+    }
+
+    @Benchmark
+    public long writeFormData() throws IOException, InterruptedException
+    {
+        CountingOutputStream out = new CountingOutputStream();
+        HttpHelper.writeFormData(params, "===1538471234567===", out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long getFormDataLength() throws IOException, InterruptedException
+    {
+        return HttpHelper.getFormDataLength(params, "===1538471234567===");
+    }
+
+    /**
+     * Stands in for the connection, the cost of the network is not measured.
+     */
+    private static class CountingOutputStream extends OutputStream
+    {
+        long count;
+
+        @Override
+        public void write(int b)
+        {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len)
+        {
+            count += len;
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.benchmarks.Payloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading the body of a response into a String, as done for every request not parsed as stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class ResponseBenchmark
+{
+
+    /**
+     * The response: a queue item, a build or the metadata of a job, see {@link Payloads}.
+     */
+    @Param({ "queueItem", "build", "job" })
+    public String payload;
+
+    private URL url;
+    private byte[] body;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        url = new URL("https://jenkins.example.com/api/json");
+        String json;
+        if ("queueItem".equals(payload)) json = Payloads.queueItem(10);
+        else if ("build".equals(payload)) json = Payloads.build(10, 20, 10);
+        else json = Payloads.job(50, 100);
+        body = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String readInputStream() throws IOException
+    {
+        return HttpHelper.readInputStream(new ResponseConnection(url, body));
+    }
+
+    /**
+     * A connection returning a fixed body, the cost of the network is not measured.
+     */
+    static class ResponseConnection extends HttpURLConnection
+    {
+        private final byte[] body;
+
+        ResponseConnection(URL url, byte[] body)
+        {
+            super(url);
+            this.body = body;
+        }
+
+        @Override
+        public InputStream getInputStream()
+        {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int getResponseCode()
+        {
+            return HTTP_OK;
+        }
+
+        @Override
+        public void connect()
+        {
+        }
+
+        @Override
+        public void disconnect()
+        {
+        }
+
+        @Override
+        public boolean usingProxy()
+        {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteJenkinsServer;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hudson.AbortException;
+
+/**
+ * Building the trigger URL and encoding the parameters, done for every triggered build.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@State(Scope.Benchmark)
+public class UrlBenchmark
+{
+
+    /**
+     * The number of parameters of the remote job.
+     */
+    @Param({ "1", "10", "50" })
+    public int parameters;
+
+    /**
+     * Plain ASCII values, or values which mostly need to be percent-encoded.
+     */
+    @Param({ "ascii", "unicode" })
+    public String values;
+
+    private List<String> params;
+    private String value;
+    private BuildContext context;
+    private RemoteBuildInfo buildInfo;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        params = new ArrayList<String>();
+        for (int i = 0; i < parameters; i++) {
+            params.add(String.format("PARAM_%d=%s", i, value(i)));
+        }
+        value = value(0);
+
+        RemoteJenkinsServer server = new RemoteJenkinsServer();
+        server.setAddress("https://jenkins.example.com/");
+        PrintStream logger = new PrintStream(new OutputStream()
+        {
+            @Override
+            public void write(int b)
+            {
+            }
+        });
+        context = new BuildContext(logger, server, "benchmark");
+
+        buildInfo = new RemoteBuildInfo();
+        buildInfo.setQueueId("4711");
+        buildInfo.setBuildData(12, new URL("https://jenkins.example.com/job/team/job/services/job/deploy/12/"));
+    }
+
+    private String value(int i)
+    {
+        if ("unicode".equals(values)) return String.format("grüße & été #%d / 100%% ✓", i);
+        return String.format("release-1.2.%d", i);
+    }
+
+    @Benchmark
+    public String encodeValue()
+    {
+        return HttpHelper.encodeValue(value);
+    }
+
+    @Benchmark
+    public String buildUrlQueryString()
+    {
+        return HttpHelper.buildUrlQueryString(params);
+    }
+
+    @Benchmark
+    public String generateJobUrl() throws AbortException
+    {
+        return HttpHelper.generateJobUrl(context.effectiveRemoteServer, "team/services/deploy");
+    }
+
+    @Benchmark
+    public String buildTriggerUrl() throws IOException
+    {
+        return HttpHelper.buildTriggerUrl("team/services/deploy", "token", params, true, context);
+    }
+
+    /**
+     * The URL requested by every poll of a running build.
+     */
+    @Benchmark
+    public String buildStatusUrl()
+    {
+        return buildInfo.getUrls(context.effectiveRemoteServer.getAddress()).getBuildStatusApiUrl();
+    }
+
+}
@@ -44,6 +44,24 @@ public class ConnectionResponse
         return header;
     }
 
+    /**
+     * Gets the first value of a response header, ignoring the case of the header name.
+     *
+     * @param name
+     *            the name of the header.
+     * @return the value, or null if the header is not present.
+     */
+    @CheckForNull
+    public String getHeaderValue(@Nonnull String name)
+    {
+        for (Map.Entry<String, List<String>> entry : header.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey()) && entry.getValue() != null && !entry.getValue().isEmpty()) {
+                return entry.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
     public JSONObject getBody() {
         return body;
     }
@@ -11,6 +11,7 @@ public class JenkinsCrumb
     String headerId;
     String crumbValue;
     boolean isEnabledOnRemote;
+    String sessionCookies;
 
     /**
      * New JenkinsCrumb object indicating that CSRF is disabled in the remote Jenkins (no crumb needed).
@@ -37,6 +38,23 @@ public class JenkinsCrumb
         this.isEnabledOnRemote = true;
     }
 
+    /**
+     * New JenkinsCrumb object bound to the web session it was issued for. Newer Jenkins versions
+     * only accept a crumb within the session it was issued in.
+     *
+     * @param headerId
+     *            the header ID to be used in the subsequent requests.
+     * @param crumbValue
+     *            the crumb value to be used in the header of subsequent requests.
+     * @param sessionCookies
+     *            the cookies of the session, in the format of the <code>Cookie</code> header. Null if none were set.
+     */
+    public JenkinsCrumb(String headerId, String crumbValue, String sessionCookies)
+    {
+        this(headerId, crumbValue);
+        this.sessionCookies = sessionCookies;
+    }
+
     /**
      * @return the header ID to be used in the subsequent requests. Null if CSRF is disabled in the remote Jenkins.
      */
@@ -60,4 +78,13 @@ public class JenkinsCrumb
     {
         return isEnabledOnRemote;
     }
+
+    /**
+     * @return the cookies of the session the crumb was issued for, to be sent in the <code>Cookie</code>
+     *         header of subsequent requests. Null if the remote Jenkins did not set any.
+     */
+    public String getSessionCookies()
+    {
+        return sessionCookies;
+    }
 }
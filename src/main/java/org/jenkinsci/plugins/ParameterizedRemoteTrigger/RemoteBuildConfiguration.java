@@ -17,9 +17,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -32,17 +38,30 @@ import org.apache.commons.lang.exception.ExceptionUtils;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.Auth2;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.Auth2.Auth2Descriptor;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.NullAuth;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.PartialResponseException;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.metrics.RemoteMetrics;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.pipeline.Handle;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.pipeline.RemoteJobSpec;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll.RemoteBuildEvents;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll.RemoteBuildPoller;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.QueueItem;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.QueueItemData;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildInfo;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildInfoExporterAction;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildStatus;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildUrls;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing.Span;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing.Tracer;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.CircuitBreaker;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.DropCachePeriodicWork;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.FormValidationUtils;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.FormValidationUtils.AffectedField;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.FormValidationUtils.RemoteURLCombinationsResult;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.HostConcurrencyLimiter;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.HttpHelper;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.JsonProjection;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.RemoteApi;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.RequestRateLimiter;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.RestUtils;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.TokenMacroUtils;
 import org.kohsuke.accmod.Restricted;
@@ -77,7 +96,7 @@ import net.sf.json.JSONObject;
  *
  */
 @ParametersAreNullableByDefault
-public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep, Serializable {
+public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep, Serializable, Cloneable {
 
 	private static final long serialVersionUID = -4059001060991775146L;
 
@@ -88,6 +107,9 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 	private final static Auth2 DEFAULT_AUTH = NullAuth.INSTANCE;
 
 	private static final int DEFAULT_POLLINTERVALL = 10;
+	private static final int DEFAULT_MIN_POLL_INTERVAL = 2;
+	private static final int DEFAULT_MAX_POLL_INTERVAL = 300;
+	private static final int DEFAULT_EVENT_FALLBACK_INTERVAL = 300;
 	private static final int connectionRetryLimit = 5;
 
 	/**
@@ -103,6 +125,11 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 	private boolean shouldNotFailBuild;
 	private boolean preventRemoteBuildQueue;
 	private int pollInterval;
+	private boolean adaptivePolling;
+	private int minPollInterval;
+	private int maxPollInterval;
+	private boolean useRemoteEvents;
+	private int eventFallbackInterval;
 	private boolean blockBuildUntilComplete;
 	private String job;
 	private String token;
@@ -110,19 +137,25 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 	private boolean enhancedLogging;
 	private boolean loadParamsFromFile;
 	private String parameterFile;
+	/**
+	 * The number of concurrent connections is limited per remote server now, for all jobs together.
+	 * 
+	 * @deprecated use {@link RemoteJenkinsServer#getMaxConnections()} instead.
+	 */
+	@Deprecated
 	private int maxConn;
 	private boolean useCrumbCache;
 	private boolean useJobInfoCache;
 	private boolean abortTriggeredJob;
-	
-	private Map<String, Semaphore> hostLocks = new HashMap<>();
-	private Map<String, Integer> hostPermits = new HashMap<>();
 
 	private static Logger logger = Logger.getLogger(RemoteBuildConfiguration.class.getName());
 
 	@DataBoundConstructor
 	public RemoteBuildConfiguration() {
 		pollInterval = DEFAULT_POLLINTERVALL;
+		minPollInterval = DEFAULT_MIN_POLL_INTERVAL;
+		maxPollInterval = DEFAULT_MAX_POLL_INTERVAL;
+		eventFallbackInterval = DEFAULT_EVENT_FALLBACK_INTERVAL;
 	}
 
 	/*
@@ -148,6 +181,10 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 		this.abortTriggeredJob = abortTriggeredJob;
 	}
 
+	/**
+	 * @deprecated the value is ignored, use {@link RemoteJenkinsServer#setMaxConnections(int)} instead.
+	 */
+	@Deprecated
 	@DataBoundSetter
 	public void setMaxConn(int maxConn) {
 		this.maxConn = (maxConn > 5) ? 5 : maxConn;
@@ -188,6 +225,32 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 			this.pollInterval = pollInterval;
 	}
 
+	@DataBoundSetter
+	public void setAdaptivePolling(boolean adaptivePolling) {
+		this.adaptivePolling = adaptivePolling;
+	}
+
+	@DataBoundSetter
+	public void setMinPollInterval(int minPollInterval) {
+		this.minPollInterval = (minPollInterval <= 0) ? DEFAULT_MIN_POLL_INTERVAL : minPollInterval;
+	}
+
+	@DataBoundSetter
+	public void setMaxPollInterval(int maxPollInterval) {
+		this.maxPollInterval = (maxPollInterval <= 0) ? DEFAULT_MAX_POLL_INTERVAL : maxPollInterval;
+	}
+
+	@DataBoundSetter
+	public void setUseRemoteEvents(boolean useRemoteEvents) {
+		this.useRemoteEvents = useRemoteEvents;
+	}
+
+	@DataBoundSetter
+	public void setEventFallbackInterval(int eventFallbackInterval) {
+		this.eventFallbackInterval = (eventFallbackInterval <= 0) ? DEFAULT_EVENT_FALLBACK_INTERVAL
+				: eventFallbackInterval;
+	}
+
 	@DataBoundSetter
 	public void setBlockBuildUntilComplete(boolean blockBuildUntilComplete) {
 		this.blockBuildUntilComplete = blockBuildUntilComplete;
@@ -410,33 +473,9 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 					expandedJob, this.remoteJenkinsName, this.remoteJenkinsUrl));
 		}
 
-		String addr = server.getAddress();
-		if (addr != null) {
-			URL url = new URL(addr);
-			Semaphore s = hostLocks.get(url.getHost());
-			Integer lastPermit = hostPermits.get(url.getHost());
-			int maxConn = getMaxConn();
-			if (s == null || lastPermit == null || maxConn != lastPermit) {
-				s = new Semaphore(maxConn);
-				hostLocks.put(url.getHost(), s);
-				hostPermits.put(url.getHost(), maxConn);
-			}
-		}
-
 		return server;
 	}
 
-	public Semaphore getLock(String addr) {
-		Semaphore s = null;
-		try {
-			URL url = new URL(addr);
-			s = hostLocks.get(url.getHost());
-		} catch (Exception e) {
-			logger.log(Level.WARNING, "Failed to setup resource lock", e);
-		}
-		return s;
-	}
-
 	/**
 	 * Lookup up the globally configured Remote Jenkins Server based on display name
 	 *
@@ -607,6 +646,34 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 	 * 
 	 */
 	public Handle performTriggerAndGetQueueId(BuildContext context) throws IOException, InterruptedException {
+		return performTriggerAndGetQueueId(context, null);
+	}
+
+	/**
+	 * @param sharedMetadata
+	 *            the metadata of the remote jobs triggered together with this one, or null if
+	 *            only this remote job is triggered. The configuration is then logged by the caller.
+	 */
+	private Handle performTriggerAndGetQueueId(BuildContext context,
+			@CheckForNull ConcurrentMap<String, CompletableFuture<JSONObject>> sharedMetadata)
+			throws IOException, InterruptedException {
+		// every trigger is a trace of its own, with the requests of the trigger as child spans
+		Span span = Tracer.startSpan("trigger " + getJob(), Span.Kind.INTERNAL, null);
+		try (Tracer.Scope scope = Tracer.activate(span)) {
+			Handle handle = triggerRemoteJob(context, sharedMetadata);
+			span.setAttribute("remote.queue_id", handle.getBuildInfo().getQueueId());
+			return handle;
+		} catch (IOException | InterruptedException | RuntimeException e) {
+			span.recordError(e);
+			throw e;
+		} finally {
+			span.end();
+		}
+	}
+
+	private Handle triggerRemoteJob(BuildContext context,
+			@CheckForNull ConcurrentMap<String, CompletableFuture<JSONObject>> sharedMetadata)
+			throws IOException, InterruptedException {
 		Map<String, Object> cleanedParams = getParameterList(context);
 		String jobNameOrUrl = this.getJob();
 		String securityToken = this.getToken();
@@ -618,10 +685,12 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 			this.failBuild(e, context.logger);
 		}
 
-		logConfiguration(context, cleanedParams);
+		if (sharedMetadata == null)
+			logConfiguration(context, cleanedParams);
 
-		final JSONObject remoteJobMetadata = getRemoteJobMetadata(jobNameOrUrl, context);
+		final JSONObject remoteJobMetadata = getRemoteJobMetadata(jobNameOrUrl, context, sharedMetadata);
 		boolean isRemoteParameterized = isRemoteJobParameterized(remoteJobMetadata);
+		final String eventToken = getEventToken(context, cleanedParams, isRemoteParameterized);
 
 		final String triggerUrlString = HttpHelper.buildTriggerUrl(jobNameOrUrl, securityToken, null,
 				isRemoteParameterized, context);
@@ -631,16 +700,17 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 		context.logger.println(String.format("Triggering %s remote job '%s'",
 				(isRemoteParameterized ? "parameterized" : "non-parameterized"), jobUrlString));
 
-		logAuthInformation(context);
-
 		RemoteBuildInfo buildInfo = new RemoteBuildInfo();
+		buildInfo.setEventToken(eventToken);
 
-		context.logger.println("Triggering remote job now.");
+		if (sharedMetadata == null) {
+			logAuthInformation(context);
+			context.logger.println("Triggering remote job now.");
+		}
 
 		try {
 			ConnectionResponse responseRemoteJob = HttpHelper.tryPost(triggerUrlString, context, cleanedParams,
-					this.getPollInterval(), this.getConnectionRetryLimit(), this.getAuth2(), getLock(triggerUrlString),
-					isUseCrumbCache());
+					this.getConnectionRetryLimit(), this.getAuth2(), isUseCrumbCache());
 			QueueItem queueItem = new QueueItem(responseRemoteJob.getHeader());
 			buildInfo.setQueueId(queueItem.getId());
 			buildInfo = updateBuildInfo(buildInfo, context);
@@ -651,6 +721,188 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 		return new Handle(this, buildInfo, context.currentItem, context.effectiveRemoteServer, remoteJobMetadata);
 	}
 
+	/**
+	 * Triggers several remote jobs at once, with the settings of this configuration and the
+	 * job, parameters and token of each of the given specs.
+	 * 
+	 * The jobs are triggered concurrently on the trigger threads of the {@link RemoteBuildPoller}, taking turns
+	 * between the remote hosts. The requests per remote host are still limited by its
+	 * {@link HostConcurrencyLimiter}. The metadata of each remote job is only requested once,
+	 * and the crumb of each remote host is shared by all triggers via the crumb cache.
+	 *
+	 * @param context
+	 *            the context of the Pipeline step.
+	 * @param logger
+	 *            the log of the Pipeline step.
+	 * @param jobs
+	 *            the remote jobs to trigger.
+	 * @return a future which completes with the handles of the remote builds, in the order of the
+	 *         given jobs, or exceptionally if a remote job could not be triggered. The remote builds
+	 *         triggered anyway are aborted then, if <code>abortTriggeredJob</code> is set.
+	 * @throws IOException
+	 *             if the remote host of a job can not be determined.
+	 */
+	@Nonnull
+	public CompletableFuture<List<Handle>> performTriggerAllAsync(@Nonnull BasicBuildContext context,
+			@Nonnull PrintStream logger, @Nonnull List<RemoteJobSpec> jobs) throws IOException {
+		final List<RemoteBuildConfiguration> configs = new ArrayList<RemoteBuildConfiguration>();
+		final List<BuildContext> contexts = new ArrayList<BuildContext>();
+		Map<String, List<Integer>> jobsByHost = new LinkedHashMap<String, List<Integer>>();
+		for (int i = 0; i < jobs.size(); i++) {
+			RemoteBuildConfiguration config = forJob(jobs.get(i));
+			RemoteJenkinsServer server = config.evaluateEffectiveRemoteHost(context);
+			configs.add(config);
+			contexts.add(new BuildContext(context.run, context.workspace, context.listener, logger, server));
+			String host = String.valueOf(server.getAddress());
+			if (!jobsByHost.containsKey(host))
+				jobsByHost.put(host, new ArrayList<Integer>());
+			jobsByHost.get(host).add(i);
+		}
+
+		logger.println(String.format("Triggering %d remote jobs on %d remote hosts:", jobs.size(), jobsByHost.size()));
+		for (Map.Entry<String, List<Integer>> host : jobsByHost.entrySet()) {
+			for (int i : host.getValue()) {
+				logger.println(String.format("  - %s on %s", configs.get(i).getJob(), host.getKey()));
+			}
+		}
+
+		final ConcurrentMap<String, CompletableFuture<JSONObject>> sharedMetadata = new ConcurrentHashMap<String, CompletableFuture<JSONObject>>();
+		final List<CompletableFuture<Handle>> triggers = new ArrayList<CompletableFuture<Handle>>();
+		for (int i = 0; i < jobs.size(); i++) {
+			triggers.add(new CompletableFuture<Handle>());
+		}
+		// take turns between the hosts, so that a slow host does not hold back the others
+		List<Iterator<Integer>> hosts = new ArrayList<Iterator<Integer>>();
+		for (List<Integer> hostJobs : jobsByHost.values()) {
+			hosts.add(hostJobs.iterator());
+		}
+		while (!hosts.isEmpty()) {
+			for (Iterator<Iterator<Integer>> it = hosts.iterator(); it.hasNext();) {
+				Iterator<Integer> hostJobs = it.next();
+				if (!hostJobs.hasNext()) {
+					it.remove();
+					continue;
+				}
+				final int i = hostJobs.next();
+				RemoteBuildPoller.submitTrigger(() -> {
+					try {
+						triggers.get(i).complete(configs.get(i).performTriggerAndGetQueueId(contexts.get(i), sharedMetadata));
+					} catch (Throwable e) {
+						triggers.get(i).completeExceptionally(e);
+					}
+				});
+			}
+		}
+
+		final CompletableFuture<List<Handle>> result = new CompletableFuture<List<Handle>>();
+		CompletableFuture.allOf(triggers.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+			List<Handle> handles = new ArrayList<Handle>();
+			Throwable failure = null;
+			for (CompletableFuture<Handle> trigger : triggers) {
+				try {
+					handles.add(trigger.join());
+				} catch (CompletionException | CancellationException e) {
+					Throwable cause = (e instanceof CompletionException) ? e.getCause() : e;
+					if (failure == null)
+						failure = cause;
+					else
+						failure.addSuppressed(cause);
+				}
+			}
+			if (failure == null) {
+				result.complete(handles);
+				return;
+			}
+			for (int i = 0; i < triggers.size(); i++) {
+				if (triggers.get(i).isCompletedExceptionally())
+					continue;
+				try {
+					configs.get(i).abortRemoteTask(contexts.get(i).effectiveRemoteServer, triggers.get(i).join(),
+							contexts.get(i));
+				} catch (Exception e) {
+					failure.addSuppressed(e);
+				}
+			}
+			result.completeExceptionally(failure);
+		});
+		return result;
+	}
+
+	/**
+	 * Same as {@link #performTriggerAllAsync(BasicBuildContext, PrintStream, List)}, but waits
+	 * until all remote jobs have been triggered.
+	 *
+	 * @param context
+	 *            the context of the Pipeline step.
+	 * @param logger
+	 *            the log of the Pipeline step.
+	 * @param jobs
+	 *            the remote jobs to trigger.
+	 * @return the handles of the remote builds, in the order of the given jobs.
+	 * @throws IOException
+	 *             if a remote job could not be triggered.
+	 * @throws InterruptedException
+	 *             if any thread has interrupted the current thread.
+	 */
+	@Nonnull
+	public List<Handle> performTriggerAll(@Nonnull BasicBuildContext context, @Nonnull PrintStream logger,
+			@Nonnull List<RemoteJobSpec> jobs) throws IOException, InterruptedException {
+		return RemoteBuildPoller.await(performTriggerAllAsync(context, logger, jobs));
+	}
+
+	/**
+	 * @param spec
+	 *            the remote job to trigger.
+	 * @return a copy of this configuration, triggering the given remote job.
+	 */
+	@Nonnull
+	public RemoteBuildConfiguration forJob(@Nonnull RemoteJobSpec spec) {
+		RemoteBuildConfiguration config;
+		try {
+			config = (RemoteBuildConfiguration) clone();
+		} catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+		config.setJob(spec.getJob());
+		config.setParameters(spec.getParameters());
+		config.setToken(spec.getToken());
+		config.setLoadParamsFromFile(false);
+		// one crumb per remote host, shared by all triggers
+		config.setUseCrumbCache(true);
+		return config;
+	}
+
+	/**
+	 * Prepares the remote build to send its events, if enabled, by passing the callback URL as parameter.
+	 *
+	 * @param context
+	 *            the context of this Builder/BuildStep.
+	 * @param params
+	 *            the parameters of the remote build, the callback URL is added to them.
+	 * @param isRemoteParameterized
+	 *            true if the remote job accepts parameters.
+	 * @return the token of the remote build, or null if the remote build is only polled.
+	 */
+	@CheckForNull
+	private String getEventToken(BuildContext context, Map<String, Object> params, boolean isRemoteParameterized) {
+		if (!useRemoteEvents)
+			return null;
+		if (!isRemoteParameterized) {
+			context.logger.println("WARNING: The remote job is not parameterized, it can not get the callback URL"
+					+ " for its events and is polled instead.");
+			return null;
+		}
+		String eventToken = RemoteBuildEvents.newToken();
+		String callbackUrl = RemoteBuildEvents.getCallbackUrl(eventToken);
+		if (callbackUrl == null) {
+			context.logger.println("WARNING: The Jenkins URL is not configured, the remote build can not send events"
+					+ " and is polled instead.");
+			return null;
+		}
+		params.put(RemoteBuildEvents.CALLBACK_PARAMETER, callbackUrl);
+		return eventToken;
+	}
+
 	/**
 	 * Checks the remote build status and, waits for completion if
 	 * <code>blockBuildUntilComplete</code> is set.
@@ -665,8 +917,24 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 	 *             if any HTTP error or business logic error
 	 */
 	public void performWaitForBuild(BuildContext context, Handle handle) throws IOException, InterruptedException {
-		String jobName = handle.getJobName();
+		RemoteBuildPoller.await(performWaitForBuildAsync(context, handle));
+	}
 
+	/**
+	 * Same as {@link #performWaitForBuild(BuildContext, Handle)} but without blocking the
+	 * calling thread. The remote build is polled by the shared {@link RemoteBuildPoller}.
+	 *
+	 * @param context
+	 *            the context of this Builder/BuildStep.
+	 * @param handle
+	 *            the handle to the remote execution.
+	 * @return a future which completes with the handle once the remote build started, or, if
+	 *         <code>blockBuildUntilComplete</code> is set, once the remote build finished.
+	 *         Cancelling the future stops polling the remote build.
+	 * @throws IOException
+	 *             if the queue id of the remote build is not known.
+	 */
+	public CompletableFuture<Handle> performWaitForBuildAsync(final BuildContext context, final Handle handle) throws IOException {
 		RemoteBuildInfo buildInfo = handle.getBuildInfo();
 		String queueId = buildInfo.getQueueId();
 		if (queueId == null) {
@@ -679,79 +947,144 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 			context.logger.println("Waiting for remote build to be executed...");
 		}
 
-		while (buildInfo.isQueued()) {
-			context.logger.println("Waiting for " + this.pollInterval + " seconds until next poll.");
-			Thread.sleep(this.pollInterval * 1000);
-			buildInfo = updateBuildInfo(buildInfo, context);
-			handle.setBuildInfo(buildInfo);
+		final CompletableFuture<Handle> result = new CompletableFuture<Handle>();
+		// the polls are child spans of the wait, also those on the poller threads
+		final Span span = Tracer.startSpan("wait " + getJob(), Span.Kind.INTERNAL, null);
+		span.setAttribute("remote.queue_id", queueId);
+		result.whenComplete((finishedHandle, error) -> {
+			RemoteBuildInfo finishedInfo = handle.getBuildInfo();
+			span.setAttribute("remote.build_url", finishedInfo.getBuildURL());
+			span.setAttribute("remote.result", finishedInfo.getResult());
+			if (error != null) span.recordError(error);
+			span.end();
+		});
+		try (Tracer.Scope scope = Tracer.activate(span)) {
+			waitForBuild(context, handle, result);
 		}
+		return result;
+	}
+
+	private void waitForBuild(final BuildContext context, final Handle handle, final CompletableFuture<Handle> result) {
+		final Span span = Tracer.current();
+		RemoteBuildPoller.waitWhile(RemoteBuildStatus.QUEUED, handle, context, this, result, true)
+				.whenComplete((queuedInfo, queuedError) -> {
+					try {
+						if (queuedError != null) throw queuedError;
+						if (!onRemoteBuildStarted(context, handle)) {
+							result.complete(handle);
+							return;
+						}
+						if (getEnhancedLogging()) {
+							RemoteBuildPoller.repeatWhile(result, context, getPollInterval(), () -> {
+								try {
+									streamConsoleOutput(handle, context);
+								} catch (IOException | InterruptedException e) {
+									logger.log(Level.FINE, "Streaming remote console output failed", e);
+								}
+							});
+						}
+						try (Tracer.Scope scope = Tracer.activate(span)) {
+							RemoteBuildPoller.waitWhile(RemoteBuildStatus.RUNNING, handle, context, this, result, false)
+									.whenComplete((runningInfo, runningError) -> {
+										if (runningError != null) {
+											result.completeExceptionally(runningError);
+											return;
+										}
+										// stream what the remote build wrote since the last poll
+										CompletableFuture<Void> streamed = getEnhancedLogging()
+												? RemoteBuildPoller.repeatUntilDone(result, context, 1,
+														() -> streamConsoleOutput(handle, context))
+												: CompletableFuture.completedFuture(null);
+										streamed.whenComplete((ignored, streamError) -> {
+											try {
+												if (streamError != null) throw streamError;
+												onRemoteBuildFinished(context, handle);
+												result.complete(handle);
+											} catch (Throwable e) {
+												result.completeExceptionally(e);
+											}
+										});
+									});
+						}
+					} catch (Throwable e) {
+						result.completeExceptionally(e);
+					}
+				});
+	}
 
+	/**
+	 * Called once the remote build left the queue.
+	 *
+	 * @return true if the local build has to wait for the remote build to finish.
+	 */
+	private boolean onRemoteBuildStarted(BuildContext context, Handle handle) throws IOException {
+		RemoteBuildInfo buildInfo = handle.getBuildInfo();
 		URL jobURL = buildInfo.getBuildURL();
 		int jobNumber = buildInfo.getBuildNumber();
 
 		if (jobURL == null || jobNumber == 0) {
 			throw new AbortException(String.format("Unexpected status: %s", buildInfo.toString()));
 		}
+		// already reported before Jenkins was restarted
+		if (handle.isStartReported()) return this.getBlockBuildUntilComplete();
+		handle.setStartReported(true);
 
 		context.logger.println("Remote build started!");
+		if (buildInfo.getQueuedAt() > 0 && buildInfo.getStartedAt() > 0) {
+			RemoteMetrics.recordQueueDuration(jobURL, buildInfo.getStartedAt() - buildInfo.getQueuedAt());
+		}
 		context.logger.println("  Remote build URL: " + jobURL);
 		context.logger.println("  Remote build number: " + jobNumber);
 
 		if (context.run != null)
-			RemoteBuildInfoExporterAction.addBuildInfoExporterAction(context.run, jobName, jobNumber, jobURL,
+			RemoteBuildInfoExporterAction.addBuildInfoExporterAction(context.run, handle.getJobName(), jobNumber, jobURL,
 					buildInfo);
 
 		if (this.getBlockBuildUntilComplete()) {
 			context.logger.println("Blocking local job until remote job completes.");
-
-			buildInfo = updateBuildInfo(buildInfo, context);
-			handle.setBuildInfo(buildInfo);
-
 			if (buildInfo.isRunning()) {
 				context.logger.println("Waiting for remote build to finish ...");
 			}
-
-			while (buildInfo.isRunning()) {
-				context.logger.println("  Waiting for " + this.pollInterval + " seconds until next poll.");
-				Thread.sleep(this.pollInterval * 1000);
-				buildInfo = updateBuildInfo(buildInfo, context);
-				handle.setBuildInfo(buildInfo);
-			}
-
-			context.logger.println("Remote build finished with status " + buildInfo.getResult().toString() + ".");
-			if (context.run != null)
-				RemoteBuildInfoExporterAction.addBuildInfoExporterAction(context.run, jobName, jobNumber, jobURL,
-						buildInfo);
-
 			if (this.getEnhancedLogging()) {
-				String consoleOutput = getConsoleOutput(jobURL, context);
-
-				context.logger.println();
-				context.logger.println("Console output of remote job:");
-				context.logger
-						.println("--------------------------------------------------------------------------------");
-				context.logger.println(consoleOutput);
-				context.logger
-						.println("--------------------------------------------------------------------------------");
-			}
-
-			// If build did not finish with 'success' or 'unstable' then fail build step.
-			if (buildInfo.getResult() != Result.SUCCESS && buildInfo.getResult() != Result.UNSTABLE) {
-				// failBuild will check if the 'shouldNotFailBuild' parameter is set or not, so
-				// will decide how to
-				// handle the failure.
-				this.failBuild(new Exception("The remote job did not succeed."), context.logger);
+				context.logger.println("The console output of the remote job is streamed while it is running.");
 			}
+			return true;
 		} else {
 			context.logger.println("Not blocking local job until remote job completes - fire and forget.");
+			return false;
+		}
+	}
+
+	/**
+	 * Called once the remote build finished.
+	 */
+	private void onRemoteBuildFinished(BuildContext context, Handle handle) throws IOException {
+		RemoteBuildInfo buildInfo = handle.getBuildInfo();
+		URL jobURL = buildInfo.getBuildURL();
+
+		context.logger.println("Remote build finished with status " + buildInfo.getResult().toString() + ".");
+		if (buildInfo.getStartedAt() > 0) {
+			RemoteMetrics.recordRunDuration(jobURL, System.currentTimeMillis() - buildInfo.getStartedAt(),
+					buildInfo.getResult());
+		}
+		if (context.run != null)
+			RemoteBuildInfoExporterAction.addBuildInfoExporterAction(context.run, handle.getJobName(),
+					buildInfo.getBuildNumber(), jobURL, buildInfo);
+
+		// If build did not finish with 'success' or 'unstable' then fail build step.
+		if (buildInfo.getResult() != Result.SUCCESS && buildInfo.getResult() != Result.UNSTABLE) {
+			// failBuild will check if the 'shouldNotFailBuild' parameter is set or not, so
+			// will decide how to
+			// handle the failure.
+			this.failBuild(new Exception("The remote job did not succeed."), context.logger);
 		}
 	}
 
 	/**
 	 * Sends a HTTP request to the API of the remote server requesting a queue item.
 	 *
-	 * @param queueId
-	 *            the id of the remote job on the queue.
+	 * @param buildInfo
+	 *            the queued remote build, providing the URL of its queue item.
 	 * @param context
 	 *            the context of this Builder/BuildStep.
 	 * @return {@link QueueItemData} the queue item data.
@@ -764,16 +1097,15 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 	 *             if any thread has interrupted the current thread.
 	 */
 	@Nonnull
-	private QueueItemData getQueueItemData(@Nonnull String queueId, @Nonnull BuildContext context)
+	private QueueItemData getQueueItemData(@Nonnull RemoteBuildInfo buildInfo, @Nonnull BuildContext context)
 			throws IOException, InterruptedException {
 
-		if (context.effectiveRemoteServer.getAddress() == null) {
+		String queueQuery = buildInfo.getUrls(context.effectiveRemoteServer.getAddress()).getQueueItemApiUrl();
+		if (queueQuery == null) {
 			throw new AbortException(
 					"The remote server address can not be empty, or it must be overridden on the job configuration.");
 		}
-		String queueQuery = String.format("%s/queue/item/%s/api/json/", context.effectiveRemoteServer.getAddress(),
-				queueId);
-		ConnectionResponse response = doGet(queueQuery, context);
+		ConnectionResponse response = doConditionalGet(queueQuery, context, RemoteApi.QUEUE_ITEM);
 		JSONObject queueResponse = response.getBody();
 
 		if (queueResponse == null || queueResponse.isNullObject()) {
@@ -783,19 +1115,6 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 
 		QueueItemData queueItem = new QueueItemData();
 		queueItem.update(context, queueResponse);
-
-		if (queueItem.isBlocked())
-			context.logger.println(String.format("The remote job is blocked. %s.", queueItem.getWhy()));
-
-		if (queueItem.isPending())
-			context.logger.println(String.format("The remote job is pending. %s.", queueItem.getWhy()));
-
-		if (queueItem.isBuildable())
-			context.logger.println(String.format("The remote job is buildable. %s.", queueItem.getWhy()));
-
-		if (queueItem.isCancelled())
-			throw new AbortException("The remote job was canceled");
-
 		return queueItem;
 	}
 
@@ -812,24 +1131,75 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 				throw new AbortException(
 						String.format("Unexpected status: %s. The queue id was not found.", buildInfo.toString()));
 			}
-			QueueItemData queueItem = getQueueItemData(queueId, context);
-			if (queueItem.isExecuted()) {
-				buildInfo.setBuildData(queueItem.getBuildNumber(), queueItem.getBuildURL());
-			}
-			return buildInfo;
+			return updateBuildInfo(buildInfo, getQueueItemData(buildInfo, context), context);
 		}
 
-		// Only avoid url cache while loop inquiry
-		String buildUrlString = String.format("%sapi/json/?seed=%d", buildInfo.getBuildURL(),
-				System.currentTimeMillis());
-		JSONObject responseObject = doGet(buildUrlString, context).getBody();
+		// sent with Cache-Control: no-cache, so caches in between revalidate instead of answering
+		String buildUrlString = buildInfo.getUrls(context.effectiveRemoteServer.getAddress()).getBuildStatusApiUrl();
+		if (buildUrlString == null) {
+			throw new AbortException(String.format("Unexpected status: %s. The build URL was not found.", buildInfo));
+		}
+		JSONObject responseObject = doConditionalGet(buildUrlString, context, RemoteApi.BUILD_STATUS).getBody();
+		return updateBuildInfo(buildInfo, responseObject, context);
+	}
+
+	/**
+	 * Updates the status of a queued remote build from the state of its queue item.
+	 *
+	 * @param buildInfo
+	 *            the build info to update.
+	 * @param queueItem
+	 *            the current state of the queue item of the remote build.
+	 * @param context
+	 *            the context of this Builder/BuildStep.
+	 * @return the updated build info.
+	 * @throws IOException
+	 *             if the remote build has been cancelled.
+	 */
+	@Nonnull
+	public RemoteBuildInfo updateBuildInfo(@Nonnull RemoteBuildInfo buildInfo, @Nonnull QueueItemData queueItem,
+			@Nonnull BuildContext context) throws IOException {
+		if (queueItem.isBlocked())
+			context.logger.println(String.format("The remote job is blocked. %s.", queueItem.getWhy()));
+
+		if (queueItem.isPending())
+			context.logger.println(String.format("The remote job is pending. %s.", queueItem.getWhy()));
+
+		if (queueItem.isBuildable())
+			context.logger.println(String.format("The remote job is buildable. %s.", queueItem.getWhy()));
+
+		if (queueItem.isCancelled())
+			throw new AbortException("The remote job was canceled");
+
+		if (queueItem.isExecuted()) {
+			buildInfo.setBuildData(queueItem.getBuildNumber(), queueItem.getBuildURL());
+		}
+		return buildInfo;
+	}
 
+	/**
+	 * Updates the status of a running remote build from the JSON representation of the build.
+	 *
+	 * @param buildInfo
+	 *            the build info to update.
+	 * @param responseObject
+	 *            the JSON representation of the remote build, at least containing
+	 *            <code>building</code> and <code>result</code>.
+	 * @param context
+	 *            the context of this Builder/BuildStep.
+	 * @return the updated build info.
+	 */
+	@Nonnull
+	public RemoteBuildInfo updateBuildInfo(@Nonnull RemoteBuildInfo buildInfo, @CheckForNull JSONObject responseObject,
+			@Nonnull BuildContext context) {
 		try {
 			if (responseObject == null
 					|| responseObject.getString("result") == null && !responseObject.getBoolean("building")) {
 				return buildInfo;
 			} else if (responseObject.getBoolean("building")) {
 				buildInfo.setBuildStatus(RemoteBuildStatus.RUNNING);
+				buildInfo.setTiming(responseObject.optLong("timestamp", 0),
+						responseObject.optLong("estimatedDuration", -1));
 			} else if (responseObject.getString("result") != null) {
 				buildInfo.setBuildResult(responseObject.getString("result"));
 			} else {
@@ -840,10 +1210,55 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 		return buildInfo;
 	}
 
-	private String getConsoleOutput(URL url, BuildContext context) throws IOException, InterruptedException {
-		URL buildUrl = new URL(url, "consoleText");
-		return HttpHelper.tryGetRawResp(buildUrl.toString(), context, this.getPollInterval(),
-				this.getConnectionRetryLimit(), this.getAuth2(), getLock(buildUrl.toString()));
+	/**
+	 * Copies the console output the remote build wrote since the last call to the log, using the
+	 * progressive text API of the remote build. The offset already streamed is kept in the handle,
+	 * so streaming resumes where it stopped. The output is copied chunk by chunk and never held in
+	 * memory as a whole. A copy failing halfway is not retried, the offset is moved past the part
+	 * already copied and the rest is streamed by the next call, so no line is logged twice.
+	 *
+	 * @param handle
+	 *            the handle to the remote build.
+	 * @param context
+	 *            the context of this Builder/BuildStep.
+	 * @return true if the remote build may write more output.
+	 * @throws IOException
+	 *             if the console output could not be requested.
+	 * @throws InterruptedException
+	 *             if any thread has interrupted the current thread.
+	 */
+	private boolean streamConsoleOutput(Handle handle, BuildContext context) throws IOException, InterruptedException {
+		if (!handle.tryStartStreaming()) {
+			// another wait for the same remote build streams its output
+			return true;
+		}
+		try {
+			long offset = handle.getConsoleOffset();
+			String progressiveUrl = handle.getBuildInfo().getUrls(context.effectiveRemoteServer.getAddress())
+					.getConsoleUrl(offset);
+			if (progressiveUrl == null)
+				return true;
+			ConnectionResponse response;
+			try {
+				response = HttpHelper.tryGetToStream(progressiveUrl, context, this.getConnectionRetryLimit(),
+						this.getAuth2(), context.logger);
+			} catch (PartialResponseException e) {
+				logger.log(Level.FINE, "Streaming remote console output was interrupted", e);
+				handle.setConsoleOffset(offset + e.getBytesCopied());
+				return true;
+			}
+			String textSize = response.getHeaderValue("X-Text-Size");
+			if (textSize != null) {
+				try {
+					handle.setConsoleOffset(Long.parseLong(textSize.trim()));
+				} catch (NumberFormatException e) {
+					logger.log(Level.FINE, "Unexpected X-Text-Size: " + textSize, e);
+				}
+			}
+			return Boolean.parseBoolean(response.getHeaderValue("X-More-Data"));
+		} finally {
+			handle.finishStreaming();
+		}
 	}
 
 	/**
@@ -861,8 +1276,50 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 	 *             if any HTTP error occurred.
 	 */
 	public ConnectionResponse doGet(String urlString, BuildContext context) throws IOException, InterruptedException {
-		return HttpHelper.tryGet(urlString, context, this.getPollInterval(), this.getConnectionRetryLimit(),
-				this.getAuth2(), getLock(urlString));
+		return doGet(urlString, context, null);
+	}
+
+	/**
+	 * Same as {@link #doGet(String, BuildContext)}, but only keeps the given fields of the JSON response.
+	 *
+	 * @param urlString
+	 *            the URL to request.
+	 * @param context
+	 *            the context of this Builder/BuildStep.
+	 * @param projection
+	 *            the fields of the response to keep, or null to keep all of them.
+	 * @return the response.
+	 * @throws IOException
+	 *             if the request fails.
+	 * @throws InterruptedException
+	 *             if any thread has interrupted the current thread.
+	 */
+	public ConnectionResponse doGet(String urlString, BuildContext context, JsonProjection projection)
+			throws IOException, InterruptedException {
+		return HttpHelper.tryGet(urlString, context, this.getConnectionRetryLimit(), this.getAuth2(), projection);
+	}
+
+	/**
+	 * Same as {@link #doGet(String, BuildContext, JsonProjection)}, but the request is sent conditionally
+	 * and an unchanged resource is answered from the last response (response code 304). The body of the
+	 * response must not be modified.
+	 *
+	 * @param urlString
+	 *            the URL to request.
+	 * @param context
+	 *            the context of this Builder/BuildStep.
+	 * @param projection
+	 *            the fields of the response to keep, or null to keep all of them.
+	 * @return the response.
+	 * @throws IOException
+	 *             if the request fails.
+	 * @throws InterruptedException
+	 *             if any thread has interrupted the current thread.
+	 */
+	public ConnectionResponse doConditionalGet(String urlString, BuildContext context, JsonProjection projection)
+			throws IOException, InterruptedException {
+		return HttpHelper.tryGetConditional(urlString, context, this.getConnectionRetryLimit(), this.getAuth2(),
+				projection);
 	}
 
 	private void logAuthInformation(BuildContext context) throws IOException {
@@ -889,7 +1346,6 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 		String _remoteJenkinsName = getRemoteJenkinsName();
 		String _remoteJenkinsUrl = getRemoteJenkinsUrl();
 		Auth2 _auth = getAuth2();
-		int _connectionRetryLimit = getConnectionRetryLimit();
 		boolean _blockBuildUntilComplete = getBlockBuildUntilComplete();
 		String _parameterFile = getParameterFile();
 		String _parameters = (effectiveParams == null || effectiveParams.size() <= 0) ? "" : effectiveParams.toString();
@@ -915,7 +1371,13 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 			context.logger.println(String.format("    - parameterFile:           %s", _parameterFile));
 		}
 		context.logger.println(String.format("    - blockBuildUntilComplete: %s", _blockBuildUntilComplete));
-		context.logger.println(String.format("    - connectionRetryLimit:    %s", _connectionRetryLimit));
+		if (useRemoteEvents) {
+			context.logger.println(String.format("    - useRemoteEvents:         %s", useRemoteEvents));
+		}
+		context.logger.println(String.format("    - retryPolicy:             %s",
+				context.effectiveRemoteServer.getRetryPolicy().getDescriptor().getDisplayName()));
+		context.logger.println(String.format("    - maxConnections:          %s",
+				context.effectiveRemoteServer.getMaxConnections()));
 		context.logger.println(
 				"################################################################################################################");
 	}
@@ -924,6 +1386,10 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 		return abortTriggeredJob;
 	}
 
+	/**
+	 * @deprecated use {@link RemoteJenkinsServer#getMaxConnections()} instead.
+	 */
+	@Deprecated
 	public int getMaxConn() {
 		return maxConn;
 	}
@@ -974,6 +1440,58 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 		return pollInterval;
 	}
 
+	public boolean isAdaptivePolling() {
+		return adaptivePolling;
+	}
+
+	public int getMinPollInterval() {
+		return (minPollInterval > 0) ? minPollInterval : DEFAULT_MIN_POLL_INTERVAL;
+	}
+
+	public int getMaxPollInterval() {
+		return (maxPollInterval > 0) ? maxPollInterval : DEFAULT_MAX_POLL_INTERVAL;
+	}
+
+	public boolean isUseRemoteEvents() {
+		return useRemoteEvents;
+	}
+
+	public int getEventFallbackInterval() {
+		return (eventFallbackInterval > 0) ? eventFallbackInterval : DEFAULT_EVENT_FALLBACK_INTERVAL;
+	}
+
+	/**
+	 * Decides when to poll the given remote build next.
+	 * 
+	 * With adaptive polling a running build with a known estimated duration is polled
+	 * after half of its expected remaining time, so the interval shrinks towards the
+	 * expected end. A build taking longer than expected is polled after a quarter of
+	 * the time it is overdue. The interval is kept between the minimum and maximum poll
+	 * interval. In all other cases the fixed poll interval is used.
+	 * 
+	 * A remote build sending events is only polled every event fallback interval, in
+	 * addition to the polls triggered by its events.
+	 * 
+	 * @param buildInfo
+	 *            the remote build to poll.
+	 * @return the time in seconds until the next poll.
+	 */
+	public int getPollInterval(@Nonnull RemoteBuildInfo buildInfo) {
+		if (buildInfo.getEventToken() != null) {
+			return getEventFallbackInterval();
+		}
+		if (!adaptivePolling || !buildInfo.isRunning() || buildInfo.getTimestamp() <= 0
+				|| buildInfo.getEstimatedDuration() <= 0) {
+			return getPollInterval();
+		}
+		long remainingMillis = buildInfo.getTimestamp() + buildInfo.getEstimatedDuration()
+				- System.currentTimeMillis();
+		long intervalMillis = (remainingMillis > 0) ? remainingMillis / 2 : -remainingMillis / 4;
+		int min = getMinPollInterval();
+		int max = Math.max(min, getMaxPollInterval());
+		return (int) Math.max(min, Math.min(max, intervalMillis / 1000));
+	}
+
 	public boolean getBlockBuildUntilComplete() {
 		return blockBuildUntilComplete;
 	}
@@ -1019,18 +1537,48 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 		return connectionRetryLimit; // For now, this is a constant
 	}
 
-	private @Nonnull JSONObject getRemoteJobMetadata(String jobNameOrUrl, BuildContext context)
+	/**
+	 * Same as {@link #getRemoteJobMetadata(String, BuildContext)}, but requests the metadata of each
+	 * remote job only once for all remote jobs triggered together.
+	 */
+	private @Nonnull JSONObject getRemoteJobMetadata(String jobNameOrUrl, BuildContext context,
+			@CheckForNull ConcurrentMap<String, CompletableFuture<JSONObject>> sharedMetadata)
 			throws IOException, InterruptedException {
+		if (sharedMetadata == null)
+			return getRemoteJobMetadata(jobNameOrUrl, context);
 
 		String remoteJobUrl = generateJobUrl(context.effectiveRemoteServer, jobNameOrUrl);
-		remoteJobUrl += "/api/json?tree=actions[parameterDefinitions],property[parameterDefinitions],name,fullName,displayName,fullDisplayName,url";
+		CompletableFuture<JSONObject> requested = new CompletableFuture<JSONObject>();
+		CompletableFuture<JSONObject> existing = sharedMetadata.putIfAbsent(remoteJobUrl, requested);
+		if (existing != null)
+			return RemoteBuildPoller.await(existing);
+		try {
+			JSONObject metadata = getRemoteJobMetadata(jobNameOrUrl, context);
+			requested.complete(metadata);
+			return metadata;
+		} catch (IOException | InterruptedException | RuntimeException e) {
+			requested.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	private @Nonnull JSONObject getRemoteJobMetadata(String jobNameOrUrl, BuildContext context)
+			throws IOException, InterruptedException {
+
+		String remoteJobUrl = RemoteApi.getApiUrl(generateJobUrl(context.effectiveRemoteServer, jobNameOrUrl),
+				RemoteApi.JOB_METADATA);
 
+		Span span = Tracer.startSpan("job info cache lookup");
 		JSONObject jsonObject = DropCachePeriodicWork.safeGetJobInfo(remoteJobUrl, isUseJobInfoCache());
+		span.setAttribute("cache.hit", jsonObject != null).end();
+		if (isUseJobInfoCache()) {
+			RemoteMetrics.recordCacheLookup(new URL(remoteJobUrl), "job_info", jsonObject != null);
+		}
 		if (jsonObject != null) {
 			return jsonObject;
 		}
 
-		ConnectionResponse response = doGet(remoteJobUrl, context);
+		ConnectionResponse response = doConditionalGet(remoteJobUrl, context, RemoteApi.JOB_METADATA);
 		if (response.getResponseCode() < 400 && response.getBody() != null) {
 			return DropCachePeriodicWork.safePutJobInfo(remoteJobUrl, response.getBody(), isUseJobInfoCache());
 
@@ -1082,27 +1630,7 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 
 	protected static String generateJobUrl(RemoteJenkinsServer remoteServer, String jobNameOrUrl)
 			throws AbortException {
-		if (isEmpty(jobNameOrUrl))
-			throw new IllegalArgumentException("Invalid job name/url: " + jobNameOrUrl);
-		String remoteJobUrl;
-		String _jobNameOrUrl = jobNameOrUrl.trim();
-		if (FormValidationUtils.isURL(_jobNameOrUrl)) {
-			remoteJobUrl = _jobNameOrUrl;
-		} else {
-			remoteJobUrl = remoteServer.getAddress();
-			if (remoteJobUrl == null) {
-				throw new AbortException(
-						"The remote server address can not be empty, or it must be overridden on the job configuration.");
-			}
-			while (remoteJobUrl.endsWith("/"))
-				remoteJobUrl = remoteJobUrl.substring(0, remoteJobUrl.length() - 1);
-
-			String[] split = _jobNameOrUrl.trim().split("/");
-			for (String segment : split) {
-				remoteJobUrl = String.format("%s/job/%s", remoteJobUrl, HttpHelper.encodeValue(segment));
-			}
-		}
-		return remoteJobUrl;
+		return RemoteBuildUrls.getJobUrl(remoteServer.getAddress(), jobNameOrUrl);
 	}
 
 	// Overridden for better type safety.
@@ -1144,6 +1672,27 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 		 */
 		private CopyOnWriteList<RemoteJenkinsServer> remoteSites = new CopyOnWriteList<RemoteJenkinsServer>();
 
+		/**
+		 * Time-to-live of the crumb and job info cache entries in minutes, 0 for the default.
+		 */
+		private int cacheTtlMinutes;
+
+		/**
+		 * Maximum number of entries of the crumb and job info caches, 0 for the default.
+		 */
+		private int cacheCapacity;
+
+		/**
+		 * Maximum number of entries of the response cache of the conditional requests, 0 for the default.
+		 */
+		private int responseCacheCapacity;
+
+		/**
+		 * Where the traces of the triggers are exported to: the URL of an OTLP/HTTP collector or
+		 * a file path. Empty if tracing is disabled.
+		 */
+		private String traceExport;
+
 		/**
 		 * In order to load the persisted global configuration, you have to call load()
 		 * in the constructor.
@@ -1153,8 +1702,11 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 		}
 
 		private DescriptorImpl(boolean load) {
-			if (load)
+			if (load) {
 				load();
+				DropCachePeriodicWork.configure(getCacheTtlMinutes(), getCacheCapacity(), getResponseCacheCapacity());
+				Tracer.configure(getTraceExport());
+			}
 		}
 
 		public static DescriptorImpl newInstanceForTests() {
@@ -1193,6 +1745,12 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 		public boolean configure(StaplerRequest req, JSONObject formData) throws FormException {
 
 			remoteSites.replaceBy(req.bindJSONToList(RemoteJenkinsServer.class, formData.get("remoteSites")));
+			setCacheTtlMinutes(formData.optInt("cacheTtlMinutes", 0));
+			setCacheCapacity(formData.optInt("cacheCapacity", 0));
+			setResponseCacheCapacity(formData.optInt("responseCacheCapacity", 0));
+			setTraceExport(formData.optString("traceExport", null));
+			DropCachePeriodicWork.configure(getCacheTtlMinutes(), getCacheCapacity(), getResponseCacheCapacity());
+			Tracer.configure(getTraceExport());
 			save();
 
 			return super.configure(req, formData);
@@ -1253,6 +1811,73 @@ public class RemoteBuildConfiguration extends Builder implements SimpleBuildStep
 			this.remoteSites.replaceBy(remoteSites);
 		}
 
+		public int getCacheTtlMinutes() {
+			return cacheTtlMinutes > 0 ? cacheTtlMinutes : DropCachePeriodicWork.DEFAULT_TTL_MINUTES;
+		}
+
+		public void setCacheTtlMinutes(int cacheTtlMinutes) {
+			this.cacheTtlMinutes = Math.max(0, cacheTtlMinutes);
+		}
+
+		public int getCacheCapacity() {
+			return cacheCapacity > 0 ? cacheCapacity : DropCachePeriodicWork.DEFAULT_CAPACITY;
+		}
+
+		public void setCacheCapacity(int cacheCapacity) {
+			this.cacheCapacity = Math.max(0, cacheCapacity);
+		}
+
+		public int getResponseCacheCapacity() {
+			return responseCacheCapacity > 0 ? responseCacheCapacity : DropCachePeriodicWork.DEFAULT_RESPONSE_CAPACITY;
+		}
+
+		public void setResponseCacheCapacity(int responseCacheCapacity) {
+			this.responseCacheCapacity = Math.max(0, responseCacheCapacity);
+		}
+
+		@CheckForNull
+		public String getTraceExport() {
+			return traceExport;
+		}
+
+		public void setTraceExport(@CheckForNull String traceExport) {
+			this.traceExport = trimToNull(traceExport);
+		}
+
+		/**
+		 * @return the hit, miss and eviction statistics of the crumb and job info caches.
+		 */
+		@Restricted(NoExternalUse.class)
+		public List<String> getCacheStatistics() {
+			return Arrays.asList(DropCachePeriodicWork.getCrumbCache().toString(),
+					DropCachePeriodicWork.getJobInfoCache().toString(),
+					DropCachePeriodicWork.getResponseCache().toString());
+		}
+
+		/**
+		 * @return the state of the circuit breakers of the remote hosts.
+		 */
+		@Restricted(NoExternalUse.class)
+		public List<String> getCircuitBreakerStates() {
+			return CircuitBreaker.getStates();
+		}
+
+		/**
+		 * @return the connections in use and queued per remote host.
+		 */
+		@Restricted(NoExternalUse.class)
+		public List<String> getConnectionLimiterStates() {
+			return HostConcurrencyLimiter.getStates();
+		}
+
+		/**
+		 * @return the request rates and how long requests were throttled per remote host.
+		 */
+		@Restricted(NoExternalUse.class)
+		public List<String> getRequestRateStates() {
+			return RequestRateLimiter.getStates();
+		}
+
 		public static List<Auth2Descriptor> getAuth2Descriptors() {
 			return Auth2.all();
 		}
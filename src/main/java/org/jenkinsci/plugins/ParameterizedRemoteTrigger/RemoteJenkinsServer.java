@@ -14,6 +14,10 @@ import javax.annotation.Nonnull;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.Auth2;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.Auth2.Auth2Descriptor;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.NoneAuth;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.retry.ExponentialBackoffRetryPolicy;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.retry.FixedDelayRetryPolicy;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.retry.RetryPolicy;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.retry.RetryPolicy.RetryPolicyDescriptor;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.DataBoundConstructor;
@@ -40,6 +44,9 @@ public class RemoteJenkinsServer extends AbstractDescribableImpl<RemoteJenkinsSe
      */
     private static final Auth2 DEFAULT_AUTH = NoneAuth.INSTANCE;
 
+    public static final int DEFAULT_MAX_CONNECTIONS = 10;
+    public static final int DEFAULT_CONNECTION_QUEUE_TIMEOUT = 300;
+
     /**
      * We need to keep this for compatibility - old config deserialization!
      * @deprecated since 2.3.0-SNAPSHOT - use {@link Auth2} instead.
@@ -55,9 +62,17 @@ public class RemoteJenkinsServer extends AbstractDescribableImpl<RemoteJenkinsSe
     @CheckForNull
     private String     address;
     private boolean    useProxy;
+    private boolean    keepAlive;
+    @CheckForNull
+    private RetryPolicy retryPolicy;
+    private int        maxConnections;
+    private int        connectionQueueTimeout;
+    private double     triggerRateLimit;
+    private double     statusRateLimit;
 
     @DataBoundConstructor
     public RemoteJenkinsServer() {
+        keepAlive = true;
     }
 
     /*
@@ -74,6 +89,10 @@ public class RemoteJenkinsServer extends AbstractDescribableImpl<RemoteJenkinsSe
             }
         }
         auth = null;
+        //keep the fixed delay between retries of servers configured before retry policies existed
+        if(retryPolicy == null) {
+            retryPolicy = new FixedDelayRetryPolicy();
+        }
         return this;
     }
 
@@ -95,6 +114,36 @@ public class RemoteJenkinsServer extends AbstractDescribableImpl<RemoteJenkinsSe
         this.useProxy = useProxy;
     }
 
+    @DataBoundSetter
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    @DataBoundSetter
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    @DataBoundSetter
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    @DataBoundSetter
+    public void setConnectionQueueTimeout(int connectionQueueTimeout) {
+        this.connectionQueueTimeout = connectionQueueTimeout;
+    }
+
+    @DataBoundSetter
+    public void setTriggerRateLimit(double triggerRateLimit) {
+        this.triggerRateLimit = Math.max(0, triggerRateLimit);
+    }
+
+    @DataBoundSetter
+    public void setStatusRateLimit(double statusRateLimit) {
+        this.statusRateLimit = Math.max(0, statusRateLimit);
+    }
+
     @DataBoundSetter
     public void setAuth2(Auth2 auth2)
     {
@@ -130,6 +179,50 @@ public class RemoteJenkinsServer extends AbstractDescribableImpl<RemoteJenkinsSe
         return useProxy;
     }
 
+    /**
+     * @return true if connections to this server shall be kept open and reused
+     *         (HTTP keep-alive) instead of being closed after each request.
+     */
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * @return the policy deciding if and when failed requests to this server are retried.
+     */
+    @Nonnull
+    public RetryPolicy getRetryPolicy() {
+        return (retryPolicy != null) ? retryPolicy : new ExponentialBackoffRetryPolicy();
+    }
+
+    /**
+     * @return the maximum number of concurrent requests to this server, over all jobs.
+     */
+    public int getMaxConnections() {
+        return (maxConnections > 0) ? maxConnections : DEFAULT_MAX_CONNECTIONS;
+    }
+
+    /**
+     * @return the maximum time in seconds a request waits for a free connection to this server.
+     */
+    public int getConnectionQueueTimeout() {
+        return (connectionQueueTimeout > 0) ? connectionQueueTimeout : DEFAULT_CONNECTION_QUEUE_TIMEOUT;
+    }
+
+    /**
+     * @return the maximum number of requests per second triggering or aborting builds on this server, 0 for no limit.
+     */
+    public double getTriggerRateLimit() {
+        return triggerRateLimit;
+    }
+
+    /**
+     * @return the maximum number of requests per second reading the status of builds on this server, 0 for no limit.
+     */
+    public double getStatusRateLimit() {
+        return statusRateLimit;
+    }
+
     @CheckForNull
     public Auth2 getAuth2() {
         return (auth2 != null) ? auth2 : NoneAuth.INSTANCE;
@@ -197,12 +290,21 @@ public class RemoteJenkinsServer extends AbstractDescribableImpl<RemoteJenkinsSe
         public static Auth2Descriptor getDefaultAuth2Descriptor() {
             return NoneAuth.DESCRIPTOR;
         }
+
+        public static List<RetryPolicyDescriptor> getRetryPolicyDescriptors() {
+            return RetryPolicy.all();
+        }
+
+        public static RetryPolicyDescriptor getDefaultRetryPolicyDescriptor() {
+            return ExponentialBackoffRetryPolicy.DESCRIPTOR;
+        }
     }
 
     @Override
     public RemoteJenkinsServer clone() throws CloneNotSupportedException {
         RemoteJenkinsServer clone = (RemoteJenkinsServer)super.clone();
         clone.auth2 = (auth2 == null) ? null : auth2.clone();
+        clone.retryPolicy = (retryPolicy == null) ? null : retryPolicy.clone();
         return clone;
     }
 
@@ -0,0 +1,37 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions;
+
+import java.io.IOException;
+
+/**
+ * A request was not sent because the circuit breaker of the remote server is open,
+ * i.e. too many of the recent requests to it failed.
+ */
+public class CircuitOpenException extends IOException
+{
+
+    private static final long serialVersionUID = -3640981371458323105L;
+    private String address;
+    private long remainingMillis;
+
+    public CircuitOpenException(String address, long remainingMillis)
+    {
+        this.address = address;
+        this.remainingMillis = remainingMillis;
+    }
+
+    /**
+     * @return the time until the circuit breaker lets a request through again, in milliseconds.
+     */
+    public long getRemainingMillis()
+    {
+        return remainingMillis;
+    }
+
+    @Override
+    public String getMessage()
+    {
+        return String.format("Too many recent requests to %s failed, not sending further requests for %d seconds.",
+                    address, Math.max(1, (remainingMillis + 999) / 1000));
+    }
+
+}
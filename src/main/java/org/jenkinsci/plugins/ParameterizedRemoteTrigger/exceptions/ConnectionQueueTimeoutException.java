@@ -0,0 +1,31 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions;
+
+import java.io.IOException;
+
+/**
+ * A request was not sent because all connections to the remote host were in use
+ * for longer than the request was allowed to wait.
+ */
+public class ConnectionQueueTimeoutException extends IOException
+{
+
+    private static final long serialVersionUID = 2931757329856148764L;
+    private String host;
+    private int queueLength;
+    private long timeoutMillis;
+
+    public ConnectionQueueTimeoutException(String host, int queueLength, long timeoutMillis)
+    {
+        this.host = host;
+        this.queueLength = queueLength;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public String getMessage()
+    {
+        return String.format("No connection to %s became available within %.1f seconds (%d other requests waiting).",
+                    host, timeoutMillis / 1000.0, queueLength);
+    }
+
+}
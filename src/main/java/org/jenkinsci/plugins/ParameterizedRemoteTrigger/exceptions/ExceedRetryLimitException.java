@@ -9,9 +9,21 @@ public class ExceedRetryLimitException extends IOException {
 	 */
 	private static final long serialVersionUID = 7817258508279153509L;
 
+	public ExceedRetryLimitException() {
+	}
+
+	/**
+	 * @param cause
+	 *            the failure of the last attempt.
+	 */
+	public ExceedRetryLimitException(Throwable cause) {
+		super(cause);
+	}
+
 	@Override
 	public String getMessage() {
-		return "Max number of connection retries have been exeeded.";
+		String message = "Max number of connection retries have been exeeded.";
+		return getCause() == null ? message : message + " Last failure: " + getCause().getMessage();
 	}
 
 }
@@ -0,0 +1,27 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions;
+
+import java.net.URL;
+
+/**
+ * The remote server rejected a request with 403 because its crumb was not valid (anymore),
+ * e.g. because the remote Jenkins was restarted after the crumb was cached.
+ */
+public class InvalidCrumbException extends ForbiddenException
+{
+
+    private static final long serialVersionUID = 2725329347209125367L;
+    private URL url;
+
+    public InvalidCrumbException(URL url)
+    {
+        super(url);
+        this.url = url;
+    }
+
+    @Override
+    public String getMessage()
+    {
+        return "Server returned 403 - Forbidden. No valid crumb was included in the request: " + url;
+    }
+
+}
@@ -0,0 +1,39 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Copying a response body failed after a part of it was already written to its destination,
+ * e.g. to the log. Such a request is not retried, because the retry would write that part again.
+ */
+public class PartialResponseException extends IOException
+{
+
+    private static final long serialVersionUID = -3507420213650935619L;
+    private URL url;
+    private long bytesCopied;
+
+    public PartialResponseException(URL url, long bytesCopied, IOException cause)
+    {
+        super(cause);
+        this.url = url;
+        this.bytesCopied = bytesCopied;
+    }
+
+    /**
+     * @return the number of bytes of the response written before the failure.
+     */
+    public long getBytesCopied()
+    {
+        return bytesCopied;
+    }
+
+    @Override
+    public String getMessage()
+    {
+        return String.format("Reading the response failed after %d bytes: %s - %s", bytesCopied, url,
+                    getCause().getMessage());
+    }
+
+}
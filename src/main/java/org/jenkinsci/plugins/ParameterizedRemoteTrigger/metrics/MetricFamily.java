@@ -0,0 +1,149 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A counter or histogram with all its label combinations, written in the Prometheus text format.
+ */
+final class MetricFamily
+{
+
+    private final String name;
+    private final String help;
+    private final String[] labelNames;
+    /*
+     * The upper bounds of the histogram buckets, null for a counter.
+     */
+    private final double[] buckets;
+    private final ConcurrentMap<String, Series> series = new ConcurrentSkipListMap<String, Series>();
+
+    private MetricFamily(String name, String help, String[] labelNames, double[] buckets)
+    {
+        this.name = name;
+        this.help = help;
+        this.labelNames = labelNames;
+        this.buckets = buckets;
+    }
+
+    static MetricFamily counter(String name, String help, String... labelNames)
+    {
+        return new MetricFamily(name, help, labelNames, null);
+    }
+
+    static MetricFamily histogram(String name, String help, double[] buckets, String... labelNames)
+    {
+        return new MetricFamily(name, help, labelNames, buckets);
+    }
+
+    void increment(String... labelValues)
+    {
+        getSeries(labelValues).count.increment();
+    }
+
+    void observe(double value, String... labelValues)
+    {
+        Series s = getSeries(labelValues);
+        for (int i = 0; i < buckets.length; i++) {
+            if (value <= buckets[i]) {
+                s.buckets[i].increment();
+                break;
+            }
+        }
+        s.sum.add(value);
+        s.count.increment();
+    }
+
+    /**
+     * @return the value of a counter, or the number of observations of a histogram.
+     */
+    long getCount(String... labelValues)
+    {
+        Series s = series.get(formatLabels(labelValues));
+        return (s == null) ? 0 : s.count.sum();
+    }
+
+    void clear()
+    {
+        series.clear();
+    }
+
+    void write(@Nonnull Writer writer) throws IOException
+    {
+        if (series.isEmpty()) return;
+        writer.write("# HELP " + name + " " + help + "\n");
+        writer.write("# TYPE " + name + " " + (buckets == null ? "counter" : "histogram") + "\n");
+        for (Map.Entry<String, Series> entry : series.entrySet()) {
+            String labels = entry.getKey();
+            Series s = entry.getValue();
+            if (buckets == null) {
+                writer.write(name + "{" + labels + "} " + s.count.sum() + "\n");
+                continue;
+            }
+            // the buckets are cumulative in the exposition format
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += s.buckets[i].sum();
+                writer.write(name + "_bucket{" + labels + ",le=\"" + buckets[i] + "\"} " + cumulative + "\n");
+            }
+            long count = s.count.sum();
+            writer.write(name + "_bucket{" + labels + ",le=\"+Inf\"} " + count + "\n");
+            writer.write(name + "_sum{" + labels + "} " + s.sum.sum() + "\n");
+            writer.write(name + "_count{" + labels + "} " + count + "\n");
+        }
+    }
+
+    private Series getSeries(String[] labelValues)
+    {
+        String labels = formatLabels(labelValues);
+        Series s = series.get(labels);
+        if (s == null) {
+            Series created = new Series(buckets == null ? 0 : buckets.length);
+            s = series.putIfAbsent(labels, created);
+            if (s == null) s = created;
+        }
+        return s;
+    }
+
+    private String formatLabels(String[] labelValues)
+    {
+        if (labelValues.length != labelNames.length) {
+            throw new IllegalArgumentException(String.format("%s expects the labels %s", name, String.join(",", labelNames)));
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labelNames.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(labelNames[i]).append("=\"").append(escape(labelValues[i])).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value)
+    {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static class Series
+    {
+        final LongAdder count = new LongAdder();
+        final DoubleAdder sum = new DoubleAdder();
+        final LongAdder[] buckets;
+
+        Series(int bucketCount)
+        {
+            buckets = new LongAdder[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import hudson.Extension;
+import hudson.model.RootAction;
+
+/**
+ * Exposes the {@link RemoteMetrics} at <code>/remote-trigger-metrics/</code> in the Prometheus text format.
+ * Like every root action, it requires the overall read permission.
+ */
+@Extension
+public class MetricsAction implements RootAction
+{
+
+    static final String URL_NAME = "remote-trigger-metrics";
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    @Override
+    public String getIconFileName()
+    {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName()
+    {
+        return null;
+    }
+
+    @Override
+    public String getUrlName()
+    {
+        return URL_NAME;
+    }
+
+    public void doIndex(StaplerRequest req, StaplerResponse rsp) throws IOException
+    {
+        rsp.setContentType(CONTENT_TYPE);
+        rsp.setHeader("Cache-Control", "no-cache");
+        Writer writer = rsp.getWriter();
+        RemoteMetrics.write(writer);
+    }
+
+}
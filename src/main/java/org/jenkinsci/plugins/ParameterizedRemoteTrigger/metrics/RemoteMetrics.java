@@ -0,0 +1,159 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.util.regex.Pattern;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * The metrics of the requests sent to the remote servers and of the remote builds, per remote host.
+ * They are kept in memory since the start of Jenkins and exposed in the Prometheus text format by the
+ * {@link MetricsAction}.
+ *
+ * The endpoint of a request is one of {@value #ENDPOINTS}, so the number of series only grows with the
+ * number of remote hosts.
+ */
+public final class RemoteMetrics
+{
+
+    static final String ENDPOINTS = "crumb, trigger, queue_item, queue, cancel, build, console, stop, job, other";
+
+    private static final double[] REQUEST_BUCKETS = { 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30 };
+    private static final double[] BUILD_BUCKETS = { 1, 5, 10, 30, 60, 120, 300, 600, 1800, 3600, 7200, 14400 };
+
+    private static final Pattern QUEUE_ITEM = Pattern.compile(".*/queue/item/\\d+/.*");
+    private static final Pattern BUILD = Pattern.compile(".*/job/[^/]+/(\\d+|last\\w*Build)/api/.*");
+
+    static final MetricFamily REQUEST_DURATION = MetricFamily.histogram("remote_trigger_http_request_duration_seconds",
+                "Duration of the HTTP requests to the remote servers, without waiting for a connection.",
+                REQUEST_BUCKETS, "host", "endpoint", "method");
+    static final MetricFamily RESPONSES = MetricFamily.counter("remote_trigger_http_responses_total",
+                "HTTP responses of the remote servers by status code, 0 if no response was received.",
+                "host", "endpoint", "code");
+    static final MetricFamily RETRIES = MetricFamily.counter("remote_trigger_http_retries_total",
+                "Requests to the remote servers sent again, by reason.", "host", "endpoint", "reason");
+    static final MetricFamily CONNECTION_WAIT = MetricFamily.histogram("remote_trigger_connection_wait_seconds",
+                "Time waited for a free connection to the remote host.", REQUEST_BUCKETS, "host");
+    static final MetricFamily RATE_LIMIT_WAIT = MetricFamily.histogram("remote_trigger_rate_limit_wait_seconds",
+                "Time waited for the request rate limit of the remote server.", REQUEST_BUCKETS, "host");
+    static final MetricFamily CACHE_REQUESTS = MetricFamily.counter("remote_trigger_cache_requests_total",
+                "Lookups in the crumb and job info caches.", "host", "cache", "result");
+    static final MetricFamily QUEUE_DURATION = MetricFamily.histogram("remote_trigger_remote_queue_seconds",
+                "Time the remote builds waited in the remote queue.", BUILD_BUCKETS, "host");
+    static final MetricFamily RUN_DURATION = MetricFamily.histogram("remote_trigger_remote_run_seconds",
+                "Time the remote builds were running, as observed by polling.", BUILD_BUCKETS, "host", "result");
+
+    private static final MetricFamily[] FAMILIES = { REQUEST_DURATION, RESPONSES, RETRIES, CONNECTION_WAIT,
+                RATE_LIMIT_WAIT, CACHE_REQUESTS, QUEUE_DURATION, RUN_DURATION };
+
+    private RemoteMetrics()
+    {
+    }
+
+    /**
+     * @return the host and port of the URL, without user info.
+     */
+    @Nonnull
+    public static String getHost(@CheckForNull URL url)
+    {
+        if (url == null) return "unknown";
+        return (url.getPort() == -1) ? url.getHost() : url.getHost() + ":" + url.getPort();
+    }
+
+    /**
+     * @return the kind of remote API called by the URL, one of {@value #ENDPOINTS}.
+     */
+    @Nonnull
+    public static String getEndpoint(@Nonnull URL url)
+    {
+        String path = url.getPath();
+        if (path.contains("/crumbIssuer/")) return "crumb";
+        if (path.endsWith("/build") || path.endsWith("/buildWithParameters") || path.contains("/buildByToken/"))
+            return "trigger";
+        if (path.endsWith("/queue/cancelItem")) return "cancel";
+        if (QUEUE_ITEM.matcher(path).matches()) return "queue_item";
+        if (path.contains("/queue/")) return "queue";
+        if (path.endsWith("/stop")) return "stop";
+        if (path.endsWith("/consoleText") || path.contains("/logText/")) return "console";
+        if (BUILD.matcher(path).matches()) return "build";
+        if (path.contains("/api/")) return "job";
+        return "other";
+    }
+
+    /**
+     * Records an attempt of a request.
+     *
+     * @param responseCode
+     *            the HTTP status code, 0 if the connection failed.
+     */
+    public static void recordRequest(@Nonnull URL url, @Nonnull String method, int responseCode, long nanos)
+    {
+        String host = getHost(url);
+        String endpoint = getEndpoint(url);
+        REQUEST_DURATION.observe(nanos / 1e9, host, endpoint, method);
+        RESPONSES.increment(host, endpoint, String.valueOf(responseCode));
+    }
+
+    /**
+     * @param reason
+     *            <code>error</code>, <code>crumb</code> or <code>circuit_open</code>.
+     */
+    public static void recordRetry(@Nonnull URL url, @Nonnull String reason)
+    {
+        RETRIES.increment(getHost(url), getEndpoint(url), reason);
+    }
+
+    public static void recordConnectionWait(@Nonnull URL url, long nanos)
+    {
+        CONNECTION_WAIT.observe(nanos / 1e9, getHost(url));
+    }
+
+    public static void recordRateLimitWait(@Nonnull URL url, long nanos)
+    {
+        RATE_LIMIT_WAIT.observe(nanos / 1e9, getHost(url));
+    }
+
+    /**
+     * @param cache
+     *            <code>crumb</code> or <code>job_info</code>.
+     */
+    public static void recordCacheLookup(@CheckForNull URL url, @Nonnull String cache, boolean hit)
+    {
+        CACHE_REQUESTS.increment(getHost(url), cache, hit ? "hit" : "miss");
+    }
+
+    public static void recordQueueDuration(@CheckForNull URL url, long millis)
+    {
+        QUEUE_DURATION.observe(millis / 1e3, getHost(url));
+    }
+
+    public static void recordRunDuration(@CheckForNull URL url, long millis, @CheckForNull Object result)
+    {
+        RUN_DURATION.observe(millis / 1e3, getHost(url), String.valueOf(result));
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text format, version 0.0.4.
+     */
+    public static void write(@Nonnull Writer writer) throws IOException
+    {
+        for (MetricFamily family : FAMILIES) {
+            family.write(writer);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Removes all recorded values, for tests.
+     */
+    static void clear()
+    {
+        for (MetricFamily family : FAMILIES) {
+            family.clear();
+        }
+    }
+
+}
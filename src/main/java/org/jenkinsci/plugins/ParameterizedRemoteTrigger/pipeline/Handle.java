@@ -8,6 +8,7 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
@@ -17,6 +18,7 @@ import javax.annotation.ParametersAreNullableByDefault;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteBuildConfiguration;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteJenkinsServer;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll.RemoteBuildPoller;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildInfo;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildStatus;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.HttpHelper;
@@ -73,6 +75,22 @@ public class Handle implements Serializable {
     @Nonnull
     private String lastLog;
 
+    /**
+     * The offset of the remote console output which has already been streamed to the local log.
+     */
+    private long consoleOffset;
+
+    /*
+     * True while a wait streams the console output, see tryStartStreaming().
+     */
+    private transient boolean streaming;
+
+    /**
+     * True once the start of the remote build has been logged and exported, so that
+     * resuming after a restart does not report it again.
+     */
+    private boolean startReported;
+
 
     public Handle(@Nonnull RemoteBuildConfiguration remoteBuildConfiguration, @Nonnull RemoteBuildInfo buildInfo, @Nonnull String currentItem,
         @Nonnull RemoteJenkinsServer effectiveRemoteServer, @Nonnull JSONObject remoteJobMetadata)
@@ -254,17 +272,101 @@ public class Handle implements Serializable {
 
       PrintStreamWrapper log = new PrintStreamWrapper();
       try {
-          while(!buildInfo.isFinished()) {
-              BuildContext context = new BuildContext(log.getPrintStream(), effectiveRemoteServer, this.currentItem);
+          BuildContext context = new BuildContext(log.getPrintStream(), effectiveRemoteServer, this.currentItem);
+          if(!blockUntilFinished) {
               buildInfo = remoteBuildConfiguration.updateBuildInfo(buildInfo, context);
-              if(!blockUntilFinished) break;
+              return buildInfo.getStatus();
           }
+          RemoteBuildPoller.await(waitUntilFinishedAsync(context));
           return buildInfo.getStatus();
       } finally {
           lastLog = log.getContent();
       }
     }
 
+    /**
+     * Polls the remote build until it is finished, without blocking the calling thread.
+     *
+     * @param context
+     *            the context used for the HTTP calls and for logging.
+     * @return a future which completes with this handle once the remote build finished,
+     *         or exceptionally if the remote build could not be polled.
+     */
+    @Nonnull
+    CompletableFuture<Handle> waitUntilFinishedAsync(@Nonnull BuildContext context) {
+        CompletableFuture<Handle> finished = new CompletableFuture<Handle>();
+        waitUntilFinishedAsync(context, finished, false);
+        return finished;
+    }
+
+    private void waitUntilFinishedAsync(final BuildContext context, final CompletableFuture<Handle> finished, boolean initialDelay) {
+        if (buildInfo.isFinished()) {
+            finished.complete(this);
+            return;
+        }
+        RemoteBuildPoller.waitWhile(buildInfo.getStatus(), this, context, remoteBuildConfiguration, finished, initialDelay)
+                .whenComplete((changed, error) -> {
+                    if (error != null) finished.completeExceptionally(error);
+                    else waitUntilFinishedAsync(context, finished, true);
+                });
+    }
+
+    @Nonnull
+    RemoteJenkinsServer getEffectiveRemoteServer() {
+        return effectiveRemoteServer;
+    }
+
+    @Nonnull
+    RemoteBuildConfiguration getRemoteBuildConfiguration() {
+        return remoteBuildConfiguration;
+    }
+
+    @Nonnull
+    String getCurrentItem() {
+        return currentItem;
+    }
+
+    /**
+     * @return the offset of the remote console output which has already been streamed to the local log.
+     */
+    public long getConsoleOffset() {
+        return consoleOffset;
+    }
+
+    public void setConsoleOffset(long consoleOffset) {
+        this.consoleOffset = consoleOffset;
+    }
+
+    /**
+     * Claims the streaming of the console output, so two waits for this remote build do not copy
+     * the same output twice. The streaming itself runs without holding the lock of this handle.
+     *
+     * @return false if another wait is streaming the console output right now.
+     */
+    public synchronized boolean tryStartStreaming() {
+        if (streaming) return false;
+        streaming = true;
+        return true;
+    }
+
+    /**
+     * Releases the streaming of the console output claimed by {@link #tryStartStreaming()}.
+     */
+    public synchronized void finishStreaming() {
+        streaming = false;
+    }
+
+    /**
+     * @return true if the start of the remote build has already been logged and exported.
+     */
+    public boolean isStartReported() {
+        return startReported;
+    }
+
+    public void setStartReported(boolean startReported) {
+        this.startReported = startReported;
+    }
+
     public void setBuildInfo(RemoteBuildInfo buildInfo)
     {
         this.buildInfo = buildInfo;
@@ -0,0 +1,194 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.pipeline;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll.RemoteBuildPoller;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.Whitelisted;
+
+/**
+ * The handles of the remote builds triggered together by the {@link TriggerRemoteJobsStep}.
+ */
+public class HandleGroup implements Serializable {
+
+    private static final long serialVersionUID = -2418001683286547096L;
+
+    @Nonnull
+    private final List<Handle> handles;
+
+    /*
+     * The latest log entries from the last called method, see Handle#lastLog().
+     */
+    @Nonnull
+    private String lastLog;
+
+    public HandleGroup(@Nonnull List<Handle> handles) {
+        this.handles = new ArrayList<Handle>(handles);
+        this.lastLog = "";
+    }
+
+    /**
+     * @return the handles of all remote builds, in the order the remote jobs were given to the step.
+     */
+    @Nonnull
+    @Whitelisted
+    public List<Handle> getHandles() {
+        return Collections.unmodifiableList(handles);
+    }
+
+    @Whitelisted
+    public int size() {
+        return handles.size();
+    }
+
+    @Nonnull
+    @Whitelisted
+    public Handle get(int index) {
+        return handles.get(index);
+    }
+
+    /**
+     * @return true if all remote builds are finished, according to the last known status.
+     */
+    @Whitelisted
+    public boolean isAllFinished() {
+        for (Handle handle : handles) {
+            if (!handle.getBuildInfo().isFinished()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the handles of the finished remote builds, according to the last known status.
+     */
+    @Nonnull
+    @Whitelisted
+    public List<Handle> getFinished() {
+        List<Handle> finished = new ArrayList<Handle>();
+        for (Handle handle : handles) {
+            if (handle.getBuildInfo().isFinished()) finished.add(handle);
+        }
+        return finished;
+    }
+
+    /**
+     * Waits until all remote builds are finished, or until the first of them could not be polled.
+     *
+     * @return the handles of all remote builds.
+     * @throws IOException
+     *            if a remote build could not be polled.
+     * @throws InterruptedException
+     *            if any thread has interrupted the current thread.
+     */
+    @Nonnull
+    @Whitelisted
+    public List<Handle> waitForAll() throws IOException, InterruptedException {
+        PrintStreamWrapper log = new PrintStreamWrapper();
+        List<CompletableFuture<Handle>> waits = waitUntilFinishedAsync(log);
+        CompletableFuture<Void> all = CompletableFuture.allOf(waits.toArray(new CompletableFuture<?>[0]));
+        for (CompletableFuture<Handle> wait : waits) {
+            // allOf only completes once every remote build is done, fail with the first error instead
+            wait.whenComplete((handle, error) -> {
+                if (error instanceof CompletionException && error.getCause() != null) error = error.getCause();
+                if (error != null) all.completeExceptionally(error);
+            });
+        }
+        try {
+            RemoteBuildPoller.await(all);
+            return getHandles();
+        } finally {
+            // stop polling the remaining remote builds after an error or an interrupt
+            for (CompletableFuture<Handle> wait : waits) wait.cancel(false);
+            lastLog = log.getContent();
+        }
+    }
+
+    /**
+     * Waits until any of the remote builds is finished.
+     *
+     * @return the handle of the first finished remote build, or null if there are no remote builds.
+     * @throws IOException
+     *            if a remote build could not be polled.
+     * @throws InterruptedException
+     *            if any thread has interrupted the current thread.
+     */
+    @CheckForNull
+    @Whitelisted
+    public Handle waitForAny() throws IOException, InterruptedException {
+        for (Handle handle : handles) {
+            if (handle.getBuildInfo().isFinished()) return handle;
+        }
+        if (handles.isEmpty()) return null;
+        PrintStreamWrapper log = new PrintStreamWrapper();
+        List<CompletableFuture<Handle>> waits = waitUntilFinishedAsync(log);
+        try {
+            return (Handle) RemoteBuildPoller.await(CompletableFuture.anyOf(waits.toArray(new CompletableFuture<?>[0])));
+        } finally {
+            // stop polling the other remote builds
+            for (CompletableFuture<Handle> wait : waits) wait.cancel(false);
+            lastLog = log.getContent();
+        }
+    }
+
+    private List<CompletableFuture<Handle>> waitUntilFinishedAsync(PrintStreamWrapper log) {
+        List<CompletableFuture<Handle>> waits = new ArrayList<CompletableFuture<Handle>>();
+        for (Handle handle : handles) {
+            BuildContext context = new BuildContext(log.getPrintStream(), handle.getEffectiveRemoteServer(), handle.getCurrentItem());
+            waits.add(handle.waitUntilFinishedAsync(context));
+        }
+        return waits;
+    }
+
+    /**
+     * @return The latest log entries from the last called method, see {@link Handle#lastLog()}.
+     */
+    @Nonnull
+    @Whitelisted
+    public String lastLog() {
+        String log = lastLog.trim();
+        lastLog = "";
+        return log;
+    }
+
+    @Whitelisted
+    @Override
+    public String toString() {
+        return String.format("HandleGroup %s", handles);
+    }
+
+    /**
+     * @return a string representing all the available methods.
+     */
+    @Whitelisted
+    public static String help() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("This object provides the following methods:\n");
+        for (Method method : HandleGroup.class.getDeclaredMethods()) {
+            if (method.getAnnotation(Whitelisted.class) != null && Modifier.isPublic(method.getModifiers())) {
+                sb.append("- ").append(method.getReturnType().getSimpleName()).append(" ");
+                sb.append(method.getName()).append("(");
+                Class<?>[] params = method.getParameterTypes();
+                for (int i = 0; i < params.length; i++) {
+                    if (i > 0) sb.append(", ");
+                    sb.append(params[i].getSimpleName());
+                }
+                sb.append(")\n");
+            }
+        }
+        sb.append("Each handle provides the following methods:\n");
+        sb.append(Handle.help().replaceFirst("^[^\\n]*\\n", ""));
+        return sb.toString();
+    }
+
+}
@@ -22,11 +22,16 @@
 
 package org.jenkinsci.plugins.ParameterizedRemoteTrigger.pipeline;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BasicBuildContext;
@@ -36,20 +41,22 @@ import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteJenkinsServer;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.Auth2;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.Auth2.Auth2Descriptor;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.NullAuth;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll.RemoteBuildPoller;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.FormValidationUtils;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.FormValidationUtils.AffectedField;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.FormValidationUtils.RemoteURLCombinationsResult;
+import org.jenkinsci.plugins.workflow.steps.AbstractStepExecutionImpl;
 import org.jenkinsci.plugins.workflow.steps.Step;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
 import org.jenkinsci.plugins.workflow.steps.StepExecution;
-import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 
+import hudson.AbortException;
 import hudson.Extension;
 import hudson.ExtensionList;
 import hudson.FilePath;
@@ -78,6 +85,10 @@ public class RemoteBuildPipelineStep extends Step {
 		remoteBuildConfig.setAbortTriggeredJob(abortTriggeredJob);
 	}
 
+	/**
+	 * @deprecated the value is ignored, the connections are limited per remote server.
+	 */
+	@Deprecated
 	@DataBoundSetter
 	public void setMaxConn(int maxConn) {
 		remoteBuildConfig.setMaxConn(maxConn);
@@ -113,6 +124,31 @@ public class RemoteBuildPipelineStep extends Step {
 		remoteBuildConfig.setPollInterval(pollInterval);
 	}
 
+	@DataBoundSetter
+	public void setAdaptivePolling(boolean adaptivePolling) {
+		remoteBuildConfig.setAdaptivePolling(adaptivePolling);
+	}
+
+	@DataBoundSetter
+	public void setMinPollInterval(int minPollInterval) {
+		remoteBuildConfig.setMinPollInterval(minPollInterval);
+	}
+
+	@DataBoundSetter
+	public void setMaxPollInterval(int maxPollInterval) {
+		remoteBuildConfig.setMaxPollInterval(maxPollInterval);
+	}
+
+	@DataBoundSetter
+	public void setUseRemoteEvents(boolean useRemoteEvents) {
+		remoteBuildConfig.setUseRemoteEvents(useRemoteEvents);
+	}
+
+	@DataBoundSetter
+	public void setEventFallbackInterval(int eventFallbackInterval) {
+		remoteBuildConfig.setEventFallbackInterval(eventFallbackInterval);
+	}
+
 	@DataBoundSetter
 	public void setBlockBuildUntilComplete(boolean blockBuildUntilComplete) {
 		remoteBuildConfig.setBlockBuildUntilComplete(blockBuildUntilComplete);
@@ -231,39 +267,156 @@ public class RemoteBuildPipelineStep extends Step {
 		}
 	}
 
-	public static class Execution extends SynchronousNonBlockingStepExecution<Handle> {
+	/**
+	 * Triggers the remote job and waits for it without holding a thread. The remote build
+	 * is polled by the shared {@link RemoteBuildPoller} which completes the step once the
+	 * remote build finished. After a restart of Jenkins the execution re-attaches to the
+	 * remote build via the serialized {@link Handle}.
+	 */
+	public static class Execution extends AbstractStepExecutionImpl {
 
 		private static final long serialVersionUID = 5339071667093320735L;
 
 		private final RemoteBuildConfiguration remoteBuildConfig;
 
+		/**
+		 * The handle to the remote build, null until the remote job has been triggered.
+		 */
+		@CheckForNull
+		private volatile Handle handle;
+
+		private transient volatile boolean stopped;
+		private transient volatile Future<?> triggerTask;
+		private transient volatile CompletableFuture<Handle> waitForBuild;
+
 		Execution(StepContext context, RemoteBuildConfiguration remoteBuildConfig) {
 			super(context);
 			this.remoteBuildConfig = remoteBuildConfig;
 		}
 
 		@Override
-		protected Handle run() throws Exception {
+		public boolean start() throws Exception {
+			triggerTask = RemoteBuildPoller.submitTrigger(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						BuildContext context = createBuildContext(null);
+						Handle triggered = remoteBuildConfig.performTriggerAndGetQueueId(context);
+						synchronized (Execution.this) {
+							handle = triggered;
+							if (stopped) {
+								// stop() did not see the handle, so the remote build is aborted here
+								abortRemoteBuild(triggered, null);
+								return;
+							}
+						}
+						// survives a restart right after the remote job has been triggered
+						getContext().saveState();
+						if (remoteBuildConfig.getBlockBuildUntilComplete()) {
+							waitForBuild(context, triggered);
+						} else {
+							getContext().onSuccess(triggered);
+						}
+					} catch (Throwable e) {
+						if (!stopped) getContext().onFailure(e);
+					}
+				}
+			});
+			return false;
+		}
+
+		@Override
+		public void onResume() {
+			Handle resumed = handle;
+			try {
+				if (resumed == null) {
+					throw new AbortException("Jenkins was restarted before the remote job could be triggered.");
+				}
+				BuildContext context = createBuildContext(resumed.getEffectiveRemoteServer());
+				if (remoteBuildConfig.getBlockBuildUntilComplete() && !resumed.isFinished()) {
+					context.logger.println("Resuming to wait for remote build: " + resumed.toString());
+					waitForBuild(context, resumed);
+				} else {
+					getContext().onSuccess(resumed);
+				}
+			} catch (Throwable e) {
+				getContext().onFailure(e);
+			}
+		}
+
+		@Override
+		public void stop(@Nonnull final Throwable cause) throws Exception {
+			Handle triggered;
+			synchronized (this) {
+				stopped = true;
+				triggered = handle;
+			}
+			Future<?> task = triggerTask;
+			if (task != null) task.cancel(true);
+			CompletableFuture<Handle> future = waitForBuild;
+			if (future != null) future.cancel(false);
+
+			if (triggered == null) {
+				// if the trigger is just completing, it aborts the remote build itself
+				getContext().onFailure(cause);
+				return;
+			}
+			abortRemoteBuild(triggered, cause);
+		}
+
+		/**
+		 * Aborts the remote build if configured to do so and fails the step with the given cause afterwards.
+		 *
+		 * @param cause
+		 *            the cause to fail the step with, null if the step has already been completed.
+		 */
+		private void abortRemoteBuild(final Handle triggered, @CheckForNull final Throwable cause) {
+			if (!remoteBuildConfig.isAbortTriggeredJob()) {
+				if (cause != null) getContext().onFailure(cause);
+				return;
+			}
+			RemoteBuildPoller.submitTrigger(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						BuildContext context = createBuildContext(triggered.getEffectiveRemoteServer());
+						remoteBuildConfig.abortRemoteTask(triggered.getEffectiveRemoteServer(), triggered, context);
+					} catch (Exception e) {
+						if (cause != null) cause.addSuppressed(e);
+					} finally {
+						if (cause != null) getContext().onFailure(cause);
+					}
+				}
+			});
+		}
+
+		private void waitForBuild(BuildContext context, final Handle handle) throws IOException {
+			CompletableFuture<Handle> future = remoteBuildConfig.performWaitForBuildAsync(context, handle);
+			waitForBuild = future;
+			// stop() may have run before the future was set, then it did not cancel it
+			if (stopped) future.cancel(false);
+			future.whenComplete((finished, error) -> {
+				if (stopped || error instanceof CancellationException) return; // stop() completes the step
+				if (error != null) {
+					getContext().onFailure(error);
+				} else {
+					getContext().onSuccess(finished);
+				}
+			});
+		}
+
+		@Nonnull
+		private BuildContext createBuildContext(@CheckForNull RemoteJenkinsServer effectiveRemoteServer)
+				throws IOException, InterruptedException {
 			StepContext stepContext = getContext();
 			Run<?, ?> build = stepContext.get(Run.class);
 			FilePath workspace = stepContext.get(FilePath.class);
 			TaskListener listener = stepContext.get(TaskListener.class);
-			RemoteJenkinsServer effectiveRemoteServer = remoteBuildConfig
-					.evaluateEffectiveRemoteHost(new BasicBuildContext(build, workspace, listener));
-			BuildContext context = new BuildContext(build, workspace, listener, listener.getLogger(),
-					effectiveRemoteServer);
-			Handle handle = null;
-			try {
-				handle = remoteBuildConfig.performTriggerAndGetQueueId(context);
-				if (remoteBuildConfig.getBlockBuildUntilComplete()) {
-					remoteBuildConfig.performWaitForBuild(context, handle);
-				}
-
-			} catch (InterruptedException e) {
-				remoteBuildConfig.abortRemoteTask(effectiveRemoteServer, handle, context);
-				throw e;
+			if (effectiveRemoteServer == null) {
+				effectiveRemoteServer = remoteBuildConfig
+						.evaluateEffectiveRemoteHost(new BasicBuildContext(build, workspace, listener));
 			}
-			return handle;
+			return new BuildContext(build, workspace, listener, listener.getLogger(), effectiveRemoteServer);
 		}
 	}
 
@@ -291,6 +444,26 @@ public class RemoteBuildPipelineStep extends Step {
 		return remoteBuildConfig.getPollInterval();
 	}
 
+	public boolean isAdaptivePolling() {
+		return remoteBuildConfig.isAdaptivePolling();
+	}
+
+	public int getMinPollInterval() {
+		return remoteBuildConfig.getMinPollInterval();
+	}
+
+	public int getMaxPollInterval() {
+		return remoteBuildConfig.getMaxPollInterval();
+	}
+
+	public boolean isUseRemoteEvents() {
+		return remoteBuildConfig.isUseRemoteEvents();
+	}
+
+	public int getEventFallbackInterval() {
+		return remoteBuildConfig.getEventFallbackInterval();
+	}
+
 	public boolean getBlockBuildUntilComplete() {
 		return remoteBuildConfig.getBlockBuildUntilComplete();
 	}
@@ -331,6 +504,7 @@ public class RemoteBuildPipelineStep extends Step {
 		return remoteBuildConfig.isAbortTriggeredJob();
 	}
 
+	@Deprecated
 	public int getMaxConn() {
 		return remoteBuildConfig.getMaxConn();
 	}
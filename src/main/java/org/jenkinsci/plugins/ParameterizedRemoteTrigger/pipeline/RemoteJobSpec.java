@@ -0,0 +1,80 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.pipeline;
+
+import static org.apache.commons.lang.StringUtils.trimToEmpty;
+import static org.apache.commons.lang.StringUtils.trimToNull;
+
+import java.io.Serializable;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import hudson.Extension;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+
+/**
+ * One of the remote jobs triggered by the {@link TriggerRemoteJobsStep}: the job and the
+ * parameters to trigger it with. All other settings are shared by all jobs of the step.
+ */
+public class RemoteJobSpec extends AbstractDescribableImpl<RemoteJobSpec> implements Serializable
+{
+
+    private static final long serialVersionUID = 2969134474394557164L;
+
+    private final String job;
+    private String parameters;
+    private String token;
+
+    @DataBoundConstructor
+    public RemoteJobSpec(String job)
+    {
+        this.job = trimToNull(job);
+    }
+
+    @DataBoundSetter
+    public void setParameters(String parameters)
+    {
+        this.parameters = parameters;
+    }
+
+    @DataBoundSetter
+    public void setToken(String token)
+    {
+        this.token = token;
+    }
+
+    /**
+     * @return the name or URL of the remote job.
+     */
+    public String getJob()
+    {
+        return trimToEmpty(job);
+    }
+
+    public String getParameters()
+    {
+        return trimToEmpty(parameters);
+    }
+
+    public String getToken()
+    {
+        return trimToEmpty(token);
+    }
+
+    @Override
+    public String toString()
+    {
+        return getJob();
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<RemoteJobSpec>
+    {
+        @Override
+        public String getDisplayName()
+        {
+            return "Remote Job";
+        }
+    }
+
+}
@@ -0,0 +1,390 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.pipeline;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BasicBuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteBuildConfiguration;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteJenkinsServer;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.Auth2;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.Auth2.Auth2Descriptor;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.NullAuth;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll.RemoteBuildPoller;
+import org.jenkinsci.plugins.workflow.steps.AbstractStepExecutionImpl;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.Descriptor;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.ListBoxModel;
+
+/**
+ * Triggers several remote jobs at once, see
+ * {@link RemoteBuildConfiguration#performTriggerAllAsync(BasicBuildContext, java.io.PrintStream, List)},
+ * and returns a {@link HandleGroup} with their handles.
+ */
+public class TriggerRemoteJobsStep extends Step {
+
+	/**
+	 * When the step completes, if it waits for the remote builds.
+	 */
+	public enum WaitFor {
+		/**
+		 * Once all remote builds finished. The step fails if any of them failed.
+		 */
+		ALL,
+		/**
+		 * Once the first remote build finished. The step fails if this one failed.
+		 */
+		ANY
+	}
+
+	private final List<RemoteJobSpec> jobs;
+
+	private RemoteBuildConfiguration remoteBuildConfig;
+
+	private WaitFor waitFor = WaitFor.ALL;
+
+	@DataBoundConstructor
+	public TriggerRemoteJobsStep(List<RemoteJobSpec> jobs) {
+		this.jobs = (jobs == null) ? new ArrayList<RemoteJobSpec>() : new ArrayList<RemoteJobSpec>(jobs);
+		remoteBuildConfig = new RemoteBuildConfiguration();
+		remoteBuildConfig.setShouldNotFailBuild(false);
+		remoteBuildConfig.setBlockBuildUntilComplete(true);
+	}
+
+	@DataBoundSetter
+	public void setAbortTriggeredJob(boolean abortTriggeredJob) {
+		remoteBuildConfig.setAbortTriggeredJob(abortTriggeredJob);
+	}
+
+	@DataBoundSetter
+	public void setAuth(Auth2 auth) {
+		remoteBuildConfig.setAuth2(auth);
+	}
+
+	@DataBoundSetter
+	public void setRemoteJenkinsName(String remoteJenkinsName) {
+		remoteBuildConfig.setRemoteJenkinsName(remoteJenkinsName);
+	}
+
+	@DataBoundSetter
+	public void setRemoteJenkinsUrl(String remoteJenkinsUrl) {
+		remoteBuildConfig.setRemoteJenkinsUrl(remoteJenkinsUrl);
+	}
+
+	@DataBoundSetter
+	public void setShouldNotFailBuild(boolean shouldNotFailBuild) {
+		remoteBuildConfig.setShouldNotFailBuild(shouldNotFailBuild);
+	}
+
+	@DataBoundSetter
+	public void setPollInterval(int pollInterval) {
+		remoteBuildConfig.setPollInterval(pollInterval);
+	}
+
+	@DataBoundSetter
+	public void setBlockBuildUntilComplete(boolean blockBuildUntilComplete) {
+		remoteBuildConfig.setBlockBuildUntilComplete(blockBuildUntilComplete);
+	}
+
+	@DataBoundSetter
+	public void setWaitFor(WaitFor waitFor) {
+		this.waitFor = (waitFor == null) ? WaitFor.ALL : waitFor;
+	}
+
+	@DataBoundSetter
+	public void setUseJobInfoCache(boolean useJobInfoCache) {
+		remoteBuildConfig.setUseJobInfoCache(useJobInfoCache);
+	}
+
+	@Override
+	public StepExecution start(StepContext context) throws Exception {
+		return new Execution(context, remoteBuildConfig, jobs, waitFor);
+	}
+
+	@Extension(optional = true)
+	public static final class DescriptorImpl extends StepDescriptor {
+
+		@Override
+		public String getFunctionName() {
+			return "triggerRemoteJobs";
+		}
+
+		@Override
+		public String getDisplayName() {
+			return "Trigger Remote Jobs";
+		}
+
+		@Override
+		public Set<? extends Class<?>> getRequiredContext() {
+			Set<Class<?>> set = new HashSet<Class<?>>();
+			Collections.addAll(set, Run.class, FilePath.class, Launcher.class, TaskListener.class);
+			return set;
+		}
+
+		@Restricted(NoExternalUse.class)
+		@Nonnull
+		public ListBoxModel doFillRemoteJenkinsNameItems() {
+			RemoteBuildConfiguration.DescriptorImpl descriptor = Descriptor.findByDescribableClassName(
+					ExtensionList.lookup(RemoteBuildConfiguration.DescriptorImpl.class),
+					RemoteBuildConfiguration.class.getName());
+			if (descriptor == null)
+				throw new RuntimeException("Could not get descriptor for RemoteBuildConfiguration");
+			return descriptor.doFillRemoteJenkinsNameItems();
+		}
+
+		public static List<Auth2Descriptor> getAuth2Descriptors() {
+			return Auth2.all();
+		}
+
+		public static Auth2Descriptor getDefaultAuth2Descriptor() {
+			return NullAuth.DESCRIPTOR;
+		}
+	}
+
+	/**
+	 * Triggers the remote jobs and waits for them without holding a thread, like
+	 * {@link RemoteBuildPipelineStep.Execution}.
+	 */
+	public static class Execution extends AbstractStepExecutionImpl {
+
+		private static final long serialVersionUID = -6311296426573406245L;
+
+		private final RemoteBuildConfiguration remoteBuildConfig;
+		private final List<RemoteJobSpec> jobs;
+		private final WaitFor waitFor;
+
+		/**
+		 * The handles to the remote builds, null until all remote jobs have been triggered.
+		 */
+		@CheckForNull
+		private volatile List<Handle> handles;
+
+		private transient volatile boolean stopped;
+		private transient volatile CompletableFuture<List<Handle>> triggers;
+		private transient volatile List<CompletableFuture<Handle>> waits;
+
+		Execution(StepContext context, RemoteBuildConfiguration remoteBuildConfig, List<RemoteJobSpec> jobs,
+				WaitFor waitFor) {
+			super(context);
+			this.remoteBuildConfig = remoteBuildConfig;
+			this.jobs = jobs;
+			this.waitFor = waitFor;
+		}
+
+		@Override
+		public boolean start() throws Exception {
+			if (jobs.isEmpty()) {
+				throw new AbortException("No remote jobs specified.");
+			}
+			StepContext stepContext = getContext();
+			TaskListener listener = stepContext.get(TaskListener.class);
+			BasicBuildContext context = new BasicBuildContext(stepContext.get(Run.class),
+					stepContext.get(FilePath.class), listener);
+			CompletableFuture<List<Handle>> future = remoteBuildConfig.performTriggerAllAsync(context,
+					listener.getLogger(), jobs);
+			triggers = future;
+			future.whenComplete((triggered, error) -> {
+				if (stopped) return; // stop() completes the step
+				try {
+					if (error != null) throw error;
+					handles = triggered;
+					// survives a restart right after the remote jobs have been triggered
+					getContext().saveState();
+					if (remoteBuildConfig.getBlockBuildUntilComplete()) {
+						waitForBuilds(triggered);
+					} else {
+						getContext().onSuccess(new HandleGroup(triggered));
+					}
+				} catch (Throwable e) {
+					getContext().onFailure(e);
+				}
+			});
+			return false;
+		}
+
+		@Override
+		public void onResume() {
+			List<Handle> resumed = handles;
+			try {
+				if (resumed == null) {
+					throw new AbortException("Jenkins was restarted before all remote jobs could be triggered.");
+				}
+				if (remoteBuildConfig.getBlockBuildUntilComplete()) {
+					getContext().get(TaskListener.class).getLogger()
+							.println("Resuming to wait for " + resumed.size() + " remote builds.");
+					waitForBuilds(resumed);
+				} else {
+					getContext().onSuccess(new HandleGroup(resumed));
+				}
+			} catch (Throwable e) {
+				getContext().onFailure(e);
+			}
+		}
+
+		@Override
+		public void stop(@Nonnull final Throwable cause) throws Exception {
+			stopped = true;
+			List<CompletableFuture<Handle>> running = waits;
+			if (running != null) {
+				for (CompletableFuture<Handle> wait : running) wait.cancel(false);
+			}
+			if (!remoteBuildConfig.isAbortTriggeredJob()) {
+				getContext().onFailure(cause);
+				return;
+			}
+			// the remote jobs being triggered right now are aborted as soon as they are triggered
+			CompletableFuture<List<Handle>> triggering = triggers;
+			CompletableFuture<List<Handle>> triggered = (triggering != null) ? triggering
+					: CompletableFuture.completedFuture(handles);
+			triggered.whenComplete((toAbort, error) -> RemoteBuildPoller.submitTrigger(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						if (toAbort == null) return;
+						for (Handle handle : toAbort) {
+							try {
+								BuildContext context = createBuildContext(handle.getEffectiveRemoteServer());
+								handle.getRemoteBuildConfiguration().abortRemoteTask(handle.getEffectiveRemoteServer(),
+										handle, context);
+							} catch (Exception e) {
+								cause.addSuppressed(e);
+							}
+						}
+					} finally {
+						getContext().onFailure(cause);
+					}
+				}
+			}));
+		}
+
+		private void waitForBuilds(final List<Handle> triggered) throws IOException, InterruptedException {
+			final List<CompletableFuture<Handle>> futures = new ArrayList<CompletableFuture<Handle>>();
+			for (Handle handle : triggered) {
+				// not triggered, but the build should not fail because of it
+				if (handle.getBuildInfo().isNotTriggered()) continue;
+				BuildContext context = createBuildContext(handle.getEffectiveRemoteServer());
+				futures.add(handle.getRemoteBuildConfiguration().performWaitForBuildAsync(context, handle));
+			}
+			waits = futures;
+			if (futures.isEmpty()) {
+				getContext().onSuccess(new HandleGroup(triggered));
+				return;
+			}
+			CompletableFuture<?>[] all = futures.toArray(new CompletableFuture<?>[0]);
+			CompletableFuture<?> done = (waitFor == WaitFor.ANY) ? CompletableFuture.anyOf(all) : CompletableFuture.allOf(all);
+			done.whenComplete((ignored, error) -> {
+				if (stopped) return; // stop() completes the step
+				if (waitFor == WaitFor.ANY) {
+					// stop polling the other remote builds
+					for (CompletableFuture<Handle> future : futures) future.cancel(false);
+				}
+				Throwable failure = (waitFor == WaitFor.ANY) ? unwrap(error) : getFailure(futures);
+				if (failure != null) {
+					getContext().onFailure(failure);
+				} else {
+					getContext().onSuccess(new HandleGroup(triggered));
+				}
+			});
+		}
+
+		/**
+		 * @return the failure of the first failed remote build, with the failures of the others as suppressed
+		 *         exceptions, or null if none failed.
+		 */
+		@CheckForNull
+		private static Throwable getFailure(List<CompletableFuture<Handle>> futures) {
+			Throwable failure = null;
+			for (CompletableFuture<Handle> future : futures) {
+				try {
+					future.join();
+				} catch (CompletionException | CancellationException e) {
+					Throwable cause = unwrap(e);
+					if (failure == null) failure = cause;
+					else failure.addSuppressed(cause);
+				}
+			}
+			return failure;
+		}
+
+		@CheckForNull
+		private static Throwable unwrap(@CheckForNull Throwable error) {
+			return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+		}
+
+		@Nonnull
+		private BuildContext createBuildContext(@Nonnull RemoteJenkinsServer effectiveRemoteServer)
+				throws IOException, InterruptedException {
+			StepContext stepContext = getContext();
+			Run<?, ?> build = stepContext.get(Run.class);
+			FilePath workspace = stepContext.get(FilePath.class);
+			TaskListener listener = stepContext.get(TaskListener.class);
+			return new BuildContext(build, workspace, listener, listener.getLogger(), effectiveRemoteServer);
+		}
+	}
+
+	public List<RemoteJobSpec> getJobs() {
+		return Collections.unmodifiableList(jobs);
+	}
+
+	public String getRemoteJenkinsName() {
+		return remoteBuildConfig.getRemoteJenkinsName();
+	}
+
+	public String getRemoteJenkinsUrl() {
+		return remoteBuildConfig.getRemoteJenkinsUrl();
+	}
+
+	public Auth2 getAuth() {
+		return remoteBuildConfig.getAuth2();
+	}
+
+	public boolean getShouldNotFailBuild() {
+		return remoteBuildConfig.getShouldNotFailBuild();
+	}
+
+	public int getPollInterval() {
+		return remoteBuildConfig.getPollInterval();
+	}
+
+	public boolean getBlockBuildUntilComplete() {
+		return remoteBuildConfig.getBlockBuildUntilComplete();
+	}
+
+	public WaitFor getWaitFor() {
+		return waitFor;
+	}
+
+	public boolean isUseJobInfoCache() {
+		return remoteBuildConfig.isUseJobInfoCache();
+	}
+
+	public boolean isAbortTriggeredJob() {
+		return remoteBuildConfig.isAbortTriggeredJob();
+	}
+
+}
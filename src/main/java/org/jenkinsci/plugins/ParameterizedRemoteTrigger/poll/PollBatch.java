@@ -0,0 +1,209 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll.RemoteBuildPoller.PollTask;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing.Span;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing.Tracer;
+
+import hudson.model.TaskListener;
+
+/**
+ * Base class for polling a group of waiting remote builds with a single request per poll.
+ *
+ * A batch exists as long as tasks are waiting in it. It is scheduled on the
+ * {@link RemoteBuildPoller} with the smallest poll interval of its tasks, polls all
+ * of them via {@link #poll(List, BuildContext)}, and removes the tasks which are done afterwards.
+ *
+ * If the batch request fails, the failure is logged to every waiting build and the whole
+ * batch is polled again after a growing delay, instead of polling each build on its own.
+ */
+abstract class PollBatch implements Runnable
+{
+
+    private static final Logger LOGGER = Logger.getLogger(PollBatch.class.getName());
+
+    /**
+     * After consecutive failures the poll interval is doubled up to 2^MAX_BACKOFF_SHIFT times.
+     */
+    private static final int MAX_BACKOFF_SHIFT = 4;
+
+    /**
+     * The active batches, also used as lock for the waiters of all batches.
+     */
+    private static final Map<Key, PollBatch> BATCHES = new HashMap<Key, PollBatch>();
+
+    private final Key key;
+    /**
+     * The remote host whose I/O threads run the polls of this batch.
+     */
+    private final String host;
+    private final List<PollTask> waiters = new ArrayList<PollTask>();
+    /**
+     * The number of consecutive failed polls. Only accessed by the poll thread.
+     */
+    private int failures;
+
+    protected PollBatch(@Nonnull Key key)
+    {
+        this.key = key;
+        this.host = RemoteBuildPoller.getHost(key.url);
+    }
+
+    @Nonnull
+    protected Key getKey()
+    {
+        return key;
+    }
+
+    /**
+     * Polls all the given tasks, completing those whose remote build changed its status.
+     *
+     * @param tasks
+     *            the tasks currently waiting in this batch.
+     * @param context
+     *            the context for the batch request, it does not log to any of the waiting builds.
+     * @throws Exception
+     *            if the batch request failed, none of the tasks has been polled then.
+     */
+    protected abstract void poll(@Nonnull List<PollTask> tasks, @Nonnull BuildContext context) throws Exception;
+
+    /**
+     * Adds the task to the batch with the given key, creating the batch if it does not exist yet.
+     */
+    protected static void register(@Nonnull Key key, @Nonnull PollTask task, boolean initialDelay,
+                @Nonnull Factory factory)
+    {
+        int pollInterval = task.config.getPollInterval(task.handle.getBuildInfo());
+        if (initialDelay) task.logNextPoll(pollInterval);
+        synchronized (BATCHES) {
+            PollBatch batch = BATCHES.get(key);
+            if (batch == null) {
+                batch = factory.create(key);
+                BATCHES.put(key, batch);
+                RemoteBuildPoller.schedule(batch, batch.host, initialDelay ? pollInterval : 0);
+            }
+            batch.waiters.add(task);
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        List<PollTask> tasks;
+        synchronized (BATCHES) {
+            if (!removeDoneWaiters()) return;
+            tasks = new ArrayList<PollTask>(waiters);
+        }
+
+        long waitNanos = RemoteBuildPoller.getStatusTokenWait(tasks.get(0).context);
+        if (waitNanos > 0) {
+            // still registered, so tasks arriving meanwhile join the postponed batch
+            RemoteBuildPoller.schedule(this, host, waitNanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+        // the batch serves the traces of many builds, so it gets a trace of its own
+        Span span = Tracer.startSpan("poll " + getClass().getSimpleName(), Span.Kind.INTERNAL, null);
+        span.setAttribute("poll.batch_size", tasks.size());
+        PollTask first = tasks.get(0);
+        // the key ensures that all tasks share the remote server, credentials and item
+        BuildContext context = new BuildContext(TaskListener.NULL.getLogger(), first.context.effectiveRemoteServer,
+                    first.context.currentItem);
+        try (Tracer.Scope scope = Tracer.activate(span)) {
+            poll(tasks, context);
+            failures = 0;
+        }
+        catch (Exception e) {
+            failures++;
+            span.recordError(e);
+            LOGGER.log(Level.FINE, "Batched polling failed: " + key.url, e);
+            for (PollTask task : tasks) task.log("Polling the remote server failed: " + e.getMessage());
+        }
+        finally {
+            span.end();
+        }
+
+        synchronized (BATCHES) {
+            if (!removeDoneWaiters()) return;
+            int pollInterval = Integer.MAX_VALUE;
+            for (PollTask task : waiters) {
+                pollInterval = Math.min(pollInterval, task.config.getPollInterval(task.handle.getBuildInfo()));
+            }
+            if (failures > 0) pollInterval <<= Math.min(failures, MAX_BACKOFF_SHIFT);
+            for (PollTask task : waiters) task.logNextPoll(pollInterval);
+            RemoteBuildPoller.schedule(this, host, pollInterval);
+        }
+    }
+
+    /**
+     * Removes finished and cancelled waiters, unregistering the batch if none are left.
+     *
+     * @return true if there are waiters left.
+     */
+    private boolean removeDoneWaiters()
+    {
+        for (Iterator<PollTask> it = waiters.iterator(); it.hasNext();) {
+            if (it.next().isDone()) it.remove();
+        }
+        if (waiters.isEmpty()) {
+            BATCHES.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    interface Factory
+    {
+        PollBatch create(Key key);
+    }
+
+    /**
+     * Identifies the remote builds which can be polled together: the same kind of batch,
+     * the same URL, accessed with the same credentials.
+     */
+    static final class Key
+    {
+        final Class<? extends PollBatch> type;
+        final String url;
+        private final Object auth;
+        private final Object serverAuth;
+        private final String currentItem;
+
+        Key(@Nonnull Class<? extends PollBatch> type, @Nonnull String url, @Nonnull PollTask task)
+        {
+            this.type = type;
+            this.url = url;
+            this.auth = task.config.getAuth2();
+            this.serverAuth = task.context.effectiveRemoteServer.getAuth2();
+            this.currentItem = task.context.currentItem;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(type, url, auth, serverAuth, currentItem);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            return type == other.type && Objects.equals(url, other.url) && Objects.equals(auth, other.auth)
+                        && Objects.equals(serverAuth, other.serverAuth) && Objects.equals(currentItem, other.currentItem);
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll;
+
+import static org.apache.commons.lang.StringUtils.removeEnd;
+import static org.apache.commons.lang.StringUtils.trimToNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll.RemoteBuildPoller.PollTask;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.QueueItemData;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.RemoteApi;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * Polls all queued builds of one remote host with a single request.
+ *
+ * Once per poll interval the batch requests a snapshot of the remote queue via
+ * <code>/queue/api/json?tree=items[id,blocked,buildable,why,cancelled,executable[number,url]]</code>
+ * and updates every waiting queue item from it. Only items which are not contained in the
+ * snapshot anymore, i.e. which left the queue, are requested one by one via
+ * <code>/queue/item/{id}/api/json/</code> to find out about the started build.
+ */
+final class QueuedItemsBatch extends PollBatch
+{
+
+    private static final Factory FACTORY = new Factory() {
+        @Override
+        public PollBatch create(Key key)
+        {
+            return new QueuedItemsBatch(key);
+        }
+    };
+
+    /**
+     * The API URL of the remote queue.
+     */
+    private final String queueApiUrl;
+
+    private QueuedItemsBatch(Key key)
+    {
+        super(key);
+        this.queueApiUrl = RemoteApi.getApiUrl(key.url + "/queue/", RemoteApi.QUEUE_ITEMS);
+    }
+
+    /**
+     * Registers the given task waiting for a queued build with the batch of its remote host.
+     *
+     * @param task
+     *            the task waiting for a queued build.
+     * @param initialDelay
+     *            true if the queue item should not be polled before the poll interval elapsed.
+     * @return false if the remote host or the queue item are not known, the task has to poll itself then.
+     */
+    static boolean register(@Nonnull PollTask task, boolean initialDelay)
+    {
+        String address = trimToNull(task.context.effectiveRemoteServer.getAddress());
+        if (address == null || task.handle.getQueueId() == null) return false;
+
+        register(new Key(QueuedItemsBatch.class, removeEnd(address, "/"), task), task, initialDelay, FACTORY);
+        return true;
+    }
+
+    @Override
+    protected void poll(@Nonnull List<PollTask> tasks, @Nonnull BuildContext context) throws Exception
+    {
+        Map<String, JSONObject> items = fetchQueue(tasks, context);
+        for (PollTask task : tasks) {
+            JSONObject item = items.get(task.handle.getQueueId());
+            if (item == null) {
+                task.poll(); // left the queue (or a single item which is polled directly)
+                continue;
+            }
+            try {
+                QueueItemData queueItem = new QueueItemData();
+                queueItem.updateFromQueueListing(item);
+                task.update(task.config.updateBuildInfo(task.handle.getBuildInfo(), queueItem, task.context));
+            }
+            catch (Exception e) {
+                task.fail(e);
+            }
+        }
+    }
+
+    /**
+     * Requests a snapshot of the remote queue.
+     *
+     * @return the queue items by id.
+     * @throws Exception
+     *            if the request failed.
+     */
+    @Nonnull
+    private Map<String, JSONObject> fetchQueue(@Nonnull List<PollTask> tasks, @Nonnull BuildContext context)
+                throws Exception
+    {
+        Map<String, JSONObject> items = new HashMap<String, JSONObject>();
+        if (tasks.size() < 2) return items; // a single queue item is polled directly
+
+        JSONObject body = tasks.get(0).config.doConditionalGet(queueApiUrl, context, RemoteApi.QUEUE_ITEMS).getBody();
+        JSONArray array = body == null ? null : body.optJSONArray("items");
+        if (array == null) return items;
+        for (int i = 0; i < array.size(); i++) {
+            JSONObject item = array.getJSONObject(i);
+            items.put(String.valueOf(item.getLong("id")), item);
+        }
+        return items;
+    }
+
+}
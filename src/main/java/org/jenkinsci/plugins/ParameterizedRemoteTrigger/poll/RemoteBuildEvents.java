@@ -0,0 +1,127 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.apache.commons.codec.binary.Hex;
+
+import jenkins.model.Jenkins;
+
+/**
+ * Wakes up the waiting for a remote build as soon as the remote build reports an event,
+ * instead of waiting for the next poll.
+ *
+ * If enabled, the remote build gets the URL of the {@link RemoteBuildEventsAction} of this
+ * Jenkins as parameter {@value #CALLBACK_PARAMETER}, containing a random token which identifies
+ * the waiting build. The remote job sends its events (e.g. queue left, started, completed) to
+ * this URL, for instance with the Notification plugin or a simple HTTP POST at the end of the
+ * build. An event only triggers an immediate poll of the remote build, the status itself is
+ * always read from the remote API, so a forged event can not change the outcome.
+ */
+public final class RemoteBuildEvents
+{
+
+    /**
+     * The name of the parameter passing the callback URL to the remote build.
+     */
+    public static final String CALLBACK_PARAMETER = "REMOTE_TRIGGER_CALLBACK_URL";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final Map<String, List<Listener>> LISTENERS = new HashMap<String, List<Listener>>();
+
+    private RemoteBuildEvents()
+    {
+    }
+
+    /**
+     * Notified about the events of a remote build.
+     */
+    public interface Listener
+    {
+        /**
+         * @param phase
+         *            the phase reported by the remote build, e.g. <code>STARTED</code> or <code>COMPLETED</code>,
+         *            or null if not known.
+         */
+        void onEvent(@CheckForNull String phase);
+    }
+
+    /**
+     * @return a new random token identifying a remote build.
+     */
+    @Nonnull
+    public static String newToken()
+    {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return new String(Hex.encodeHex(bytes));
+    }
+
+    /**
+     * @param token
+     *            the token of the remote build.
+     * @return the URL the remote build has to send its events to, or null if the URL of this Jenkins is not configured.
+     */
+    @CheckForNull
+    public static String getCallbackUrl(@Nonnull String token)
+    {
+        Jenkins jenkins = Jenkins.getInstance();
+        String rootUrl = (jenkins == null) ? null : jenkins.getRootUrl();
+        if (rootUrl == null) return null;
+        return String.format("%s%s%s/%s/", rootUrl, rootUrl.endsWith("/") ? "" : "/", RemoteBuildEventsAction.URL_NAME,
+                    token);
+    }
+
+    public static void register(@Nonnull String token, @Nonnull Listener listener)
+    {
+        synchronized (LISTENERS) {
+            List<Listener> listeners = LISTENERS.get(token);
+            if (listeners == null) {
+                listeners = new ArrayList<Listener>();
+                LISTENERS.put(token, listeners);
+            }
+            listeners.add(listener);
+        }
+    }
+
+    public static void unregister(@Nonnull String token, @Nonnull Listener listener)
+    {
+        synchronized (LISTENERS) {
+            List<Listener> listeners = LISTENERS.get(token);
+            if (listeners == null) return;
+            listeners.remove(listener);
+            if (listeners.isEmpty()) LISTENERS.remove(token);
+        }
+    }
+
+    /**
+     * Notifies the listeners of the remote build with the given token.
+     *
+     * @param token
+     *            the token of the remote build.
+     * @param phase
+     *            the phase reported by the remote build, or null if not known.
+     * @return false if nobody is waiting for a remote build with this token.
+     */
+    public static boolean fire(@Nonnull String token, @CheckForNull String phase)
+    {
+        List<Listener> listeners;
+        synchronized (LISTENERS) {
+            List<Listener> registered = LISTENERS.get(token);
+            if (registered == null) return false;
+            listeners = new ArrayList<Listener>(registered);
+        }
+        for (Listener listener : listeners) {
+            listener.onEvent(phase);
+        }
+        return true;
+    }
+
+}
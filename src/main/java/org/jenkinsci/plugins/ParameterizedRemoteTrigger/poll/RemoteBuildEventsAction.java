@@ -0,0 +1,118 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.CheckForNull;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import hudson.Extension;
+import hudson.model.UnprotectedRootAction;
+import hudson.security.csrf.CrumbExclusion;
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+
+/**
+ * Receives the events of remote builds at <code>/remote-build-events/{token}/</code>, see {@link RemoteBuildEvents}.
+ *
+ * The body can be the JSON sent by the Notification plugin (<code>{"build":{"phase":"STARTED",...}}</code>),
+ * the phase can also be passed as parameter <code>phase</code>. Any other body is accepted as well.
+ * The token is the only authentication, so the endpoint is excluded from the CSRF protection.
+ */
+@Extension
+public class RemoteBuildEventsAction implements UnprotectedRootAction
+{
+
+    static final String URL_NAME = "remote-build-events";
+
+    private static final Logger LOGGER = Logger.getLogger(RemoteBuildEventsAction.class.getName());
+
+    /**
+     * Larger bodies are not read, the phase is not needed to wake up the waiting build.
+     */
+    private static final int MAX_BODY_LENGTH = 64 * 1024;
+
+    @Override
+    public String getIconFileName()
+    {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName()
+    {
+        return null;
+    }
+
+    @Override
+    public String getUrlName()
+    {
+        return URL_NAME;
+    }
+
+    @RequirePOST
+    public HttpResponse doDynamic(StaplerRequest req) throws IOException
+    {
+        String token = req.getRestOfPath().replaceAll("^/+|/+$", "");
+        if (token.isEmpty() || token.contains("/")) return HttpResponses.status(HttpServletResponse.SC_NOT_FOUND);
+
+        String phase = req.getParameter("phase");
+        if (phase == null) phase = readPhase(req);
+        if (!RemoteBuildEvents.fire(token, phase)) {
+            LOGGER.log(Level.FINE, "No remote build is waiting for event {0}", phase);
+            return HttpResponses.status(HttpServletResponse.SC_NOT_FOUND);
+        }
+        return HttpResponses.ok();
+    }
+
+    @CheckForNull
+    private static String readPhase(StaplerRequest req) throws IOException
+    {
+        if (req.getContentLength() > MAX_BODY_LENGTH) return null;
+        StringBuilder body = new StringBuilder();
+        Reader reader = req.getReader();
+        char[] buffer = new char[4096];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            body.append(buffer, 0, read);
+            if (body.length() > MAX_BODY_LENGTH) return null;
+        }
+        try {
+            JSONObject build = JSONObject.fromObject(body.toString()).optJSONObject("build");
+            return (build == null) ? null : build.optString("phase", null);
+        }
+        catch (JSONException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The remote Jenkins can not send a crumb of this Jenkins with its events.
+     */
+    @Extension
+    public static class CrumbExclusionImpl extends CrumbExclusion
+    {
+        @Override
+        public boolean process(HttpServletRequest req, HttpServletResponse resp, FilterChain chain)
+                    throws IOException, ServletException
+        {
+            String pathInfo = req.getPathInfo();
+            if (pathInfo != null && pathInfo.startsWith("/" + URL_NAME + "/")) {
+                chain.doFilter(req, resp);
+                return true;
+            }
+            return false;
+        }
+    }
+
+}
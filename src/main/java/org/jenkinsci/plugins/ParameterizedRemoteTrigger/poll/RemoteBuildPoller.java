@@ -0,0 +1,521 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteBuildConfiguration;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.pipeline.Handle;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildInfo;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildStatus;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing.Span;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing.Tracer;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.HostConcurrencyLimiter;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.RequestRateLimiter;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.TokenBucket;
+
+import hudson.AbortException;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+/**
+ * Polls the status of remote builds from a small, shared pool of threads.
+ *
+ * Instead of putting the calling thread to sleep between two polls, every waiting
+ * remote build is registered as a {@link PollTask} which is (re-)scheduled on this
+ * poller until the remote build left the status it is waiting for. Callers get a
+ * {@link CompletableFuture} which completes with the updated {@link RemoteBuildInfo},
+ * so many waiting builds only cost a couple of scheduled tasks and not one sleeping
+ * thread each.
+ *
+ * The scheduler only keeps the time. When a poll is due it is handed over to the I/O
+ * threads of its remote host, which send the requests and may block on them, e.g. while
+ * waiting for a free connection or between retries. Each remote host has its own bounded
+ * pool of I/O threads, so an unhealthy host can only hold up the polls of its own builds.
+ *
+ * The number of I/O threads per remote host can be adjusted with the system property
+ * <code>org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll.RemoteBuildPoller.threadsPerHost</code>.
+ *
+ * Remote builds are triggered and aborted on threads of their own, so that a backlog of
+ * triggers can not hold back the polls which let the running builds finish. The number of
+ * trigger threads can be adjusted with the system property
+ * <code>org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll.RemoteBuildPoller.triggerThreads</code>.
+ */
+public final class RemoteBuildPoller
+{
+
+    private static final Logger LOGGER = Logger.getLogger(RemoteBuildPoller.class.getName());
+
+    private static final int THREADS_PER_HOST = Math.max(1,
+                Integer.getInteger(RemoteBuildPoller.class.getName() + ".threadsPerHost", 4));
+
+    private static final int TRIGGER_THREADS = Math.max(1,
+                Integer.getInteger(RemoteBuildPoller.class.getName() + ".triggerThreads", 4));
+
+    /**
+     * Only hands the due tasks over to the I/O executors, it never runs a request itself.
+     */
+    private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+
+    /**
+     * The I/O executors by remote host, see {@link HostConcurrencyLimiter#getHost(URL)}.
+     */
+    private static final ConcurrentHashMap<String, Executor> IO_EXECUTORS = new ConcurrentHashMap<String, Executor>();
+
+    private static final ExecutorService TRIGGER_EXECUTOR = createTriggerExecutor();
+
+    private RemoteBuildPoller()
+    {
+    }
+
+    private static ScheduledThreadPoolExecutor createScheduler()
+    {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                    new NamingThreadFactory(new DaemonThreadFactory(), "RemoteBuildPoller"));
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private static ExecutorService createTriggerExecutor()
+    {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(TRIGGER_THREADS, TRIGGER_THREADS, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new NamingThreadFactory(new DaemonThreadFactory(), "RemoteBuildTrigger"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Nonnull
+    private static Executor getIoExecutor(@Nonnull String host)
+    {
+        Executor executor = IO_EXECUTORS.get(host);
+        if (executor == null) {
+            ThreadPoolExecutor created = new ThreadPoolExecutor(THREADS_PER_HOST, THREADS_PER_HOST, 60, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        new NamingThreadFactory(new DaemonThreadFactory(), "RemoteBuildPoller " + host));
+            // idle hosts don't keep any threads
+            created.allowCoreThreadTimeOut(true);
+            executor = IO_EXECUTORS.putIfAbsent(host, created);
+            if (executor == null) executor = created;
+        }
+        return executor;
+    }
+
+    /**
+     * @param url
+     *            the URL of a remote server, job or build, may be null if not known.
+     * @return the remote host whose I/O threads send the requests to the URL.
+     */
+    @Nonnull
+    static String getHost(@CheckForNull String url)
+    {
+        if (url == null) return "";
+        try {
+            return HostConcurrencyLimiter.getHost(new URL(url));
+        }
+        catch (MalformedURLException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Polls the remote build of the given handle until it leaves the given status.
+     *
+     * @param status
+     *            the status to wait for to be left, usually {@link RemoteBuildStatus#QUEUED} or {@link RemoteBuildStatus#RUNNING}.
+     * @param handle
+     *            the handle to the remote build, its build info gets updated with every poll.
+     * @param context
+     *            the context used for the HTTP calls and for logging.
+     * @param config
+     *            the configuration providing the poll interval and the HTTP calls.
+     * @param owner
+     *            an optional future which stops the polling as soon as it is done (e.g. cancelled).
+     * @param initialDelay
+     *            true if the first poll should only be done after the poll interval, false to poll immediately.
+     * @return a future which completes with the build info once the remote build left the given status,
+     *            or exceptionally if the remote build could not be polled.
+     */
+    @Nonnull
+    public static CompletableFuture<RemoteBuildInfo> waitWhile(@Nonnull RemoteBuildStatus status, @Nonnull Handle handle,
+                @Nonnull BuildContext context, @Nonnull RemoteBuildConfiguration config, @CheckForNull Future<?> owner,
+                boolean initialDelay)
+    {
+        PollTask task = new PollTask(status, handle, context, config, owner);
+        String eventToken = handle.getBuildInfo().getEventToken();
+        if (handle.getBuildInfo().getStatus() != status) {
+            task.future.complete(handle.getBuildInfo());
+        } else if (eventToken != null) {
+            // polled on its own, as soon as the remote build sends an event
+            task.listenForEvents(eventToken);
+            if (initialDelay) task.scheduleNextPoll();
+            else task.wakeUp();
+        } else if (status == RemoteBuildStatus.QUEUED && QueuedItemsBatch.register(task, initialDelay)) {
+            // polled together with the other queued builds of the same host
+        } else if (status == RemoteBuildStatus.RUNNING && RunningBuildsBatch.register(task, initialDelay)) {
+            // polled together with the other running builds of the same job
+        } else if (initialDelay) {
+            task.scheduleNextPoll();
+        } else {
+            task.wakeUp();
+        }
+        return task.future;
+    }
+
+    /**
+     * Waits for the given future, blocking the current thread. If the current thread gets
+     * interrupted the future is cancelled, so that the polling of the remote build stops.
+     *
+     * @param future
+     *            the future to wait for.
+     * @return the result of the future.
+     * @throws IOException
+     *            if the future completed with an {@link IOException} or any other checked exception.
+     * @throws InterruptedException
+     *            if the current thread has been interrupted while waiting.
+     */
+    public static <T> T await(@Nonnull Future<T> future) throws IOException, InterruptedException
+    {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            future.cancel(false);
+            throw e;
+        }
+        catch (CancellationException e) {
+            throw new AbortException("Waiting for the remote build has been cancelled.");
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException)cause;
+            if (cause instanceof InterruptedException) throw (InterruptedException)cause;
+            if (cause instanceof CancellationException) throw new AbortException("Waiting for the remote build has been cancelled.");
+            if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+            if (cause instanceof Error) throw (Error)cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Runs the given task on the trigger threads, e.g. to trigger or abort a remote build
+     * without occupying a thread of the caller or of the poller.
+     *
+     * @param task
+     *            the task to run.
+     * @return a future of the task, which can be used to cancel it.
+     */
+    @Nonnull
+    public static Future<?> submitTrigger(@Nonnull Runnable task)
+    {
+        return TRIGGER_EXECUTOR.submit(task);
+    }
+
+    /**
+     * Runs the given task every <code>intervalSeconds</code> on the I/O threads of the remote host
+     * of the given context, until the owner is done.
+     *
+     * @param owner
+     *            the future which ends the repetition once it is done.
+     * @param context
+     *            the context providing the remote host the task sends its requests to.
+     * @param intervalSeconds
+     *            the delay between two executions.
+     * @param task
+     *            the task to run.
+     */
+    public static void repeatWhile(@Nonnull final Future<?> owner, @Nonnull final BuildContext context,
+                final int intervalSeconds, @Nonnull final Runnable task)
+    {
+        final String host = getHost(context.effectiveRemoteServer.getAddress());
+        schedule(new Runnable() {
+            @Override
+            public void run()
+            {
+                if (owner.isDone()) return;
+                long waitNanos = getStatusTokenWait(context);
+                if (waitNanos > 0) {
+                    schedule(this, host, waitNanos, TimeUnit.NANOSECONDS);
+                    return;
+                }
+                try {
+                    task.run();
+                }
+                catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Repeated task failed", e);
+                }
+                if (!owner.isDone()) schedule(this, host, intervalSeconds);
+            }
+        }, host, intervalSeconds);
+    }
+
+    /**
+     * Runs the given task right away on the I/O threads of the remote host of the given context, and again
+     * every <code>intervalSeconds</code> as long as it returns true and the owner is not done.
+     *
+     * @param owner
+     *            the future which ends the repetition once it is done.
+     * @param context
+     *            the context providing the remote host the task sends its requests to.
+     * @param intervalSeconds
+     *            the delay between two executions.
+     * @param task
+     *            the task to run, returns false once it is done.
+     * @return a future which completes once the task returned false or the owner is done,
+     *            or exceptionally if the task failed.
+     */
+    @Nonnull
+    public static CompletableFuture<Void> repeatUntilDone(@Nonnull final Future<?> owner, @Nonnull final BuildContext context,
+                final int intervalSeconds, @Nonnull final Callable<Boolean> task)
+    {
+        final String host = getHost(context.effectiveRemoteServer.getAddress());
+        final CompletableFuture<Void> done = new CompletableFuture<Void>();
+        schedule(new Runnable() {
+            @Override
+            public void run()
+            {
+                if (owner.isDone()) {
+                    done.complete(null);
+                    return;
+                }
+                long waitNanos = getStatusTokenWait(context);
+                if (waitNanos > 0) {
+                    schedule(this, host, waitNanos, TimeUnit.NANOSECONDS);
+                    return;
+                }
+                try {
+                    if (task.call()) {
+                        schedule(this, host, intervalSeconds);
+                    } else {
+                        done.complete(null);
+                    }
+                }
+                catch (Throwable e) {
+                    done.completeExceptionally(e);
+                }
+            }
+        }, host, 0);
+        return done;
+    }
+
+    /**
+     * Runs the given task on the I/O threads of the given remote host once the delay elapsed.
+     * Cancelling the returned future only stops the task as long as it has not been handed over yet.
+     */
+    static ScheduledFuture<?> schedule(@Nonnull Runnable task, @Nonnull String host, long delaySeconds)
+    {
+        return schedule(task, host, delaySeconds, TimeUnit.SECONDS);
+    }
+
+    static ScheduledFuture<?> schedule(@Nonnull final Runnable task, @Nonnull String host, long delay, @Nonnull TimeUnit unit)
+    {
+        final Executor io = getIoExecutor(host);
+        return SCHEDULER.schedule(new Runnable() {
+            @Override
+            public void run()
+            {
+                io.execute(task);
+            }
+        }, delay, unit);
+    }
+
+    /**
+     * Checks the status request rate limit of the remote server before a poll, so that a poll is
+     * postponed instead of waiting for a token on the I/O threads. No token is taken here: every
+     * request of the poll takes its own, including retries and the requests of fallback polls.
+     *
+     * @return 0 if the poll may run now, otherwise the time in nanoseconds to postpone it by.
+     */
+    static long getStatusTokenWait(@Nonnull BuildContext context)
+    {
+        String address = context.effectiveRemoteServer.getAddress();
+        if (address == null) return 0;
+        TokenBucket bucket = RequestRateLimiter.forAddress(address, context.effectiveRemoteServer).getStatusBucket();
+        long waitNanos = bucket.getWaitNanos();
+        if (waitNanos > 0) bucket.recordThrottled(waitNanos);
+        return waitNanos;
+    }
+
+    /**
+     * One remote build waiting for a status change. The task is executed once per poll
+     * and re-schedules itself as long as the status did not change. Waiting for a running
+     * build is usually delegated to a {@link RunningBuildsBatch} which polls all running
+     * builds of the same job at once, unless the remote build sends events: then the task is
+     * woken up by each event and only polled every fallback interval otherwise.
+     */
+    static class PollTask implements Runnable
+    {
+        final RemoteBuildStatus status;
+        final Handle handle;
+        final BuildContext context;
+        final RemoteBuildConfiguration config;
+        /**
+         * The remote host whose I/O threads run the polls of this task.
+         */
+        final String host;
+        private final Future<?> owner;
+        final CompletableFuture<RemoteBuildInfo> future;
+        /**
+         * The span of the waiting build, the parent of the spans of the polls.
+         */
+        @CheckForNull
+        private final Span span;
+        /**
+         * The next scheduled poll, guarded by this task.
+         */
+        private ScheduledFuture<?> nextPoll;
+        /**
+         * True if an event arrived while polling, guarded by this task.
+         */
+        private boolean wokenUp;
+
+        PollTask(RemoteBuildStatus status, Handle handle, BuildContext context, RemoteBuildConfiguration config, Future<?> owner)
+        {
+            this.status = status;
+            this.handle = handle;
+            this.context = context;
+            this.config = config;
+            this.host = getHost(context.effectiveRemoteServer.getAddress());
+            this.owner = owner;
+            this.future = new CompletableFuture<RemoteBuildInfo>();
+            this.span = Tracer.current();
+        }
+
+        @Override
+        public void run()
+        {
+            if (isDone()) return;
+            long waitNanos = getStatusTokenWait(context);
+            if (waitNanos > 0) {
+                postpone(waitNanos);
+                return;
+            }
+            poll();
+            if (!future.isDone()) scheduleNextPoll();
+        }
+
+        /**
+         * @return true if the task completed or has been cancelled via its owner.
+         */
+        boolean isDone()
+        {
+            if (!future.isDone() && owner != null && owner.isDone()) future.cancel(false);
+            return future.isDone();
+        }
+
+        /**
+         * Polls the status of this single remote build.
+         */
+        void poll()
+        {
+            try (Tracer.Scope scope = Tracer.activate(span)) {
+                update(config.updateBuildInfo(handle.getBuildInfo(), context));
+            }
+            catch (Throwable e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * Completes the task exceptionally, e.g. if the remote build could not be polled.
+         */
+        void fail(Throwable e)
+        {
+            LOGGER.log(Level.FINE, "Polling remote build failed: " + handle, e);
+            future.completeExceptionally(e);
+        }
+
+        /**
+         * Takes over the given build info and completes the task if the status changed.
+         */
+        void update(RemoteBuildInfo buildInfo)
+        {
+            handle.setBuildInfo(buildInfo);
+            if (buildInfo.getStatus() != status) future.complete(buildInfo);
+        }
+
+        void logNextPoll(int pollInterval)
+        {
+            log(String.format("Waiting for %d seconds until next poll.", pollInterval));
+        }
+
+        /**
+         * Logs the given message to the log of the waiting build.
+         */
+        void log(@Nonnull String message)
+        {
+            context.logger.println((status == RemoteBuildStatus.RUNNING ? "  " : "") + message);
+        }
+
+        synchronized void scheduleNextPoll()
+        {
+            if (wokenUp) {
+                wokenUp = false;
+                nextPoll = schedule(this, host, 0);
+                return;
+            }
+            int pollInterval = config.getPollInterval(handle.getBuildInfo());
+            logNextPoll(pollInterval);
+            nextPoll = schedule(this, host, pollInterval);
+        }
+
+        /**
+         * Postpones the poll until the rate limit allows it, which also serves a pending wake up.
+         */
+        synchronized void postpone(long waitNanos)
+        {
+            wokenUp = false;
+            nextPoll = schedule(this, host, waitNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Polls immediately instead of at the next scheduled poll. If a poll is running right now,
+         * the next poll follows right after it.
+         */
+        synchronized void wakeUp()
+        {
+            if (nextPoll != null && !nextPoll.cancel(false)) {
+                wokenUp = true;
+                return;
+            }
+            nextPoll = schedule(this, host, 0);
+        }
+
+        /**
+         * Wakes up this task with every event of the remote build, as long as it is not done.
+         */
+        void listenForEvents(@Nonnull final String eventToken)
+        {
+            final RemoteBuildEvents.Listener listener = new RemoteBuildEvents.Listener() {
+                @Override
+                public void onEvent(String phase)
+                {
+                    context.logger.println(String.format("%sRemote build event received%s.",
+                                status == RemoteBuildStatus.RUNNING ? "  " : "", phase == null ? "" : ": " + phase));
+                    wakeUp();
+                }
+            };
+            RemoteBuildEvents.register(eventToken, listener);
+            future.whenComplete((buildInfo, error) -> RemoteBuildEvents.unregister(eventToken, listener));
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll.RemoteBuildPoller.PollTask;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.RemoteApi;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+/**
+ * Polls all running builds of one remote job with a single request.
+ *
+ * Once per poll interval the batch requests
+ * <code>{jobUrl}api/json/?tree=builds[number,result,building,timestamp,estimatedDuration]{0,N}</code>, with N large
+ * enough to cover the oldest waited build, and hands the state of each build to its
+ * waiting {@link PollTask}. Builds not contained in the response (e.g. because the window
+ * was too small) are polled one by one as before, and the window is enlarged for the next poll.
+ */
+final class RunningBuildsBatch extends PollBatch
+{
+
+    /**
+     * Minimum number of additional builds requested.
+     */
+    private static final int MIN_SLACK = 10;
+
+    /**
+     * Maximum number of additional builds requested, more builds started meanwhile are polled one by one.
+     */
+    private static final int MAX_SLACK = 50;
+
+    private static final Factory FACTORY = new Factory() {
+        @Override
+        public PollBatch create(Key key)
+        {
+            return new RunningBuildsBatch(key);
+        }
+    };
+
+    /**
+     * Additional builds requested on top of the range of waited build numbers,
+     * to cover builds started after the newest waited one. Only accessed by the poll thread.
+     */
+    private int slack = MIN_SLACK;
+
+    /**
+     * The API URL of the builds of the job, without the range.
+     */
+    private final String buildsApiUrl;
+
+    private RunningBuildsBatch(Key key)
+    {
+        super(key);
+        this.buildsApiUrl = RemoteApi.getApiUrl(key.url, RemoteApi.RUNNING_BUILDS);
+    }
+
+    /**
+     * Registers the given task waiting for a running build with the batch of its job.
+     *
+     * @param task
+     *            the task waiting for a running build.
+     * @param initialDelay
+     *            true if the build should not be polled before the poll interval elapsed.
+     * @return false if the job of the build could not be identified, the task has to poll itself then.
+     */
+    static boolean register(@Nonnull PollTask task, boolean initialDelay)
+    {
+        if (task.handle.getBuildUrl() == null || task.handle.getBuildNumber() == 0) return false;
+        String jobUrl = task.handle.getBuildInfo().getUrls(task.context.effectiveRemoteServer.getAddress()).getJobUrl();
+        if (jobUrl == null) return false;
+
+        register(new Key(RunningBuildsBatch.class, jobUrl, task), task, initialDelay, FACTORY);
+        return true;
+    }
+
+    @Override
+    protected void poll(@Nonnull List<PollTask> tasks, @Nonnull BuildContext context) throws Exception
+    {
+        Map<Integer, JSONObject> builds = fetchBuilds(tasks, context);
+        for (PollTask task : tasks) {
+            JSONObject build = builds.get(task.handle.getBuildNumber());
+            if (build != null) {
+                task.update(task.config.updateBuildInfo(task.handle.getBuildInfo(), build, task.context));
+            } else {
+                task.poll();
+            }
+        }
+    }
+
+    /**
+     * Requests the state of the recent builds of the job.
+     *
+     * @return the builds by build number.
+     * @throws Exception
+     *            if the request failed.
+     */
+    @Nonnull
+    private Map<Integer, JSONObject> fetchBuilds(@Nonnull List<PollTask> tasks, @Nonnull BuildContext context)
+                throws Exception
+    {
+        Map<Integer, JSONObject> builds = new HashMap<Integer, JSONObject>();
+        if (tasks.size() < 2) return builds; // a single build is polled directly
+
+        int minNumber = Integer.MAX_VALUE;
+        int maxNumber = 0;
+        for (PollTask task : tasks) {
+            minNumber = Math.min(minNumber, task.handle.getBuildNumber());
+            maxNumber = Math.max(maxNumber, task.handle.getBuildNumber());
+        }
+        int window = maxNumber - minNumber + 1 + slack;
+
+        // the braces of the range are not allowed in a URL unencoded
+        String url = buildsApiUrl + "%7B0," + window + "%7D";
+        JSONObject body = tasks.get(0).config.doConditionalGet(url, context, RemoteApi.RUNNING_BUILDS).getBody();
+        JSONArray array = body == null ? null : body.optJSONArray("builds");
+        if (array == null) return builds;
+        for (int i = 0; i < array.size(); i++) {
+            JSONObject build = array.getJSONObject(i);
+            builds.put(build.getInt("number"), build);
+        }
+        if (!builds.containsKey(minNumber) && array.size() >= window) {
+            // there are more new builds than expected, request more next time
+            slack = Math.min(slack * 2, MAX_SLACK);
+        }
+        return builds;
+    }
+
+}
@@ -134,6 +134,23 @@ public class QueueItemData
         }
     }
 
+    /**
+     * Updates the queue item data with an entry of the queue listing (<code>/queue/api/json</code>).
+     * Items contained in this listing did not leave the queue yet.
+     *
+     * @param queueItem
+     *            the entry of the queue item in the queue listing.
+     */
+    public void updateFromQueueListing(@Nonnull JSONObject queueItem)
+    {
+        status = QueueItemStatus.WAITING;
+        if (getOptionalBoolean(queueItem, "blocked")) status = QueueItemStatus.BLOCKED;
+        if (getOptionalBoolean(queueItem, "buildable")) status = QueueItemStatus.BUILDABLE;
+        if (getOptionalBoolean(queueItem, "pending")) status = QueueItemStatus.PENDING;
+        if (getOptionalBoolean(queueItem, "cancelled")) status = QueueItemStatus.CANCELLED;
+        why = queueItem.optString("why", null);
+    }
+
     private boolean getOptionalBoolean(@Nonnull JSONObject queueResponse, @Nonnull String attribute)
     {
         if (queueResponse.containsKey(attribute))
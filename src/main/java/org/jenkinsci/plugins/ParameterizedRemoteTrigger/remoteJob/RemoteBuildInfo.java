@@ -51,6 +51,25 @@ public class RemoteBuildInfo implements Serializable
     @Nonnull
     private Result result;
 
+    private long timestamp;
+
+    private long estimatedDuration = -1;
+
+    @CheckForNull
+    private String eventToken;
+
+    /*
+     * When this Jenkins saw the remote build being queued and started, for the metrics.
+     */
+    private long queuedAt;
+    private long startedAt;
+
+    /**
+     * The URLs of the current state, built on first use.
+     */
+    @CheckForNull
+    private transient volatile RemoteBuildUrls urls;
+
 
     public RemoteBuildInfo()
     {
@@ -87,9 +106,91 @@ public class RemoteBuildInfo implements Serializable
         return result;
     }
 
+    /**
+     * @return the start time of the remote build in milliseconds since the epoch, according
+     *         to the clock of the remote server, 0 if not known.
+     */
+    public long getTimestamp()
+    {
+        return timestamp;
+    }
+
+    /**
+     * @return the duration the remote server expects for the build in milliseconds,
+     *         -1 if not known.
+     */
+    public long getEstimatedDuration()
+    {
+        return estimatedDuration;
+    }
+
+    /**
+     * Sets when the remote build started and how long it is expected to take.
+     *
+     * @param timestamp
+     *            the start time in milliseconds since the epoch, 0 if not known.
+     * @param estimatedDuration
+     *            the expected duration in milliseconds, -1 if not known.
+     */
+    public void setTiming(long timestamp, long estimatedDuration)
+    {
+        this.timestamp = timestamp;
+        this.estimatedDuration = estimatedDuration;
+    }
+
+    /**
+     * @return the token the remote build sends its events with, see
+     *         {@link org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll.RemoteBuildEvents}, or null if the remote
+     *         build is only polled.
+     */
+    @CheckForNull
+    public String getEventToken()
+    {
+        return eventToken;
+    }
+
+    public void setEventToken(@CheckForNull String eventToken)
+    {
+        this.eventToken = eventToken;
+    }
+
+    /**
+     * @return when the remote build was queued, according to the clock of this Jenkins, 0 if not known.
+     */
+    public long getQueuedAt()
+    {
+        return queuedAt;
+    }
+
+    /**
+     * @return when the remote build was first seen running, according to the clock of this Jenkins, 0 if not known.
+     */
+    public long getStartedAt()
+    {
+        return startedAt;
+    }
+
+    /**
+     * @param address
+     *            the address of the remote server.
+     * @return the URLs of the remote APIs of this build, reused as long as the queue id and the build URL
+     *         do not change.
+     */
+    @Nonnull
+    public RemoteBuildUrls getUrls(@CheckForNull String address)
+    {
+        RemoteBuildUrls current = urls;
+        if (current == null || !current.isFor(address, queueId, buildURL)) {
+            current = new RemoteBuildUrls(address, queueId, buildURL);
+            urls = current;
+        }
+        return current;
+    }
+
     public void setQueueId(String queueId) {
         this.queueId = queueId;
         this.status = RemoteBuildStatus.QUEUED;
+        this.queuedAt = System.currentTimeMillis();
     }
 
     public void setBuildData(@Nonnull int buildNumber, @Nullable URL buildURL) throws AbortException
@@ -97,6 +198,9 @@ public class RemoteBuildInfo implements Serializable
         if (buildURL == null) {
             throw new AbortException(String.format("Unexpected remote build status: %s", toString()));
         }
+        if (status != RemoteBuildStatus.RUNNING) {
+            this.startedAt = System.currentTimeMillis();
+        }
         this.buildNumber = buildNumber;
         this.buildURL = buildURL;
         this.status = RemoteBuildStatus.RUNNING;
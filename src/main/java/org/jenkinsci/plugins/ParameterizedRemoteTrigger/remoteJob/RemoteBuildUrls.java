@@ -0,0 +1,222 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob;
+
+import static org.apache.commons.lang.StringUtils.isEmpty;
+
+import java.net.URL;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.FormValidationUtils;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.HttpHelper;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.RemoteApi;
+
+import hudson.AbortException;
+
+/**
+ * The URLs of the remote APIs of one remote build, built once and reused for every poll.
+ *
+ * An instance is immutable and belongs to one state of a {@link RemoteBuildInfo}: the queue id and
+ * the build URL. {@link RemoteBuildInfo#getUrls(String)} replaces it once the remote build left
+ * the queue, so polling a remote build does not build any URL.
+ */
+public final class RemoteBuildUrls
+{
+
+    private static final String QUEUE_ITEM_PATH = "/queue/item/";
+    private static final String CANCEL_PATH = "/queue/cancelItem?id=";
+    private static final String CONSOLE_PATH = "logText/progressiveText?start=";
+
+    @CheckForNull
+    private final String address;
+    @CheckForNull
+    private final String queueId;
+    @CheckForNull
+    private final URL buildUrl;
+
+    @CheckForNull
+    private final String queueItemApiUrl;
+    @CheckForNull
+    private final String cancelUrl;
+    @CheckForNull
+    private final String jobUrl;
+    @CheckForNull
+    private final String buildStatusApiUrl;
+    @CheckForNull
+    private final String stopUrl;
+    @CheckForNull
+    private final String consoleUrlPrefix;
+
+    RemoteBuildUrls(@CheckForNull String address, @CheckForNull String queueId, @CheckForNull URL buildUrl)
+    {
+        this.address = address;
+        this.queueId = queueId;
+        this.buildUrl = buildUrl;
+
+        String root = removeTrailingSlashes(address);
+        if (root != null && queueId != null) {
+            queueItemApiUrl = RemoteApi.getApiUrl(root + QUEUE_ITEM_PATH + queueId + "/", RemoteApi.QUEUE_ITEM);
+            cancelUrl = root + CANCEL_PATH + queueId;
+        } else {
+            queueItemApiUrl = null;
+            cancelUrl = null;
+        }
+
+        if (buildUrl != null) {
+            String build = buildUrl.toString();
+            if (!build.endsWith("/")) build += "/";
+            buildStatusApiUrl = RemoteApi.getApiUrl(build, RemoteApi.BUILD_STATUS);
+            stopUrl = build + "stop";
+            consoleUrlPrefix = build + CONSOLE_PATH;
+            jobUrl = getParentUrl(build);
+        } else {
+            buildStatusApiUrl = null;
+            stopUrl = null;
+            consoleUrlPrefix = null;
+            jobUrl = null;
+        }
+    }
+
+    /**
+     * @return true if these URLs belong to the given state of a remote build.
+     */
+    boolean isFor(@CheckForNull String address, @CheckForNull String queueId, @CheckForNull URL buildUrl)
+    {
+        // URL.equals() may resolve the host name, the build URL is only ever replaced anyway
+        return this.buildUrl == buildUrl && equals(this.queueId, queueId) && equals(this.address, address);
+    }
+
+    /**
+     * @return the API URL of the queue item, requesting {@link RemoteApi#QUEUE_ITEM}, or null if the
+     *         remote server address or the queue id are not known.
+     */
+    @CheckForNull
+    public String getQueueItemApiUrl()
+    {
+        return queueItemApiUrl;
+    }
+
+    /**
+     * @return the URL cancelling the queue item, or null if the remote server address or the queue id are not known.
+     */
+    @CheckForNull
+    public String getCancelUrl()
+    {
+        return cancelUrl;
+    }
+
+    /**
+     * @return the URL of the remote job, with a trailing slash, or null if the build URL is not known
+     *         or does not end with the build number.
+     */
+    @CheckForNull
+    public String getJobUrl()
+    {
+        return jobUrl;
+    }
+
+    /**
+     * @return the API URL of the remote build, requesting {@link RemoteApi#BUILD_STATUS}, or null if the
+     *         build URL is not known.
+     */
+    @CheckForNull
+    public String getBuildStatusApiUrl()
+    {
+        return buildStatusApiUrl;
+    }
+
+    /**
+     * @return the URL stopping the remote build, or null if the build URL is not known.
+     */
+    @CheckForNull
+    public String getStopUrl()
+    {
+        return stopUrl;
+    }
+
+    /**
+     * @param offset
+     *            the length of the console output already read.
+     * @return the URL of the progressive console output from the given offset, or null if the build URL is not known.
+     */
+    @CheckForNull
+    public String getConsoleUrl(long offset)
+    {
+        return consoleUrlPrefix == null ? null : consoleUrlPrefix + offset;
+    }
+
+    /**
+     * Builds the URL of a remote job.
+     *
+     * @param address
+     *            the address of the remote server.
+     * @param jobNameOrUrl
+     *            the full name of the job, with folders separated by <code>/</code>, or its URL.
+     * @return the URL of the job, without a trailing slash if built from the name.
+     * @throws AbortException
+     *            if the job is given by name and the address of the remote server is not known.
+     */
+    @Nonnull
+    public static String getJobUrl(@CheckForNull String address, @CheckForNull String jobNameOrUrl)
+                throws AbortException
+    {
+        if (isEmpty(jobNameOrUrl))
+            throw new IllegalArgumentException("Invalid job name/url: " + jobNameOrUrl);
+        String trimmed = jobNameOrUrl.trim();
+        if (FormValidationUtils.isURL(trimmed)) return trimmed;
+
+        String root = removeTrailingSlashes(address);
+        if (root == null) {
+            throw new AbortException(
+                        "The remote server address can not be empty, or it must be overridden on the job configuration.");
+        }
+        StringBuilder sb = new StringBuilder(root.length() + trimmed.length() * 2 + 16).append(root);
+        int start = 0;
+        while (start <= trimmed.length()) {
+            int end = trimmed.indexOf('/', start);
+            if (end < 0) end = trimmed.length();
+            if (end > start) {
+                sb.append("/job/").append(HttpHelper.encodeValue(trimmed.substring(start, end)));
+            }
+            start = end + 1;
+        }
+        return sb.toString();
+    }
+
+    @CheckForNull
+    private static String removeTrailingSlashes(@CheckForNull String address)
+    {
+        if (address == null) return null;
+        int end = address.length();
+        while (end > 0 && address.charAt(end - 1) == '/') end--;
+        return address.substring(0, end);
+    }
+
+    /**
+     * @return the URL one level above the given URL with a trailing slash, e.g. the job of a build, or null
+     *         if the last segment is not a build number.
+     */
+    @CheckForNull
+    private static String getParentUrl(@Nonnull String url)
+    {
+        int end = url.length() - 1;
+        int start = url.lastIndexOf('/', end - 1);
+        if (start < 0 || start + 1 == end) return null;
+        for (int i = start + 1; i < end; i++) {
+            if (!Character.isDigit(url.charAt(i))) return null;
+        }
+        return url.substring(0, start + 1);
+    }
+
+    private static boolean equals(@CheckForNull String a, @CheckForNull String b)
+    {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("RemoteBuildUrls [queueItem=%s, build=%s]", queueItemApiUrl, buildStatusApiUrl);
+    }
+
+}
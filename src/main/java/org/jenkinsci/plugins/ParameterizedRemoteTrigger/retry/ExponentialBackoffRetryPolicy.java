@@ -0,0 +1,162 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import hudson.Extension;
+
+/**
+ * Retries with exponentially growing delays and full jitter: the n-th retry waits a random time
+ * between 0 and <code>min(maxDelay, initialDelay * 2^(n-1))</code>. This spreads the retries of
+ * many builds instead of having all of them hit a recovering remote server at the same moment.
+ *
+ * If the server asks to slow down (429 or 503) with a <code>Retry-After</code> header, the retry
+ * waits at least that long, plus the jittered delay so the throttled builds do not come back together.
+ * A <code>Retry-After</code> longer than the maximum Retry-After is cut to it, so a misbehaving server
+ * cannot stall a build for hours.
+ *
+ * Connect errors (no response) and server errors (error response) have separate retry budgets.
+ */
+public class ExponentialBackoffRetryPolicy extends RetryPolicy {
+
+    private static final long serialVersionUID = 4457307391373547104L;
+
+    public static final int DEFAULT_INITIAL_DELAY = 1;
+    public static final int DEFAULT_MAX_DELAY = 60;
+    public static final int DEFAULT_MAX_RETRY_AFTER = 900;
+    public static final int DEFAULT_CONNECT_ERROR_RETRIES = 5;
+    public static final int DEFAULT_SERVER_ERROR_RETRIES = 5;
+
+    @Extension
+    public static final RetryPolicyDescriptor DESCRIPTOR = new ExponentialBackoffRetryPolicyDescriptor();
+
+    private int initialDelay;
+    private int maxDelay;
+    private int maxRetryAfter;
+    private int connectErrorRetries;
+    private int serverErrorRetries;
+
+    @DataBoundConstructor
+    public ExponentialBackoffRetryPolicy() {
+        this.initialDelay = DEFAULT_INITIAL_DELAY;
+        this.maxDelay = DEFAULT_MAX_DELAY;
+        this.maxRetryAfter = DEFAULT_MAX_RETRY_AFTER;
+        this.connectErrorRetries = DEFAULT_CONNECT_ERROR_RETRIES;
+        this.serverErrorRetries = DEFAULT_SERVER_ERROR_RETRIES;
+    }
+
+    /**
+     * @param initialDelay
+     *            the maximum delay of the first retry in seconds.
+     */
+    @DataBoundSetter
+    public void setInitialDelay(int initialDelay) {
+        this.initialDelay = Math.max(1, initialDelay);
+    }
+
+    public int getInitialDelay() {
+        return initialDelay;
+    }
+
+    /**
+     * @param maxDelay
+     *            the upper bound of the delay between two attempts in seconds.
+     */
+    @DataBoundSetter
+    public void setMaxDelay(int maxDelay) {
+        this.maxDelay = Math.max(1, maxDelay);
+    }
+
+    public int getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * @param maxRetryAfter
+     *            the upper bound of the <code>Retry-After</code> time honored in seconds.
+     */
+    @DataBoundSetter
+    public void setMaxRetryAfter(int maxRetryAfter) {
+        this.maxRetryAfter = Math.max(1, maxRetryAfter);
+    }
+
+    public int getMaxRetryAfter() {
+        return maxRetryAfter;
+    }
+
+    /**
+     * @param connectErrorRetries
+     *            how often a request is retried if no response was received.
+     */
+    @DataBoundSetter
+    public void setConnectErrorRetries(int connectErrorRetries) {
+        this.connectErrorRetries = Math.max(0, connectErrorRetries);
+    }
+
+    public int getConnectErrorRetries() {
+        return connectErrorRetries;
+    }
+
+    /**
+     * @param serverErrorRetries
+     *            how often a request is retried if the server answered with an error.
+     */
+    @DataBoundSetter
+    public void setServerErrorRetries(int serverErrorRetries) {
+        this.serverErrorRetries = Math.max(0, serverErrorRetries);
+    }
+
+    public int getServerErrorRetries() {
+        return serverErrorRetries;
+    }
+
+    @Override
+    public long getRetryDelay(@Nonnull RetryState state) {
+        int retry;
+        if (state.isConnectError()) {
+            retry = state.getConnectErrors();
+            if (retry > connectErrorRetries) return -1;
+        } else {
+            retry = state.getServerErrors();
+            if (retry > serverErrorRetries) return -1;
+        }
+
+        long maxDelayMillis = TimeUnit.SECONDS.toMillis(Math.max(initialDelay, maxDelay));
+        long backoff = Math.min(maxDelayMillis, TimeUnit.SECONDS.toMillis(initialDelay) << Math.min(retry - 1, 30));
+        long delay = ThreadLocalRandom.current().nextLong(backoff + 1);
+
+        if (state.isThrottled()) {
+            long retryAfter = state.getRetryAfter();
+            if (retryAfter > 0) delay += Math.min(retryAfter, TimeUnit.SECONDS.toMillis(maxRetryAfter));
+        }
+        return delay;
+    }
+
+    /*
+     * see https://wiki.jenkins.io/display/JENKINS/Hint+on+retaining+backward+compatibility
+     */
+    protected Object readResolve() {
+        if (maxRetryAfter <= 0) maxRetryAfter = DEFAULT_MAX_RETRY_AFTER;
+        return this;
+    }
+
+    @Override
+    public RetryPolicyDescriptor getDescriptor() {
+        return DESCRIPTOR;
+    }
+
+    @Symbol("ExponentialBackoff")
+    public static class ExponentialBackoffRetryPolicyDescriptor extends RetryPolicyDescriptor {
+        @Override
+        public String getDisplayName() {
+            return "Exponential backoff with jitter";
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.retry;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import hudson.Extension;
+
+/**
+ * Retries after a fixed delay, up to a fixed number of times, regardless of the kind of failure.
+ * That's how failed requests were retried before the retry policy became configurable.
+ */
+public class FixedDelayRetryPolicy extends RetryPolicy {
+
+    private static final long serialVersionUID = -1520366213717945112L;
+
+    public static final int DEFAULT_DELAY = 10;
+    public static final int DEFAULT_RETRIES = 5;
+
+    @Extension
+    public static final RetryPolicyDescriptor DESCRIPTOR = new FixedDelayRetryPolicyDescriptor();
+
+    private int delay;
+    private int retries;
+
+    @DataBoundConstructor
+    public FixedDelayRetryPolicy() {
+        this.delay = DEFAULT_DELAY;
+        this.retries = DEFAULT_RETRIES;
+    }
+
+    /**
+     * @param delay
+     *            the delay between two attempts in seconds.
+     */
+    @DataBoundSetter
+    public void setDelay(int delay) {
+        this.delay = Math.max(0, delay);
+    }
+
+    public int getDelay() {
+        return delay;
+    }
+
+    /**
+     * @param retries
+     *            how often a failed request is retried.
+     */
+    @DataBoundSetter
+    public void setRetries(int retries) {
+        this.retries = Math.max(0, retries);
+    }
+
+    public int getRetries() {
+        return retries;
+    }
+
+    @Override
+    public long getRetryDelay(@Nonnull RetryState state) {
+        if (state.getFailures() > retries) return -1;
+        return TimeUnit.SECONDS.toMillis(delay);
+    }
+
+    @Override
+    public RetryPolicyDescriptor getDescriptor() {
+        return DESCRIPTOR;
+    }
+
+    @Symbol("FixedDelay")
+    public static class FixedDelayRetryPolicyDescriptor extends RetryPolicyDescriptor {
+        @Override
+        public String getDisplayName() {
+            return "Fixed delay";
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.retry;
+
+import java.io.Serializable;
+
+import javax.annotation.Nonnull;
+
+import hudson.DescriptorExtensionList;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import jenkins.model.Jenkins;
+
+/**
+ * Decides if and when a failed request to a remote Jenkins server is sent again.
+ *
+ * The policy is configured per remote server, see
+ * {@link org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteJenkinsServer#getRetryPolicy()}.
+ */
+public abstract class RetryPolicy extends AbstractDescribableImpl<RetryPolicy> implements Serializable, Cloneable {
+
+    private static final long serialVersionUID = -6311578632290713548L;
+
+    private static final DescriptorExtensionList<RetryPolicy, RetryPolicyDescriptor> ALL = DescriptorExtensionList
+        .createDescriptorList(Jenkins.getInstance(), RetryPolicy.class);
+
+    public static DescriptorExtensionList<RetryPolicy, RetryPolicyDescriptor> all()
+    {
+        return ALL;
+    }
+
+    public static abstract class RetryPolicyDescriptor extends Descriptor<RetryPolicy>
+    {
+    }
+
+    /**
+     * Called after a request failed, to decide if it shall be sent again.
+     *
+     * @param state
+     *            the failures of the request so far, including the one that just happened.
+     * @return the time to wait before the next attempt in milliseconds, or a negative value to give up.
+     */
+    public abstract long getRetryDelay(@Nonnull RetryState state);
+
+    @Override
+    public RetryPolicy clone() throws CloneNotSupportedException {
+        return (RetryPolicy)super.clone();
+    }
+
+}
@@ -0,0 +1,140 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.retry;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * The failures of one request so far, handed to the {@link RetryPolicy}.
+ *
+ * Failures are counted separately for connect errors, where no response was received at all,
+ * and server errors, where the remote server answered with an error status.
+ */
+public final class RetryState
+{
+
+    private int connectErrors;
+    private int serverErrors;
+    private int responseCode;
+    @CheckForNull
+    private Map<String, List<String>> responseHeader;
+
+    /**
+     * Records a failed attempt.
+     *
+     * @param responseCode
+     *            the response code, 0 if no response was received.
+     * @param responseHeader
+     *            the header of the response, null if no response was received.
+     */
+    public void recordFailure(int responseCode, @CheckForNull Map<String, List<String>> responseHeader)
+    {
+        this.responseCode = responseCode;
+        this.responseHeader = responseHeader;
+        if (responseCode == 0) {
+            connectErrors++;
+        } else {
+            serverErrors++;
+        }
+    }
+
+    /**
+     * @return the number of attempts which failed without a response.
+     */
+    public int getConnectErrors()
+    {
+        return connectErrors;
+    }
+
+    /**
+     * @return the number of attempts which failed with an error response.
+     */
+    public int getServerErrors()
+    {
+        return serverErrors;
+    }
+
+    /**
+     * @return the number of failed attempts.
+     */
+    public int getFailures()
+    {
+        return connectErrors + serverErrors;
+    }
+
+    /**
+     * @return the response code of the last failed attempt, 0 if no response was received.
+     */
+    public int getResponseCode()
+    {
+        return responseCode;
+    }
+
+    /**
+     * @return true if the last attempt failed without a response.
+     */
+    public boolean isConnectError()
+    {
+        return responseCode == 0;
+    }
+
+    /**
+     * @return true if the remote server asked to slow down with the last response
+     *         (429 - Too Many Requests or 503 - Service Unavailable).
+     */
+    public boolean isThrottled()
+    {
+        return responseCode == 429 || responseCode == 503;
+    }
+
+    /**
+     * @return the time the last response asked to wait with its <code>Retry-After</code> header
+     *         in milliseconds, or -1 if it did not.
+     */
+    public long getRetryAfter()
+    {
+        return parseRetryAfter(getHeaderValue("Retry-After"), System.currentTimeMillis());
+    }
+
+    /**
+     * Parses the value of a <code>Retry-After</code> header, which is either a number of seconds
+     * or an HTTP date.
+     *
+     * @return the time to wait in milliseconds, or -1 if the value is missing or malformed.
+     */
+    static long parseRetryAfter(@CheckForNull String value, long now)
+    {
+        if (value == null) return -1;
+        value = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(value)) * 1000;
+        }
+        catch (NumberFormatException e) {
+            // not a number of seconds, try an HTTP date
+        }
+        try {
+            long date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, date - now);
+        }
+        catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    @CheckForNull
+    private String getHeaderValue(String name)
+    {
+        if (responseHeader == null) return null;
+        for (Map.Entry<String, List<String>> entry : responseHeader.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey()) && entry.getValue() != null && !entry.getValue().isEmpty()) {
+                return entry.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+}
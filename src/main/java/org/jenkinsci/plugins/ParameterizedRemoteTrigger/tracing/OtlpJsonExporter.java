@@ -0,0 +1,269 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Exports ended spans in batches in the OTLP/JSON format, either to an OTLP/HTTP collector or
+ * appended to a file with one <code>ExportTraceServiceRequest</code> document per line.
+ *
+ * Spans are exported from a daemon thread every {@value #FLUSH_INTERVAL_SECONDS} seconds, so the
+ * builds never wait for the export. If the export is slower than the builds, spans beyond
+ * {@value #MAX_QUEUED_SPANS} are dropped.
+ */
+class OtlpJsonExporter
+{
+
+    private static final Logger LOGGER = Logger.getLogger(OtlpJsonExporter.class.getName());
+
+    static final int FLUSH_INTERVAL_SECONDS = 5;
+    static final int MAX_QUEUED_SPANS = 10000;
+    private static final int MAX_BATCH_SIZE = 512;
+    private static final int TIMEOUT_MILLIS = 10000;
+
+    static final String SERVICE_NAME = "jenkins";
+    static final String SCOPE_NAME = "org.jenkinsci.plugins.ParameterizedRemoteTrigger";
+
+    private final String target;
+    private final ConcurrentLinkedQueue<Span> queue = new ConcurrentLinkedQueue<Span>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ScheduledExecutorService executor;
+
+    OtlpJsonExporter(@Nonnull String target)
+    {
+        this.target = target;
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r)
+            {
+                Thread thread = new Thread(r, "Remote trigger trace export");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run()
+            {
+                flush();
+            }
+        }, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Nonnull
+    String getTarget()
+    {
+        return target;
+    }
+
+    void add(@Nonnull Span span)
+    {
+        if (queued.incrementAndGet() > MAX_QUEUED_SPANS) {
+            queued.decrementAndGet();
+            LOGGER.log(Level.FINE, "Trace export queue full, dropping {0}", span);
+            return;
+        }
+        queue.add(span);
+    }
+
+    /**
+     * Exports all queued spans.
+     */
+    synchronized void flush()
+    {
+        List<Span> batch = new ArrayList<Span>();
+        Span span;
+        while ((span = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(span);
+            if (batch.size() == MAX_BATCH_SIZE) {
+                export(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) export(batch);
+    }
+
+    /**
+     * Exports the queued spans a last time and stops the export thread.
+     */
+    void shutdown()
+    {
+        executor.execute(new Runnable() {
+            @Override
+            public void run()
+            {
+                flush();
+            }
+        });
+        executor.shutdown();
+    }
+
+    private void export(@Nonnull List<Span> spans)
+    {
+        byte[] json = toJson(spans).getBytes(StandardCharsets.UTF_8);
+        try {
+            if (target.startsWith("http://") || target.startsWith("https://")) {
+                post(json);
+            } else {
+                append(json);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to export " + spans.size() + " spans to " + target, e);
+        }
+    }
+
+    private void post(@Nonnull byte[] json) throws IOException
+    {
+        HttpURLConnection conn = (HttpURLConnection) new URL(target).openConnection();
+        try {
+            conn.setConnectTimeout(TIMEOUT_MILLIS);
+            conn.setReadTimeout(TIMEOUT_MILLIS);
+            conn.setRequestMethod("POST");
+            conn.setRequestProperty("Content-Type", "application/json");
+            conn.setDoOutput(true);
+            conn.setFixedLengthStreamingMode(json.length);
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(json);
+            }
+            int responseCode = conn.getResponseCode();
+            if (responseCode < 200 || responseCode >= 300) {
+                throw new IOException("Collector responded with status " + responseCode);
+            }
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    private void append(@Nonnull byte[] json) throws IOException
+    {
+        File file = new File(target);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        try (OutputStream out = new FileOutputStream(file, true)) {
+            out.write(json);
+            out.write('\n');
+        }
+    }
+
+    /**
+     * @return an OTLP/JSON <code>ExportTraceServiceRequest</code> with the given spans.
+     */
+    @Nonnull
+    static String toJson(@Nonnull List<Span> spans)
+    {
+        StringBuilder sb = new StringBuilder(256 + spans.size() * 384);
+        sb.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        appendAttribute(sb, "service.name", SERVICE_NAME);
+        sb.append("]},\"scopeSpans\":[{\"scope\":{\"name\":");
+        appendString(sb, SCOPE_NAME);
+        sb.append("},\"spans\":[");
+        for (int i = 0; i < spans.size(); i++) {
+            if (i > 0) sb.append(',');
+            appendSpan(sb, spans.get(i));
+        }
+        sb.append("]}]}]}");
+        return sb.toString();
+    }
+
+    private static void appendSpan(StringBuilder sb, Span span)
+    {
+        sb.append("{\"traceId\":\"").append(span.getTraceId());
+        sb.append("\",\"spanId\":\"").append(span.getSpanId()).append('"');
+        if (span.getParentSpanId() != null) {
+            sb.append(",\"parentSpanId\":\"").append(span.getParentSpanId()).append('"');
+        }
+        sb.append(",\"name\":");
+        appendString(sb, span.getName());
+        sb.append(",\"kind\":").append(span.getKind().otlpValue);
+        // 64 bit integers are strings in OTLP/JSON
+        sb.append(",\"startTimeUnixNano\":\"").append(span.getStartEpochNanos());
+        sb.append("\",\"endTimeUnixNano\":\"").append(span.getEndEpochNanos());
+        sb.append("\",\"attributes\":[");
+        boolean first = true;
+        for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            appendAttribute(sb, attribute.getKey(), attribute.getValue());
+        }
+        sb.append(']');
+        String errorMessage = span.getErrorMessage();
+        if (errorMessage != null) {
+            sb.append(",\"status\":{\"code\":2,\"message\":");
+            appendString(sb, errorMessage);
+            sb.append('}');
+        }
+        sb.append('}');
+    }
+
+    private static void appendAttribute(StringBuilder sb, String key, Object value)
+    {
+        sb.append("{\"key\":");
+        appendString(sb, key);
+        sb.append(",\"value\":{");
+        if (value instanceof Boolean) {
+            sb.append("\"boolValue\":").append(value);
+        } else if (value instanceof Integer || value instanceof Long) {
+            sb.append("\"intValue\":\"").append(value).append('"');
+        } else if (value instanceof Double || value instanceof Float) {
+            sb.append("\"doubleValue\":").append(value);
+        } else {
+            sb.append("\"stringValue\":");
+            appendString(sb, String.valueOf(value));
+        }
+        sb.append("}}");
+    }
+
+    private static void appendString(StringBuilder sb, String value)
+    {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+}
@@ -0,0 +1,212 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * A timed operation of a trace, e.g. a trigger, an HTTP request or a retry sleep.
+ * Spans are created by the {@link Tracer} and exported once they are ended.
+ *
+ * If tracing is disabled, the {@link #NOOP} span is used, which ignores everything.
+ */
+public class Span
+{
+
+    /**
+     * The span used while tracing is disabled.
+     */
+    public static final Span NOOP = new Span();
+
+    /**
+     * The kinds of spans, with the numbers used by OTLP.
+     */
+    public enum Kind
+    {
+        INTERNAL(1), CLIENT(3);
+
+        final int otlpValue;
+
+        Kind(int otlpValue)
+        {
+            this.otlpValue = otlpValue;
+        }
+    }
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final Kind kind;
+    private final long startEpochNanos;
+    private final long startNanoTime;
+    private final Map<String, Object> attributes;
+    private long endEpochNanos;
+    private String errorMessage;
+    private final Tracer tracer;
+
+    private Span()
+    {
+        this.traceId = null;
+        this.spanId = null;
+        this.parentSpanId = null;
+        this.name = "";
+        this.kind = Kind.INTERNAL;
+        this.startEpochNanos = 0;
+        this.startNanoTime = 0;
+        this.attributes = Collections.emptyMap();
+        this.tracer = null;
+    }
+
+    Span(@Nonnull Tracer tracer, @Nonnull String name, @Nonnull Kind kind, @CheckForNull Span parent)
+    {
+        this.tracer = tracer;
+        this.traceId = (parent != null && parent.isRecording()) ? parent.traceId : randomHex(16);
+        this.parentSpanId = (parent != null && parent.isRecording()) ? parent.spanId : null;
+        this.spanId = randomHex(8);
+        this.name = name;
+        this.kind = kind;
+        this.startEpochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        this.startNanoTime = System.nanoTime();
+        this.attributes = new LinkedHashMap<String, Object>();
+    }
+
+    /**
+     * @return false for the {@link #NOOP} span.
+     */
+    public boolean isRecording()
+    {
+        return tracer != null;
+    }
+
+    /**
+     * @param value
+     *            a String, Boolean, Long, Integer or Double; null values are ignored.
+     * @return this span.
+     */
+    @Nonnull
+    public Span setAttribute(@Nonnull String key, @CheckForNull Object value)
+    {
+        if (isRecording() && value != null) {
+            synchronized (this) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Marks the span as failed.
+     */
+    @Nonnull
+    public Span recordError(@Nonnull Throwable error)
+    {
+        if (isRecording()) {
+            synchronized (this) {
+                errorMessage = error.getClass().getSimpleName() + ": " + error.getMessage();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Ends the span and hands it over for export. Only the first call has an effect.
+     */
+    public void end()
+    {
+        if (!isRecording()) return;
+        synchronized (this) {
+            if (endEpochNanos != 0) return;
+            endEpochNanos = startEpochNanos + (System.nanoTime() - startNanoTime);
+        }
+        tracer.export(this);
+    }
+
+    /**
+     * @return the W3C trace context of this span, to be sent in the <code>traceparent</code> header,
+     *         or null if tracing is disabled.
+     */
+    @CheckForNull
+    public String getTraceParent()
+    {
+        if (!isRecording()) return null;
+        return "00-" + traceId + "-" + spanId + "-01";
+    }
+
+    @CheckForNull
+    public String getTraceId()
+    {
+        return traceId;
+    }
+
+    @CheckForNull
+    public String getSpanId()
+    {
+        return spanId;
+    }
+
+    @CheckForNull
+    public String getParentSpanId()
+    {
+        return parentSpanId;
+    }
+
+    @Nonnull
+    public String getName()
+    {
+        return name;
+    }
+
+    @Nonnull
+    Kind getKind()
+    {
+        return kind;
+    }
+
+    long getStartEpochNanos()
+    {
+        return startEpochNanos;
+    }
+
+    synchronized long getEndEpochNanos()
+    {
+        return endEpochNanos;
+    }
+
+    @Nonnull
+    synchronized Map<String, Object> getAttributes()
+    {
+        return new LinkedHashMap<String, Object>(attributes);
+    }
+
+    @CheckForNull
+    synchronized String getErrorMessage()
+    {
+        return errorMessage;
+    }
+
+    private static String randomHex(int bytes)
+    {
+        StringBuilder sb = new StringBuilder(bytes * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < bytes; i++) {
+            int b = random.nextInt(256);
+            // all zero ids are invalid, so the first byte is never zero
+            if (i == 0 && b == 0) b = 1;
+            sb.append(Character.forDigit(b >> 4, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString()
+    {
+        return isRecording() ? String.format("%s [%s/%s]", name, traceId, spanId) : "NOOP";
+    }
+
+}
@@ -0,0 +1,128 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Creates the spans of the traces of triggering and waiting for remote builds.
+ *
+ * Each trigger and each wait for a remote build is a trace. Its HTTP requests, cache lookups
+ * and retry sleeps are child spans of the span active on the current thread, see
+ * {@link #activate(Span)}. Tracing is disabled unless an export target is configured in the
+ * global configuration, then all spans are the {@link Span#NOOP} span.
+ */
+public final class Tracer
+{
+
+    private static final Logger LOGGER = Logger.getLogger(Tracer.class.getName());
+
+    private static final Tracer INSTANCE = new Tracer();
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<Span>();
+
+    @CheckForNull
+    private volatile OtlpJsonExporter exporter;
+
+    private Tracer()
+    {
+    }
+
+    /**
+     * Restores the previously active span when closed.
+     */
+    public interface Scope extends AutoCloseable
+    {
+        @Override
+        void close();
+    }
+
+    /**
+     * Enables tracing, or disables it if the target is empty.
+     *
+     * @param target
+     *            the URL of an OTLP/HTTP collector (e.g. <code>http://localhost:4318/v1/traces</code>),
+     *            or the path of a file the traces are appended to, one OTLP/JSON document per line.
+     */
+    public static synchronized void configure(@CheckForNull String target)
+    {
+        OtlpJsonExporter previous = INSTANCE.exporter;
+        String trimmed = StringUtils.trimToNull(target);
+        if (previous != null && previous.getTarget().equals(trimmed)) return;
+        INSTANCE.exporter = (trimmed == null) ? null : new OtlpJsonExporter(trimmed);
+        if (previous != null) previous.shutdown();
+        LOGGER.log(Level.FINE, "Trace export: {0}", trimmed);
+    }
+
+    public static boolean isEnabled()
+    {
+        return INSTANCE.exporter != null;
+    }
+
+    /**
+     * Starts a span as child of the span active on the current thread, or as a new trace.
+     */
+    @Nonnull
+    public static Span startSpan(@Nonnull String name)
+    {
+        return startSpan(name, Span.Kind.INTERNAL, current());
+    }
+
+    /**
+     * Starts a span as child of the given parent span, or as a new trace if the parent is null.
+     */
+    @Nonnull
+    public static Span startSpan(@Nonnull String name, @Nonnull Span.Kind kind, @CheckForNull Span parent)
+    {
+        if (!isEnabled()) return Span.NOOP;
+        return new Span(INSTANCE, name, kind, parent);
+    }
+
+    /**
+     * @return the span active on the current thread, or null.
+     */
+    @CheckForNull
+    public static Span current()
+    {
+        Span span = CURRENT.get();
+        return (span == null || !span.isRecording()) ? null : span;
+    }
+
+    /**
+     * Makes the given span the parent of the spans started on the current thread, until the scope is closed.
+     */
+    @Nonnull
+    public static Scope activate(@CheckForNull final Span span)
+    {
+        final Span previous = CURRENT.get();
+        CURRENT.set(span);
+        return new Scope() {
+            @Override
+            public void close()
+            {
+                if (previous == null) CURRENT.remove();
+                else CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Exports all ended spans now, for tests.
+     */
+    static void flush()
+    {
+        OtlpJsonExporter current = INSTANCE.exporter;
+        if (current != null) current.flush();
+    }
+
+    void export(@Nonnull Span span)
+    {
+        OtlpJsonExporter current = exporter;
+        if (current != null) current.add(span);
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import net.sf.json.JSONObject;
+
+/**
+ * The last response of a conditional GET request, kept to answer the next request for the
+ * same URL if the remote resource did not change.
+ *
+ * Holds the validators sent by the remote server (<code>ETag</code>, <code>Last-Modified</code>),
+ * if any, and a hash of the response body, which is used instead if the remote server does not
+ * send validators. Bodies too large to be hashed have no hash.
+ */
+public final class CachedResponse
+{
+
+    @CheckForNull
+    private final String etag;
+    @CheckForNull
+    private final String lastModified;
+    @CheckForNull
+    private final String bodyHash;
+    @Nonnull
+    private final JSONObject body;
+
+    public CachedResponse(@CheckForNull String etag, @CheckForNull String lastModified, @CheckForNull String bodyHash,
+                @Nonnull JSONObject body)
+    {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.bodyHash = bodyHash;
+        this.body = body;
+    }
+
+    @CheckForNull
+    public String getEtag()
+    {
+        return etag;
+    }
+
+    @CheckForNull
+    public String getLastModified()
+    {
+        return lastModified;
+    }
+
+    @CheckForNull
+    public String getBodyHash()
+    {
+        return bodyHash;
+    }
+
+    /**
+     * @return the parsed body. It is shared by all requests answered from this entry and must not be modified.
+     */
+    @Nonnull
+    public JSONObject getBody()
+    {
+        return body;
+    }
+
+}
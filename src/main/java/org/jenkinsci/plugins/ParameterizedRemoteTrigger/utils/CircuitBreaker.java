@@ -0,0 +1,239 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A circuit breaker per remote host, to stop sending requests to a host that is down.
+ *
+ * While the circuit is <b>closed</b> all requests pass and their outcome is recorded in a rolling
+ * window. If, with enough requests in the window, the rate of failed requests (no response, 429 or 5xx)
+ * or of slow requests (measured until the response header arrived) exceeds its threshold, the circuit
+ * <b>opens</b>: requests are rejected right away without connecting. After the open time a single probe request is let through (<b>half-open</b>).
+ * If it succeeds the circuit closes again, otherwise it stays open for another open time.
+ *
+ * The thresholds can be adjusted with system properties prefixed with
+ * <code>org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.CircuitBreaker.</code>:
+ * <code>windowSeconds</code> (60), <code>minimumRequests</code> (10), <code>failureRatePercent</code> (50),
+ * <code>slowCallSeconds</code> (5), <code>slowCallRatePercent</code> (80) and <code>openSeconds</code> (30).
+ */
+public final class CircuitBreaker
+{
+
+    public enum State
+    {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(CircuitBreaker.class.getName());
+
+    private static final String PREFIX = CircuitBreaker.class.getName() + ".";
+    private static final int BUCKETS = 10;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(Math.max(BUCKETS, Integer.getInteger(PREFIX + "windowSeconds", 60)));
+    private static final long BUCKET_NANOS = WINDOW_NANOS / BUCKETS;
+    private static final int MINIMUM_REQUESTS = Math.max(1, Integer.getInteger(PREFIX + "minimumRequests", 10));
+    private static final int FAILURE_RATE_PERCENT = Integer.getInteger(PREFIX + "failureRatePercent", 50);
+    private static final long SLOW_CALL_NANOS = TimeUnit.SECONDS.toNanos(Integer.getInteger(PREFIX + "slowCallSeconds", 5));
+    private static final int SLOW_CALL_RATE_PERCENT = Integer.getInteger(PREFIX + "slowCallRatePercent", 80);
+    private static final long OPEN_NANOS = TimeUnit.SECONDS.toNanos(Math.max(1, Integer.getInteger(PREFIX + "openSeconds", 30)));
+
+    private static final Map<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<String, CircuitBreaker>();
+
+    private final String address;
+
+    // all fields below are guarded by this
+    private final long[] bucketStarts = new long[BUCKETS];
+    private final int[] requests = new int[BUCKETS];
+    private final int[] failures = new int[BUCKETS];
+    private final int[] slowCalls = new int[BUCKETS];
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probing;
+    private long rejected;
+
+    private CircuitBreaker(@Nonnull String address)
+    {
+        this.address = address;
+    }
+
+    /**
+     * @param address
+     *            the remote host, see {@link HostConcurrencyLimiter#getHost(java.net.URL)}.
+     * @return the circuit breaker of the host.
+     */
+    @Nonnull
+    public static CircuitBreaker forAddress(@Nonnull String address)
+    {
+        String key = address.endsWith("/") ? address.substring(0, address.length() - 1) : address;
+        CircuitBreaker breaker = BREAKERS.get(key);
+        if (breaker == null) {
+            CircuitBreaker created = new CircuitBreaker(key);
+            breaker = BREAKERS.putIfAbsent(key, created);
+            if (breaker == null) breaker = created;
+        }
+        return breaker;
+    }
+
+    /**
+     * @return the state of all circuit breakers, sorted by address.
+     */
+    @Nonnull
+    public static List<String> getStates()
+    {
+        List<String> states = new ArrayList<String>();
+        for (CircuitBreaker breaker : new ConcurrentSkipListMap<String, CircuitBreaker>(BREAKERS).values()) {
+            states.add(breaker.toString());
+        }
+        return states;
+    }
+
+    /**
+     * Asks for permission to send a request.
+     *
+     * @return true if the request may be sent, false if the circuit is open and the request has to be rejected.
+     *         Each permitted request has to be followed by a call to {@link #record(boolean, long)}.
+     */
+    public synchronized boolean tryAcquire()
+    {
+        long now = System.nanoTime();
+        if (state == State.OPEN && now - openedAt >= OPEN_NANOS) {
+            state = State.HALF_OPEN;
+            probing = false;
+        }
+        if (state == State.CLOSED) return true;
+        if (state == State.HALF_OPEN && !probing) {
+            // let a single request probe if the host is back
+            probing = true;
+            return true;
+        }
+        rejected++;
+        return false;
+    }
+
+    /**
+     * Records the outcome of a permitted request.
+     *
+     * @param failed
+     *            true if the request failed because of the host (no response, 429 or 5xx).
+     * @param elapsedNanos
+     *            the time until the response header arrived, or until the request failed.
+     *            Uploads of the request body and downloads of the response body are not included.
+     */
+    public synchronized void record(boolean failed, long elapsedNanos)
+    {
+        long now = System.nanoTime();
+        boolean slow = elapsedNanos >= SLOW_CALL_NANOS;
+        if (state == State.HALF_OPEN) {
+            probing = false;
+            if (failed || slow) {
+                open(now, "the probe request " + (failed ? "failed" : "was slow"));
+            } else {
+                state = State.CLOSED;
+                clearWindow();
+                LOGGER.log(Level.INFO, "Circuit breaker of {0} closed", address);
+            }
+            return;
+        }
+        if (state != State.CLOSED) return; // completed after the circuit opened
+
+        int bucket = getBucket(now);
+        requests[bucket]++;
+        if (failed) failures[bucket]++;
+        if (slow) slowCalls[bucket]++;
+
+        int totalRequests = sum(requests, now);
+        if (totalRequests < MINIMUM_REQUESTS) return;
+        int totalFailures = sum(failures, now);
+        int totalSlowCalls = sum(slowCalls, now);
+        if (totalFailures * 100 >= totalRequests * FAILURE_RATE_PERCENT) {
+            open(now, String.format("%d of %d requests failed", totalFailures, totalRequests));
+        } else if (totalSlowCalls * 100 >= totalRequests * SLOW_CALL_RATE_PERCENT) {
+            open(now, String.format("%d of %d requests were slow", totalSlowCalls, totalRequests));
+        }
+    }
+
+    /**
+     * @return the time a rejected request should wait before asking again, in milliseconds:
+     *         until the open circuit lets a probe request through, or until a running probe request
+     *         can be expected to be done. 0 if the circuit is closed.
+     */
+    public synchronized long getRemainingOpenMillis()
+    {
+        if (state == State.OPEN) {
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(OPEN_NANOS - (System.nanoTime() - openedAt)));
+        }
+        return state == State.HALF_OPEN && probing ? TimeUnit.NANOSECONDS.toMillis(SLOW_CALL_NANOS) : 0;
+    }
+
+    public synchronized State getState()
+    {
+        return state;
+    }
+
+    @Nonnull
+    public String getAddress()
+    {
+        return address;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        long now = System.nanoTime();
+        return String.format("%s: %s, %d of %d requests failed and %d were slow in the last %d seconds, %d rejected",
+                    address, state, sum(failures, now), sum(requests, now), sum(slowCalls, now),
+                    TimeUnit.NANOSECONDS.toSeconds(WINDOW_NANOS), rejected);
+    }
+
+    private void open(long now, String reason)
+    {
+        state = State.OPEN;
+        openedAt = now;
+        clearWindow();
+        LOGGER.log(Level.WARNING, "Circuit breaker of {0} opened for {1} seconds: {2}",
+                    new Object[] { address, TimeUnit.NANOSECONDS.toSeconds(OPEN_NANOS), reason });
+    }
+
+    /**
+     * @return the index of the bucket of the current time slot, reset if it still holds an older slot.
+     */
+    private int getBucket(long now)
+    {
+        long slotStart = now - Math.floorMod(now, BUCKET_NANOS);
+        int bucket = (int) Math.floorMod(Math.floorDiv(now, BUCKET_NANOS), (long) BUCKETS);
+        if (bucketStarts[bucket] != slotStart) {
+            bucketStarts[bucket] = slotStart;
+            requests[bucket] = 0;
+            failures[bucket] = 0;
+            slowCalls[bucket] = 0;
+        }
+        return bucket;
+    }
+
+    private int sum(int[] counts, long now)
+    {
+        int sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (now - bucketStarts[i] < WINDOW_NANOS) sum += counts[i];
+        }
+        return sum;
+    }
+
+    private void clearWindow()
+    {
+        for (int i = 0; i < BUCKETS; i++) {
+            requests[i] = 0;
+            failures[i] = 0;
+            slowCalls[i] = 0;
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.net.HttpURLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.apache.commons.codec.binary.Hex;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.Auth2;
+
+import net.sf.json.JSONObject;
+
+/**
+ * Sends GET requests for status and metadata conditionally, so that an unchanged remote
+ * resource is neither transferred nor parsed again.
+ *
+ * The last response per URL and user is kept in the response cache. If the remote server sent
+ * an <code>ETag</code> or <code>Last-Modified</code> header, the next request carries
+ * <code>If-None-Match</code> / <code>If-Modified-Since</code> and a <code>304 Not Modified</code>
+ * response is answered from the cache. The remote API of Jenkins usually does not send validators,
+ * so such responses are still transferred. Their body, small thanks to the <code>tree</code> projection,
+ * is buffered and hashed first, and an unchanged body keeps the cached JSON object without being parsed.
+ *
+ * All conditional requests are sent with <code>Cache-Control: no-cache</code>, so that caching
+ * proxies revalidate them instead of answering with a stale status.
+ */
+final class ConditionalGet
+{
+
+    /**
+     * Bodies up to this size are hashed before they are parsed, larger ones are parsed from the stream.
+     */
+    static final int MAX_HASHED_BODY = 1024 * 1024;
+
+    private ConditionalGet()
+    {
+    }
+
+    /**
+     * The cached response depends on the credentials used and on the fields kept of it.
+     */
+    @Nonnull
+    static String getCacheKey(@Nonnull BuildContext context, @Nonnull String urlString,
+                @CheckForNull Auth2 overrideAuth, @Nonnull JsonProjection projection)
+    {
+        return CrumbManager.getCacheKey(context, urlString, overrideAuth) + "#" + projection;
+    }
+
+    /**
+     * Adds the conditional headers for the cached response to the request.
+     */
+    static void addConditionalHeaders(@Nonnull HttpURLConnection connection, @CheckForNull CachedResponse cached)
+    {
+        connection.setRequestProperty("Cache-Control", "no-cache");
+        if (cached == null) return;
+        if (cached.getEtag() != null) connection.setRequestProperty("If-None-Match", cached.getEtag());
+        if (cached.getLastModified() != null) connection.setRequestProperty("If-Modified-Since", cached.getLastModified());
+    }
+
+    /**
+     * Reads the JSON body of a successful response and caches the response for the next request.
+     * The body is buffered and hashed first, so an unchanged body returns the cached JSON object
+     * without parsing it again. A body larger than {@link #MAX_HASHED_BODY} is parsed from the
+     * stream instead and not hashed.
+     *
+     * @return the JSON object, or null if the response is not a JSON object.
+     */
+    @CheckForNull
+    static JSONObject readJsonObject(@Nonnull HttpURLConnection connection, @Nonnull String cacheKey,
+                @CheckForNull CachedResponse cached, @Nonnull JsonProjection projection) throws IOException
+    {
+        InputStream is = getInputStream(connection);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        byte[] chunk = new byte[8192];
+        int read = 0;
+        while (buffer.size() <= MAX_HASHED_BODY && (read = is.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        String etag = connection.getHeaderField("ETag");
+        String lastModified = connection.getHeaderField("Last-Modified");
+        TtlCache<String, CachedResponse> cache = DropCachePeriodicWork.getResponseCache();
+
+        String bodyHash = null;
+        JSONObject body;
+        if (read == -1) {
+            byte[] bytes = buffer.toByteArray();
+            bodyHash = new String(Hex.encodeHex(newDigest().digest(bytes)));
+            if (cached != null && bodyHash.equals(cached.getBodyHash())) {
+                // unchanged, the cached object is still valid
+                cache.put(cacheKey, new CachedResponse(etag, lastModified, bodyHash, cached.getBody()));
+                return cached.getBody();
+            }
+            body = StreamingJsonParser.parseObject(new InputStreamReader(new ByteArrayInputStream(bytes), "UTF-8"),
+                        projection);
+        } else {
+            // too large to buffer, parse the rest straight from the stream
+            InputStream rest = new SequenceInputStream(new ByteArrayInputStream(buffer.toByteArray()), is);
+            body = StreamingJsonParser.parseObject(new InputStreamReader(rest, "UTF-8"), projection);
+        }
+        if (body == null) {
+            cache.invalidate(cacheKey);
+        } else {
+            cache.put(cacheKey, new CachedResponse(etag, lastModified, bodyHash, body));
+        }
+        return body;
+    }
+
+    /**
+     * @return the body of the response, the stream is closed when releasing the connection.
+     */
+    @Nonnull
+    private static InputStream getInputStream(HttpURLConnection connection) throws IOException
+    {
+        InputStream is;
+        try {
+            is = connection.getInputStream();
+        }
+        catch (FileNotFoundException e) {
+            is = connection.getErrorStream();
+        }
+        return is != null ? is : new ByteArrayInputStream(new byte[0]);
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
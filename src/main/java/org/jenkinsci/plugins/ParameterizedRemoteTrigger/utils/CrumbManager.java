@@ -0,0 +1,280 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.ConnectionResponse;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.JenkinsCrumb;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.Auth2;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.NullAuth;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.UrlNotFoundException;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.metrics.RemoteMetrics;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing.Span;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing.Tracer;
+
+import hudson.AbortException;
+
+/**
+ * Obtains the crumbs of the remote Jenkins servers and keeps them in the crumb cache.
+ *
+ * Newer Jenkins versions bind a crumb to the web session it was issued in, so the session
+ * cookies set by the crumb request are kept together with the crumb, and sent along with it.
+ * Crumb and session are cached per host and user, and always replaced together.
+ *
+ * When a cached crumb is rejected by the remote server (e.g. after a restart) the caller
+ * invalidates it, and the next caller requests a new one. If several builds need a crumb
+ * for the same host and user at the same time, only one request is sent and its result is
+ * shared by all of them.
+ *
+ * The crumb request is sent like any other request, so it is limited, rate limited and
+ * retried the same way, and counts for the circuit breaker of its host.
+ */
+final class CrumbManager
+{
+
+    /**
+     * Maximum number of characters of an error response searched for the invalid crumb message.
+     */
+    private static final int MAX_ERROR_CHARS = 4096;
+
+    /**
+     * The crumb requests currently in progress, by host and user.
+     */
+    private static final ConcurrentHashMap<String, CompletableFuture<JenkinsCrumb>> inFlight = new ConcurrentHashMap<String, CompletableFuture<JenkinsCrumb>>();
+
+    private CrumbManager()
+    {
+    }
+
+    /**
+     * Gets the crumb of the remote server, from the cache if possible.
+     *
+     * @param context
+     *            the context of this Builder/BuildStep.
+     * @param overrideAuth
+     *            auth used to overwrite the default auth.
+     * @param isCacheEnabled
+     *            true if the crumb may be taken from and put into the cache.
+     * @param retryLimit
+     *            0 to not retry the crumb request.
+     * @return the crumb.
+     * @throws IOException
+     *            if the request failed.
+     * @throws InterruptedException
+     *            if interrupted while waiting for the crumb.
+     */
+    @Nonnull
+    static JenkinsCrumb getCrumb(@Nonnull BuildContext context, @CheckForNull Auth2 overrideAuth, boolean isCacheEnabled,
+                int retryLimit) throws IOException, InterruptedException
+    {
+        URL crumbProviderUrl = getCrumbProviderUrl(context);
+        String globalHost = crumbProviderUrl.getHost();
+        if (!isCacheEnabled) {
+            return requestCrumb(context, crumbProviderUrl, overrideAuth, retryLimit);
+        }
+
+        String key = getCacheKey(context, globalHost, overrideAuth);
+        Span span = Tracer.startSpan("crumb cache lookup");
+        JenkinsCrumb jenkinsCrumb = DropCachePeriodicWork.safeGetCrumb(key, true);
+        span.setAttribute("cache.hit", jenkinsCrumb != null).end();
+        if (jenkinsCrumb != null) {
+            context.logger.println("reuse cached crumb: " + globalHost);
+            RemoteMetrics.recordCacheLookup(crumbProviderUrl, "crumb", true);
+            return jenkinsCrumb;
+        }
+
+        CompletableFuture<JenkinsCrumb> future = new CompletableFuture<JenkinsCrumb>();
+        CompletableFuture<JenkinsCrumb> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            context.logger.println("wait for the crumb requested by another build: " + globalHost);
+            // shared with the other build, so no request of its own
+            RemoteMetrics.recordCacheLookup(crumbProviderUrl, "crumb", true);
+            return await(running);
+        }
+        try {
+            // another request may have completed since the cache was checked
+            jenkinsCrumb = DropCachePeriodicWork.safeGetCrumb(key, true);
+            RemoteMetrics.recordCacheLookup(crumbProviderUrl, "crumb", jenkinsCrumb != null);
+            if (jenkinsCrumb == null) {
+                jenkinsCrumb = DropCachePeriodicWork.safePutCrumb(key,
+                            requestCrumb(context, crumbProviderUrl, overrideAuth, retryLimit), true);
+            }
+            future.complete(jenkinsCrumb);
+            return jenkinsCrumb;
+        }
+        catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Removes a crumb rejected by the remote server, together with its session, from the cache,
+     * unless it was already replaced by a new one.
+     *
+     * @param context
+     *            the context of this Builder/BuildStep.
+     * @param overrideAuth
+     *            auth used to overwrite the default auth.
+     * @param crumb
+     *            the rejected crumb.
+     */
+    static void invalidate(@Nonnull BuildContext context, @CheckForNull Auth2 overrideAuth,
+                @CheckForNull JenkinsCrumb crumb)
+    {
+        if (crumb == null) return;
+        try {
+            String globalHost = getCrumbProviderUrl(context).getHost();
+            DropCachePeriodicWork.getCrumbCache().invalidate(getCacheKey(context, globalHost, overrideAuth), crumb);
+        }
+        catch (IOException e) {
+            // no address, so nothing was cached either
+        }
+    }
+
+    /**
+     * Checks if a 403 response was caused by a missing or invalid crumb, e.g.
+     * <code>HTTP/1.1 403 No valid crumb was included in the request</code>.
+     *
+     * @param connection
+     *            the connection which received the 403 response.
+     * @return true if the response reports an invalid crumb.
+     */
+    static boolean isInvalidCrumbResponse(@Nonnull HttpURLConnection connection)
+    {
+        try {
+            if (isInvalidCrumbMessage(connection.getResponseMessage())) return true;
+            InputStream is = connection.getErrorStream();
+            if (is == null) return false;
+            // only the start of the error page is read, the rest is drained when releasing the connection
+            Reader reader = new InputStreamReader(is, "UTF-8");
+            char[] buffer = new char[MAX_ERROR_CHARS];
+            int length = 0;
+            int read;
+            while (length < buffer.length && (read = reader.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+            }
+            return isInvalidCrumbMessage(new String(buffer, 0, length));
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+
+    static boolean isInvalidCrumbMessage(@CheckForNull String message)
+    {
+        return message != null && message.toLowerCase().contains("no valid crumb");
+    }
+
+    /**
+     * Crumbs and sessions belong to a user, so the cache key consists of the host and the
+     * identity of the credentials used. The hash is used to not keep any secrets in the key.
+     */
+    @Nonnull
+    static String getCacheKey(@Nonnull BuildContext context, @Nonnull String globalHost,
+                @CheckForNull Auth2 overrideAuth)
+    {
+        Auth2 auth = overrideAuth != null && !(overrideAuth instanceof NullAuth) ? overrideAuth
+                    : context.effectiveRemoteServer.getAuth2();
+        if (auth == null) return globalHost;
+        return String.format("%s#%s@%08x", globalHost, auth.getClass().getSimpleName(), auth.hashCode());
+    }
+
+    @Nonnull
+    private static URL getCrumbProviderUrl(@Nonnull BuildContext context) throws IOException
+    {
+        String address = context.effectiveRemoteServer.getAddress();
+        if (address == null) {
+            throw new AbortException(
+                        "The remote server address can not be empty, or it must be overridden on the job configuration.");
+        }
+        String xpathValue = URLEncoder.encode("concat(//crumbRequestField,\":\",//crumb)", "UTF-8");
+        return new URL(address.concat("/crumbIssuer/api/xml?xpath=").concat(xpathValue));
+    }
+
+    /**
+     * Requests a crumb from the remote Jenkins server. 401 and 403 responses fail the request
+     * with an {@link org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.UnauthorizedException}
+     * or a {@link org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.ForbiddenException}.
+     */
+    @Nonnull
+    private static JenkinsCrumb requestCrumb(@Nonnull BuildContext context, @Nonnull URL crumbProviderUrl,
+                @CheckForNull Auth2 overrideAuth, int retryLimit) throws IOException, InterruptedException
+    {
+        StringBuilder response = new StringBuilder();
+        ConnectionResponse connectionResponse;
+        try {
+            connectionResponse = HttpHelper.tryGetRawResp(crumbProviderUrl.toString(), context, retryLimit,
+                        overrideAuth, response);
+        }
+        catch (UrlNotFoundException e) {
+            context.logger.println("CSRF protection is disabled on the remote server.");
+            return new JenkinsCrumb();
+        }
+        int responseCode = connectionResponse.getResponseCode();
+        if (responseCode != 200) {
+            throw new RuntimeException(String.format("Unexpected response. Response code: %s. URL: %s",
+                        responseCode, crumbProviderUrl));
+        }
+        context.logger.println("CSRF protection is enabled on the remote server.");
+        String[] split = response.toString().split(":");
+        return new JenkinsCrumb(split[0], split[1], getSessionCookies(connectionResponse.getHeader()));
+    }
+
+    /**
+     * Collects the cookies set by a response, in the format of the <code>Cookie</code> header.
+     *
+     * @param responseHeader
+     *            the header of the response.
+     * @return the cookies, or null if the response did not set any.
+     */
+    @CheckForNull
+    static String getSessionCookies(@Nonnull Map<String, List<String>> responseHeader)
+    {
+        StringBuilder cookies = new StringBuilder();
+        for (Map.Entry<String, List<String>> header : responseHeader.entrySet()) {
+            if (!"Set-Cookie".equalsIgnoreCase(header.getKey())) continue;
+            for (String setCookie : header.getValue()) {
+                // only name=value is sent back, the attributes (Path, HttpOnly, ...) are dropped
+                int end = setCookie.indexOf(';');
+                String cookie = (end < 0 ? setCookie : setCookie.substring(0, end)).trim();
+                if (cookie.isEmpty()) continue;
+                if (cookies.length() > 0) cookies.append("; ");
+                cookies.append(cookie);
+            }
+        }
+        return cookies.length() > 0 ? cookies.toString() : null;
+    }
+
+    private static JenkinsCrumb await(CompletableFuture<JenkinsCrumb> future) throws IOException, InterruptedException
+    {
+        try {
+            return future.get();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException(cause);
+        }
+    }
+
+}
@@ -1,10 +1,6 @@
 package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -14,98 +10,97 @@ import hudson.Extension;
 import hudson.model.PeriodicWork;
 import net.sf.json.JSONObject;
 
+/**
+ * Holds the crumb, job info and response caches and periodically removes their expired entries.
+ *
+ * Entries expire individually after the configured time-to-live, the caches are
+ * not cleared as a whole anymore.
+ */
 @Extension
 public class DropCachePeriodicWork extends PeriodicWork {
 
-	private static Map<String, JenkinsCrumb> crumbMap = new HashMap<>();
-	private static Map<String, JSONObject> jobInfoMap = new HashMap<>();
+	public static final int DEFAULT_TTL_MINUTES = 10;
+	public static final int DEFAULT_CAPACITY = 1000;
+	/**
+	 * The responses keep their whole JSON body, so fewer of them are cached by default.
+	 */
+	public static final int DEFAULT_RESPONSE_CAPACITY = 200;
+
+	private static final TtlCache<String, JenkinsCrumb> crumbCache = new TtlCache<String, JenkinsCrumb>("Crumb cache",
+			DEFAULT_TTL_MINUTES, TimeUnit.MINUTES, DEFAULT_CAPACITY);
+	private static final TtlCache<String, JSONObject> jobInfoCache = new TtlCache<String, JSONObject>(
+			"Job info cache", DEFAULT_TTL_MINUTES, TimeUnit.MINUTES, DEFAULT_CAPACITY);
+	private static final TtlCache<String, CachedResponse> responseCache = new TtlCache<String, CachedResponse>(
+			"Response cache", DEFAULT_TTL_MINUTES, TimeUnit.MINUTES, DEFAULT_RESPONSE_CAPACITY);
 
 	private static Logger logger = Logger.getLogger(DropCachePeriodicWork.class.getName());
-	private static Lock jobInfoLock = new ReentrantLock();
-	private static Lock crumbLock = new ReentrantLock();
 
 	@Override
 	public long getRecurrencePeriod() {
-		return TimeUnit.MINUTES.toMillis(10);
+		return TimeUnit.MINUTES.toMillis(1);
+	}
+
+	/**
+	 * Changes the time-to-live and the capacity of the caches.
+	 *
+	 * @param ttlMinutes
+	 *            the time-to-live of the cache entries in minutes.
+	 * @param capacity
+	 *            the maximum number of entries of the crumb and job info caches.
+	 * @param responseCapacity
+	 *            the maximum number of entries of the response cache.
+	 */
+	public static void configure(int ttlMinutes, int capacity, int responseCapacity) {
+		crumbCache.configure(ttlMinutes, TimeUnit.MINUTES, capacity);
+		jobInfoCache.configure(ttlMinutes, TimeUnit.MINUTES, capacity);
+		responseCache.configure(ttlMinutes, TimeUnit.MINUTES, responseCapacity);
+	}
+
+	public static TtlCache<String, JenkinsCrumb> getCrumbCache() {
+		return crumbCache;
+	}
+
+	public static TtlCache<String, JSONObject> getJobInfoCache() {
+		return jobInfoCache;
+	}
+
+	/**
+	 * @return the last responses of conditional GET requests, see {@link ConditionalGet}.
+	 */
+	public static TtlCache<String, CachedResponse> getResponseCache() {
+		return responseCache;
 	}
 
 	public static JenkinsCrumb safePutCrumb(String key, JenkinsCrumb jenkinsCrumb, boolean isCacheEnable) {
-		if (!isCacheEnable)
+		if (!isCacheEnable || jenkinsCrumb == null)
 			return jenkinsCrumb;
-		try {
-			crumbLock.lock();
-			crumbMap.put(key, jenkinsCrumb);
-			return jenkinsCrumb;
-		} finally {
-			crumbLock.unlock();
-		}
+		return crumbCache.put(key, jenkinsCrumb);
 	}
 
 	public static JenkinsCrumb safeGetCrumb(String key, boolean isCacheEnable) {
 		if (!isCacheEnable)
 			return null;
-		try {
-			crumbLock.lock();
-			if (crumbMap.containsKey(key)) {
-				return crumbMap.get(key);
-			} else {
-				return null;
-			}
-		} finally {
-			crumbLock.unlock();
-		}
+		return crumbCache.get(key);
 	}
 
 	public static JSONObject safePutJobInfo(String key, JSONObject jobInfo, boolean isCacheEnable) {
-		if (!isCacheEnable)
-			return jobInfo;
-		try {
-			jobInfoLock.lock();
-			jobInfoMap.put(key, jobInfo);
+		if (!isCacheEnable || jobInfo == null)
 			return jobInfo;
-		} finally {
-			jobInfoLock.unlock();
-		}
+		return jobInfoCache.put(key, jobInfo);
 	}
 
 	public static JSONObject safeGetJobInfo(String key, boolean isCacheEnable) {
 		if (!isCacheEnable)
 			return null;
-		try {
-			jobInfoLock.lock();
-			if (jobInfoMap.containsKey(key)) {
-				return jobInfoMap.get(key);
-			} else {
-				return null;
-			}
-		} finally {
-			jobInfoLock.unlock();
-		}
+		return jobInfoCache.get(key);
 	}
 
 	@Override
 	protected void doRun() throws Exception {
-		logger.log(Level.INFO, "begin schedule clean...");
-
-		try {
-			crumbLock.lock();
-			crumbMap.clear();
-		} catch (Exception e) {
-			logger.log(Level.WARNING, "Fail to clear crumb cache", e);
-		} finally {
-			crumbLock.unlock();
-		}
-
-		try {
-			jobInfoLock.lock();
-			jobInfoMap.clear();
-		} catch (Exception e) {
-			logger.log(Level.WARNING, "Fail to clear job info cache", e);
-		} finally {
-			jobInfoLock.unlock();
-		}
-
-		logger.log(Level.INFO, "end schedule clean...");
+		crumbCache.purgeExpired();
+		jobInfoCache.purgeExpired();
+		responseCache.purgeExpired();
+		logger.log(Level.FINE, "{0}; {1}; {2}", new Object[] { crumbCache, jobInfoCache, responseCache });
 	}
 
 }
@@ -0,0 +1,255 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.ConnectionQueueTimeoutException;
+
+/**
+ * Limits the number of concurrent requests to a remote host, over all jobs and builds of this Jenkins.
+ *
+ * A request has to acquire a {@link Permit} before connecting and release it when done. If all permits
+ * of the host are taken, the request is queued. Queued requests are served by {@link Priority} first and
+ * in arrival order within the same priority, so a released permit is handed over to the next request in
+ * the queue and can not be taken by a request arriving later. A request gives up with a
+ * {@link ConnectionQueueTimeoutException} if it does not get a permit within its timeout.
+ *
+ * The limit of a host is the one of the remote server configuration used by the latest request,
+ * a changed configuration becomes effective without a restart.
+ */
+public final class HostConcurrencyLimiter
+{
+
+    /**
+     * The order in which queued requests get a permit.
+     */
+    public enum Priority
+    {
+        /**
+         * Requests changing the state of the remote server, e.g. triggering or aborting a build.
+         */
+        HIGH,
+        /**
+         * Requests reading the state of the remote server, e.g. polling the status of a build.
+         */
+        NORMAL,
+        /**
+         * Bulk downloads, e.g. the console output of a remote build.
+         */
+        LOW
+    }
+
+    private static final Map<String, HostConcurrencyLimiter> LIMITERS = new ConcurrentHashMap<String, HostConcurrencyLimiter>();
+
+    private final String host;
+
+    // all fields below are guarded by this
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<Waiter>();
+    private int limit = 1;
+    private int active;
+    private long sequence;
+    private long acquired;
+    private long queued;
+    private long timedOut;
+
+    private HostConcurrencyLimiter(@Nonnull String host)
+    {
+        this.host = host;
+    }
+
+    /**
+     * @param host
+     *            the remote host, e.g. <code>https://jenkins.example.com:8443</code>.
+     * @return the limiter of the host.
+     */
+    @Nonnull
+    public static HostConcurrencyLimiter forHost(@Nonnull String host)
+    {
+        HostConcurrencyLimiter limiter = LIMITERS.get(host);
+        if (limiter == null) {
+            HostConcurrencyLimiter created = new HostConcurrencyLimiter(host);
+            limiter = LIMITERS.putIfAbsent(host, created);
+            if (limiter == null) limiter = created;
+        }
+        return limiter;
+    }
+
+    /**
+     * @param url
+     *            a URL of a remote host.
+     * @return the host of the URL as used to look up its limiter, e.g. <code>https://jenkins.example.com:8443</code>.
+     */
+    @Nonnull
+    public static String getHost(@Nonnull URL url)
+    {
+        return url.getProtocol() + "://" + url.getAuthority();
+    }
+
+    /**
+     * @return the state of all limiters, sorted by host.
+     */
+    @Nonnull
+    public static List<String> getStates()
+    {
+        List<String> states = new ArrayList<String>();
+        for (HostConcurrencyLimiter limiter : new ConcurrentSkipListMap<String, HostConcurrencyLimiter>(LIMITERS).values()) {
+            states.add(limiter.toString());
+        }
+        return states;
+    }
+
+    /**
+     * Waits for a permit to send a request to the host.
+     *
+     * @param maxConnections
+     *            the maximum number of concurrent requests to the host.
+     * @param priority
+     *            the priority of the request while it is queued.
+     * @param timeout
+     *            the maximum time to wait for a permit.
+     * @param unit
+     *            the unit of the timeout.
+     * @return the permit, which has to be released when the request is done.
+     * @throws ConnectionQueueTimeoutException
+     *            if no permit was available within the timeout.
+     * @throws InterruptedException
+     *            if interrupted while waiting.
+     */
+    @Nonnull
+    public synchronized Permit acquire(int maxConnections, @Nonnull Priority priority, long timeout,
+                @Nonnull TimeUnit unit) throws ConnectionQueueTimeoutException, InterruptedException
+    {
+        setLimit(maxConnections);
+        if (waiters.isEmpty() && active < limit) {
+            active++;
+            acquired++;
+            return new Permit();
+        }
+
+        Waiter waiter = new Waiter(priority, sequence++);
+        waiters.add(waiter);
+        queued++;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        try {
+            while (!waiter.granted) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    waiters.remove(waiter);
+                    timedOut++;
+                    throw new ConnectionQueueTimeoutException(host, waiters.size(), unit.toMillis(timeout));
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+        catch (InterruptedException e) {
+            if (waiter.granted) {
+                // the permit was handed over right before the interrupt, pass it on
+                release();
+            } else {
+                waiters.remove(waiter);
+            }
+            throw e;
+        }
+        acquired++;
+        return new Permit();
+    }
+
+    /**
+     * @return the number of permits currently held.
+     */
+    public synchronized int getActive()
+    {
+        return active;
+    }
+
+    /**
+     * @return the number of requests currently waiting for a permit.
+     */
+    public synchronized int getQueueLength()
+    {
+        return waiters.size();
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return String.format("%s: %d of %d connections in use, %d queued; %d requests, %d of them queued, %d timed out",
+                    host, active, limit, waiters.size(), acquired, queued, timedOut);
+    }
+
+    private void setLimit(int maxConnections)
+    {
+        int newLimit = Math.max(1, maxConnections);
+        if (newLimit == limit) return;
+        limit = newLimit;
+        // a raised limit lets queued requests through right away
+        grantWaiters();
+    }
+
+    private synchronized void release()
+    {
+        active--;
+        grantWaiters();
+    }
+
+    private void grantWaiters()
+    {
+        boolean granted = false;
+        while (active < limit && !waiters.isEmpty()) {
+            waiters.poll().granted = true;
+            active++;
+            granted = true;
+        }
+        if (granted) notifyAll();
+    }
+
+    /**
+     * The permission to send a request, to be released exactly once when the request is done.
+     */
+    public final class Permit
+    {
+        private boolean released;
+
+        private Permit()
+        {
+        }
+
+        public void release()
+        {
+            synchronized (HostConcurrencyLimiter.this) {
+                if (released) return;
+                released = true;
+                HostConcurrencyLimiter.this.release();
+            }
+        }
+    }
+
+    private static final class Waiter implements Comparable<Waiter>
+    {
+        final Priority priority;
+        final long sequence;
+        boolean granted;
+
+        Waiter(Priority priority, long sequence)
+        {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Waiter other)
+        {
+            int result = priority.compareTo(other.priority);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+
+}
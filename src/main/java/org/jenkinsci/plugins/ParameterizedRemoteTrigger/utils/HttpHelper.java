@@ -13,9 +13,6 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.io.OutputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.Writer;
-import java.io.PrintWriter;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -45,10 +42,20 @@ import org.jenkinsci.plugins.ParameterizedRemoteTrigger.JenkinsCrumb;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteJenkinsServer;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.Auth2;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.NullAuth;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.CircuitOpenException;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.ExceedRetryLimitException;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.ForbiddenException;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.InvalidCrumbException;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.PartialResponseException;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.UnauthorizedException;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.UrlNotFoundException;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.metrics.RemoteMetrics;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildUrls;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.retry.RetryPolicy;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.retry.RetryState;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing.Span;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing.Tracer;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.HostConcurrencyLimiter.Priority;
 
 import hudson.AbortException;
 import hudson.ProxyConfiguration;
@@ -63,6 +70,8 @@ public class HttpHelper {
 	private static final String buildTokenRootUrl = "/buildByToken";
 	public static final String HTTP_GET = "GET";
 	public static final String HTTP_POST = "POST";
+	/** The W3C trace context header, sent if tracing is enabled. */
+	public static final String TRACEPARENT_HEADER = "traceparent";
 
 	private static Logger logger = Logger.getLogger(HttpHelper.class.getName());
 
@@ -87,7 +96,7 @@ public class HttpHelper {
 	 *            the parameters needed to trigger the remote job.
 	 * @return query-parameter-formated URL-encoded string.
 	 */
-	private static String buildUrlQueryString(Collection<String> parameters) {
+	static String buildUrlQueryString(Collection<String> parameters) {
 
 		// List to hold the encoded parameters
 		List<String> encodedParameters = new ArrayList<String>();
@@ -149,27 +158,7 @@ public class HttpHelper {
 
 	protected static String generateJobUrl(RemoteJenkinsServer remoteServer, String jobNameOrUrl)
 			throws AbortException {
-		if (isEmpty(jobNameOrUrl))
-			throw new IllegalArgumentException("Invalid job name/url: " + jobNameOrUrl);
-		String remoteJobUrl;
-		String _jobNameOrUrl = jobNameOrUrl.trim();
-		if (FormValidationUtils.isURL(_jobNameOrUrl)) {
-			remoteJobUrl = _jobNameOrUrl;
-		} else {
-			remoteJobUrl = remoteServer.getAddress();
-			if (remoteJobUrl == null) {
-				throw new AbortException(
-						"The remote server address can not be empty, or it must be overridden on the job configuration.");
-			}
-			while (remoteJobUrl.endsWith("/"))
-				remoteJobUrl = remoteJobUrl.substring(0, remoteJobUrl.length() - 1);
-
-			String[] split = _jobNameOrUrl.trim().split("/");
-			for (String segment : split) {
-				remoteJobUrl = String.format("%s/job/%s", remoteJobUrl, encodeValue(segment));
-			}
-		}
-		return remoteJobUrl;
+		return RemoteBuildUrls.getJobUrl(remoteServer.getAddress(), jobNameOrUrl);
 	}
 
 	/**
@@ -191,7 +180,7 @@ public class HttpHelper {
 		return cleanValue;
 	}
 
-	private static String readInputStream(HttpURLConnection connection) throws IOException {
+	static String readInputStream(HttpURLConnection connection) throws IOException {
 		BufferedReader rd = null;
 		try {
 
@@ -219,81 +208,72 @@ public class HttpHelper {
 	}
 
 	/**
-	 * Tries to obtain a Jenkins Crumb from the remote Jenkins server.
+	 * Parses the JSON object of the response directly from the response stream.
 	 *
-	 * @param context
-	 *            the context of this Builder/BuildStep.
-	 * @return {@link JenkinsCrumb} a JenkinsCrumb.
-	 * @throws IOException
-	 *             if the request failed.
+	 * @return the JSON object, or null if the response is not a JSON object.
 	 */
-	@Nonnull
-	private static JenkinsCrumb getCrumb(BuildContext context, Auth2 overrideAuth, boolean isCacheEnabled)
+	private static JSONObject readJsonObject(HttpURLConnection connection, JsonProjection projection)
 			throws IOException {
-		String address = context.effectiveRemoteServer.getAddress();
-		if (address == null) {
-			throw new AbortException(
-					"The remote server address can not be empty, or it must be overridden on the job configuration.");
+		InputStream is;
+		try {
+			is = connection.getInputStream();
+		} catch (FileNotFoundException e) {
+			is = connection.getErrorStream();
 		}
+		if (is == null)
+			return null;
+		// the stream is closed when releasing the connection
+		return StreamingJsonParser.parseObject(new InputStreamReader(is, "UTF-8"), projection);
+	}
 
-		URL crumbProviderUrl;
-		String globalHost = "";
+	private static void copyResponse(HttpURLConnection connection, OutputStream out) throws IOException {
+		InputStream is = connection.getInputStream();
+		byte[] buffer = new byte[8192];
+		long copied = 0;
+		int read;
 		try {
-			String xpathValue = URLEncoder.encode("concat(//crumbRequestField,\":\",//crumb)", "UTF-8");
-			crumbProviderUrl = new URL(address.concat("/crumbIssuer/api/xml?xpath=").concat(xpathValue));
-			globalHost = crumbProviderUrl.getHost();
-
-			JenkinsCrumb jenkinsCrumb = DropCachePeriodicWork.safeGetCrumb(globalHost, isCacheEnabled);
-			if (jenkinsCrumb != null) {
-				context.logger.println("reuse cached crumb: " + globalHost);
-				return jenkinsCrumb;
+			while ((read = is.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+				copied += read;
 			}
-			HttpURLConnection connection = getAuthorizedConnection(context, crumbProviderUrl, overrideAuth);
-			int responseCode = connection.getResponseCode();
-			if (responseCode == 401) {
-				throw new UnauthorizedException(crumbProviderUrl);
-			} else if (responseCode == 403) {
-				throw new ForbiddenException(crumbProviderUrl);
-			} else if (responseCode == 404) {
-				context.logger.println("CSRF protection is disabled on the remote server.");
-				return DropCachePeriodicWork.safePutCrumb(globalHost, new JenkinsCrumb(), isCacheEnabled);
-			} else if (responseCode == 200) {
-				context.logger.println("CSRF protection is enabled on the remote server.");
-				String response = readInputStream(connection);
-				String[] split = response.split(":");
-				JenkinsCrumb crumb = new JenkinsCrumb(split[0], split[1]);
-				return DropCachePeriodicWork.safePutCrumb(globalHost, crumb, isCacheEnabled);
-			} else {
-				throw new RuntimeException(String.format("Unexpected response. Response code: %s. Response message: %s",
-						responseCode, connection.getResponseMessage()));
+		} catch (IOException e) {
+			if (copied > 0) {
+				throw new PartialResponseException(connection.getURL(), copied, e);
 			}
-		} catch (FileNotFoundException e) {
-			context.logger.println("CSRF protection is disabled on the remote server.");
-			return DropCachePeriodicWork.safePutCrumb(globalHost, new JenkinsCrumb(), isCacheEnabled);
+			throw e;
 		}
+		out.flush();
 	}
 
 	/**
 	 * For POST requests a crumb is needed. This methods gets a crumb and sets it in
-	 * the header.
+	 * the header, together with the cookies of the session the crumb belongs to.
 	 * https://wiki.jenkins.io/display/JENKINS/Remote+access+API#RemoteaccessAPI-CSRFProtection
 	 *
 	 * @param connection
 	 * @param context
+	 * @return the crumb set in the header, or null if no crumb is needed.
 	 * @throws IOException
+	 * @throws InterruptedException
 	 */
-	private static void addCrumbToConnection(HttpURLConnection connection, BuildContext context, Auth2 overrideAuth,
-			boolean isCacheEnabled) throws IOException {
+	private static JenkinsCrumb addCrumbToConnection(HttpURLConnection connection, BuildContext context,
+			Auth2 overrideAuth, boolean isCacheEnabled, int retryLimit) throws IOException, InterruptedException {
 		String method = connection.getRequestMethod();
 		if (method != null && method.equalsIgnoreCase("POST")) {
-			JenkinsCrumb crumb = getCrumb(context, overrideAuth, isCacheEnabled);
+			JenkinsCrumb crumb = CrumbManager.getCrumb(context, overrideAuth, isCacheEnabled, retryLimit);
 			if (crumb.isEnabledOnRemote()) {
 				connection.setRequestProperty(crumb.getHeaderId(), crumb.getCrumbValue());
+				// the crumb is only valid within the session it was issued for
+				if (crumb.getSessionCookies() != null) {
+					connection.setRequestProperty("Cookie", crumb.getSessionCookies());
+				}
+				return crumb;
 			}
 		}
+		return null;
 	}
 
-	private static HttpURLConnection getAuthorizedConnection(BuildContext context, URL url, Auth2 overrideAuth)
+	static HttpURLConnection getAuthorizedConnection(BuildContext context, URL url, Auth2 overrideAuth)
 			throws IOException {
 		URLConnection connection = context.effectiveRemoteServer.isUseProxy() ? ProxyConfiguration.open(url)
 				: url.openConnection();
@@ -311,6 +291,43 @@ public class HttpHelper {
 		return (HttpURLConnection) connection;
 	}
 
+	/**
+	 * Releases the connection after the response has been processed.
+	 * <p>
+	 * If keep-alive is enabled for the remote server the rest of the response is
+	 * consumed and the stream closed, so the JDK can put the socket back into its
+	 * per-host keep-alive cache and reuse it for the next request to the same host.
+	 * Otherwise the connection is closed.
+	 *
+	 * @param connection
+	 *            the connection to release.
+	 * @param context
+	 *            the context of this Builder/BuildStep.
+	 * @param responseReceived
+	 *            true if a response (status line) was received on this connection.
+	 */
+	static void releaseConnection(HttpURLConnection connection, BuildContext context,
+			boolean responseReceived) {
+		if (!context.effectiveRemoteServer.isKeepAlive() || !responseReceived) {
+			connection.disconnect();
+			return;
+		}
+		InputStream is = null;
+		try {
+			is = connection.getErrorStream();
+			if (is == null)
+				is = connection.getInputStream();
+			byte[] buffer = new byte[4096];
+			while (is.read(buffer) != -1) {
+				// drain
+			}
+		} catch (IOException e) {
+			// already consumed and closed, nothing left to drain
+		} finally {
+			closeQuietly(is);
+		}
+	}
+
 	private static String getUrlWithoutParameters(String url) {
 		String result = url;
 		try {
@@ -396,59 +413,102 @@ public class HttpHelper {
 		return false;
 	}
 
+	private static final byte[] FORM_LINE_FEED = { '\r', '\n' };
+
 	private static String createBoundary() {
 		return "===" + System.currentTimeMillis() + "===";
 	}
 
-	private static byte[] buildFormData(Map<String, Object> params, String boundary) throws IOException, InterruptedException {
-		OutputStream stream = new ByteArrayOutputStream();
-		Writer writer = new PrintWriter(stream);
-		final String LINE_FEED = "\r\n";
-
-		for (String key : params.keySet()) {
-			writer.append("--").append(boundary).append(LINE_FEED);
-			writer.append("Content-Disposition: form-data; name=\"").append(key).append("\"");
-			Object value = params.get(key);
-			if (value instanceof String) {
-				writer.append(LINE_FEED);
-				writer.append("Content-Type: text/plain; charset=utf-8").append(LINE_FEED);
-				writer.append(LINE_FEED);
-				writer.append((String) value);
+	/**
+	 * Writes the multipart form data directly to the given stream. File parameters are
+	 * streamed from {@link FilePath#read()} (over the remoting channel for files on agents)
+	 * with a fixed size buffer, so they are never held in memory as a whole.
+	 */
+	static void writeFormData(Map<String, Object> params, String boundary, OutputStream stream)
+			throws IOException, InterruptedException {
+		byte[] buffer = new byte[8192];
+		for (Map.Entry<String, Object> param : params.entrySet()) {
+			stream.write(getFormPartHeader(param.getKey(), param.getValue(), boundary));
+			Object value = param.getValue();
+			if (value instanceof FilePath) {
+				InputStream inputStream = ((FilePath) value).read();
+				try {
+					int bytesRead;
+					while ((bytesRead = inputStream.read(buffer)) != -1) {
+						stream.write(buffer, 0, bytesRead);
+					}
+				} finally {
+					closeQuietly(inputStream);
+				}
+			} else {
+				stream.write(String.valueOf(value).getBytes("UTF-8"));
 			}
-			else {
+			stream.write(FORM_LINE_FEED);
+		}
+		stream.write(getFormDataEnd(boundary));
+		stream.flush();
+	}
+
+	/**
+	 * Computes the length of the multipart form data written by
+	 * {@link #writeFormData(Map, String, OutputStream)}.
+	 *
+	 * @return the length in bytes, or -1 if the size of a file could not be determined.
+	 */
+	static long getFormDataLength(Map<String, Object> params, String boundary)
+			throws IOException, InterruptedException {
+		long length = 0;
+		for (Map.Entry<String, Object> param : params.entrySet()) {
+			length += getFormPartHeader(param.getKey(), param.getValue(), boundary).length;
+			Object value = param.getValue();
+			if (value instanceof FilePath) {
 				FilePath path = (FilePath) value;
-				String filename = path.getName();
-				writer.append("; filename=\"").append(filename ).append("\"").append(LINE_FEED);
-				writer.append("Content-Type: ").append(URLConnection.guessContentTypeFromName(filename)).append(LINE_FEED);
-				writer.append("Content-Transfer-Encoding: binary").append(LINE_FEED);
-				writer.append(LINE_FEED);
-				writer.flush();
-
-				InputStream inputStream = path.read();
-				byte[] buffer = new byte[4096];
-				int bytesRead;
-				while ((bytesRead = inputStream.read(buffer)) != -1) {
-					stream.write(buffer, 0, bytesRead);
+				try {
+					if (!path.exists())
+						return -1;
+					length += path.length();
+				} catch (IOException e) {
+					logger.log(Level.FINE, "Could not determine the size of " + path.getRemote(), e);
+					return -1;
 				}
-				stream.flush();
-				inputStream.close();
+			} else {
+				length += String.valueOf(value).getBytes("UTF-8").length;
 			}
-			writer.append(LINE_FEED);
-			writer.flush();
+			length += FORM_LINE_FEED.length;
 		}
+		return length + getFormDataEnd(boundary).length;
+	}
 
-		writer.append("--").append(boundary).append("--").append(LINE_FEED);
-		writer.close();
-		return ((ByteArrayOutputStream) stream).toByteArray();
+	private static byte[] getFormPartHeader(String key, Object value, String boundary)
+			throws UnsupportedEncodingException {
+		final String LINE_FEED = "\r\n";
+		StringBuilder header = new StringBuilder();
+		header.append("--").append(boundary).append(LINE_FEED);
+		header.append("Content-Disposition: form-data; name=\"").append(key).append("\"");
+		if (value instanceof FilePath) {
+			String filename = ((FilePath) value).getName();
+			header.append("; filename=\"").append(filename).append("\"").append(LINE_FEED);
+			header.append("Content-Type: ").append(URLConnection.guessContentTypeFromName(filename)).append(LINE_FEED);
+			header.append("Content-Transfer-Encoding: binary").append(LINE_FEED);
+		} else {
+			header.append(LINE_FEED);
+			header.append("Content-Type: text/plain; charset=utf-8").append(LINE_FEED);
+		}
+		header.append(LINE_FEED);
+		return header.toString().getBytes("UTF-8");
+	}
+
+	private static byte[] getFormDataEnd(String boundary) throws UnsupportedEncodingException {
+		return ("--" + boundary + "--\r\n").getBytes("UTF-8");
 	}
 	
 	/**
-	 * Same as sendHTTPCall, but keeps track of the number of failed connection
-	 * attempts (aka: the number of times this method has been called). In the case
-	 * of a failed connection, the method calls it self recursively and increments
-	 * the number of attempts.
+	 * Sends an HTTP request to the remote server. Failed requests are retried as
+	 * decided by the {@link RetryPolicy} of the remote server. A request whose crumb
+	 * was rejected is retried once right away with a new crumb. Each attempt first waits
+	 * for the {@link RequestRateLimiter} of the remote server and for a free connection
+	 * of the {@link HostConcurrencyLimiter} of the host.
 	 *
-	 * @see sendHTTPCall
 	 * @param urlString
 	 *            the URL that needs to be called.
 	 * @param requestType
@@ -457,17 +517,23 @@ public class HttpHelper {
 	 *            the context of this Builder/BuildStep.
 	 * @param postParams
 	 *            parameters to post
-	 * @param numberOfAttempts
-	 *            number of time that the connection has been attempted
-	 * @param pollInterval
-	 *            interval between each retry in second
 	 * @param retryLimit
-	 *            the retry uplimit
+	 *            0 to not retry the request at all, otherwise the retries are
+	 *            limited by the retry policy of the remote server
 	 * @param overrideAuth
 	 *            auth used to overwrite the default auth
 	 * @param rawRespRef
 	 *            the raw http response
-	 * @return {@link ConnectionResponse} the response to the HTTP request.
+	 * @param isCrubmCacheEnabled
+	 *            true if the crumb may be taken from the cache
+	 * @param projection
+	 *            the fields of the JSON response to keep, or null to keep all of them
+	 * @param responseStream
+	 *            if not null, the response body is copied to this stream instead of being parsed
+	 * @param conditional
+	 *            true to send a GET request conditionally, see {@link ConditionalGet}
+	 * @return {@link ConnectionResponse} the response to the HTTP request. An unchanged response
+	 *         of a conditional request has the response code 304 and the body of the last response.
 	 * @throws IOException
 	 *             all the possibilities of HTTP exceptions
 	 * @throws InterruptedException
@@ -475,24 +541,45 @@ public class HttpHelper {
 	 * 
 	 */
 	private static ConnectionResponse sendHTTPCall(String urlString, String requestType, BuildContext context,
-			Map<String, Object> postParams, int numberOfAttempts, int pollInterval, int retryLimit, Auth2 overrideAuth,
-			StringBuilder rawRespRef, boolean isCrubmCacheEnabled) throws IOException, InterruptedException {
+			Map<String, Object> postParams, int retryLimit, Auth2 overrideAuth, StringBuilder rawRespRef,
+			boolean isCrubmCacheEnabled, JsonProjection projection, OutputStream responseStream, boolean conditional)
+			throws IOException, InterruptedException {
 
-		JSONObject responseObject = null;
-		Map<String, List<String>> responseHeader = null;
-		int responseCode = 0;
+		Span span = Tracer.startSpan("remote " + RemoteMetrics.getEndpoint(new URL(urlString)));
+		span.setAttribute("http.method", requestType);
+		span.setAttribute("http.url", getUrlWithoutParameters(urlString));
+		try (Tracer.Scope scope = Tracer.activate(span)) {
+			ConnectionResponse response = sendHTTPCall(urlString, requestType, context, postParams, retryLimit,
+					overrideAuth, rawRespRef, isCrubmCacheEnabled, projection, responseStream, conditional, span);
+			span.setAttribute("http.status_code", response.getResponseCode());
+			return response;
+		} catch (IOException | InterruptedException | RuntimeException e) {
+			span.recordError(e);
+			throw e;
+		} finally {
+			span.end();
+		}
+	}
+
+	/**
+	 * Sends the request with retries, each attempt is a child span of the given span.
+	 */
+	private static ConnectionResponse sendHTTPCall(String urlString, String requestType, BuildContext context,
+			Map<String, Object> postParams, int retryLimit, Auth2 overrideAuth, StringBuilder rawRespRef,
+			boolean isCrubmCacheEnabled, JsonProjection projection, OutputStream responseStream, boolean conditional,
+			Span span) throws IOException, InterruptedException {
 
 		byte[] postDataBytes = new byte[] {};
 		String parmsString = "";
 		boolean postMode = HTTP_POST.equalsIgnoreCase(requestType);
 		boolean postWithForm = false;
 		String postContentsType = "";
+		String formBoundary = null;
 		if (postMode && postParams != null && postParams.size() > 0) {
 			postWithForm = shouldSendByFormData(postParams);
 			if (postWithForm) {
-				String formBoundary = createBoundary();
+				formBoundary = createBoundary();
 				postContentsType = "multipart/form-data; boundary=" + formBoundary;
-				postDataBytes = buildFormData(postParams, formBoundary);
 			}
 			else {
 				postContentsType = "application/x-www-form-urlencoded";
@@ -506,185 +593,447 @@ public class HttpHelper {
 			}
 		}
 
-		URL url = new URL(urlString);
-		HttpURLConnection conn = getAuthorizedConnection(context, url, overrideAuth);
-
-		try {
-			conn.setDoInput(true);
-			conn.setRequestProperty("Accept", "application/json");
-			conn.setRequestProperty("Accept-Language", "UTF-8");
+		JsonProjection fields = projection != null ? projection : JsonProjection.ALL;
+		String conditionalKey = conditional ? ConditionalGet.getCacheKey(context, urlString, overrideAuth, fields) : null;
+		Priority priority = postMode ? Priority.HIGH : (responseStream != null ? Priority.LOW : Priority.NORMAL);
+		RetryPolicy retryPolicy = context.effectiveRemoteServer.getRetryPolicy();
+		RetryState retryState = new RetryState();
+		boolean isCrumbRetry = false;
+		while (true) {
+			JSONObject responseObject = null;
+			Map<String, List<String>> responseHeader = null;
+			int responseCode = 0;
+			long retryDelay;
+
+			URL url = new URL(urlString);
+			// only creates the connection object, nothing is sent yet
+			HttpURLConnection conn = getAuthorizedConnection(context, url, overrideAuth);
 			conn.setRequestMethod(requestType);
-			addCrumbToConnection(conn, context, overrideAuth, isCrubmCacheEnabled);
-			// wait up to 5 seconds for the connection to be open
-			conn.setConnectTimeout(5000);
-			conn.setReadTimeout(10000);
-			if (postMode) {
-				conn.setRequestProperty("Content-Type", postContentsType);
-				conn.setRequestProperty("Content-Length", String.valueOf(postDataBytes.length));
-				conn.setDoOutput(true);
-				conn.getOutputStream().write(postDataBytes);
+			// the crumb is requested before taking a connection, its request needs one of its own
+			JenkinsCrumb crumb = addCrumbToConnection(conn, context, overrideAuth, isCrubmCacheEnabled, retryLimit);
+			waitForRateLimit(context, url, postMode);
+			// wait for a free connection to the host, in one queue with the requests of all other builds
+			long waitStart = System.nanoTime();
+			Span waitSpan = Tracer.startSpan("connection wait");
+			HostConcurrencyLimiter.Permit permit;
+			try {
+				permit = acquirePermit(context, url, priority);
+			} finally {
+				waitSpan.end();
 			}
+			RemoteMetrics.recordConnectionWait(url, System.nanoTime() - waitStart);
+			CircuitBreaker circuitBreaker = getCircuitBreaker(url);
+			if (!circuitBreaker.tryAcquire()) {
+				permit.release();
+				// the host is down, don't even try to connect
+				CircuitOpenException e = new CircuitOpenException(circuitBreaker.getAddress(),
+						circuitBreaker.getRemainingOpenMillis());
+				retryState.recordFailure(0, null);
+				retryDelay = retryLimit > 0 ? retryPolicy.getRetryDelay(retryState) : -1;
+				if (retryDelay < 0) {
+					throw e;
+				}
+				// queue locally until the circuit breaker lets a request through again
+				retryDelay = Math.max(retryDelay, e.getRemainingMillis());
+				context.logger.println(String.format("%s Retrying in %.1f seconds.", e.getMessage(), retryDelay / 1000.0));
+				sleepBeforeRetry(retryDelay, "circuit_open");
+				RemoteMetrics.recordRetry(url, "circuit_open");
+				continue;
+			}
+
+			long start = System.nanoTime();
+			// the circuit breaker only gets the time until the response header, without up- and downloads
+			long sent = start;
+			long headerNanos = -1;
+			boolean attemptFailed = false;
+			CachedResponse cached = null;
+			Span attempt = Tracer.startSpan("HTTP " + requestType, Span.Kind.CLIENT, span);
+			attempt.setAttribute("http.method", requestType);
+			attempt.setAttribute("net.peer.name", RemoteMetrics.getHost(url));
+			attempt.setAttribute("http.resend_count", retryState.getFailures() + (isCrumbRetry ? 1 : 0));
+			Tracer.Scope attemptScope = Tracer.activate(attempt);
 
-			SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+			try {
+				conn.setDoInput(true);
+				conn.setRequestProperty("Accept", "application/json");
+				conn.setRequestProperty("Accept-Language", "UTF-8");
+				String traceParent = attempt.getTraceParent();
+				if (traceParent != null) {
+					conn.setRequestProperty(TRACEPARENT_HEADER, traceParent);
+				}
+				if (conditionalKey != null) {
+					cached = DropCachePeriodicWork.getResponseCache().get(conditionalKey);
+					ConditionalGet.addConditionalHeaders(conn, cached);
+				}
+				// wait up to 5 seconds for the connection to be open
+				conn.setConnectTimeout(5000);
+				conn.setReadTimeout(10000);
+				if (postMode && postWithForm) {
+					conn.setRequestProperty("Content-Type", postContentsType);
+					conn.setDoOutput(true);
+					// stream the form data instead of buffering it, with a known length if possible
+					long contentLength = getFormDataLength(postParams, formBoundary);
+					if (contentLength >= 0) {
+						conn.setFixedLengthStreamingMode(contentLength);
+					} else {
+						conn.setChunkedStreamingMode(8192);
+					}
+					OutputStream out = conn.getOutputStream();
+					try {
+						writeFormData(postParams, formBoundary, out);
+					} finally {
+						closeQuietly(out);
+					}
+				} else if (postMode) {
+					conn.setRequestProperty("Content-Type", postContentsType);
+					conn.setRequestProperty("Content-Length", String.valueOf(postDataBytes.length));
+					conn.setDoOutput(true);
+					conn.getOutputStream().write(postDataBytes);
+				}
 
-			logger.finer(String.format("%s begin: %s", urlString, sdf.format(new Date())));
-			Instant before = Instant.now();
+				SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
 
-			conn.connect();
+				logger.finer(String.format("%s begin: %s", urlString, sdf.format(new Date())));
+				Instant before = Instant.now();
 
-			Instant after = Instant.now();
-			logger.finer(
-					String.format("%s end: elapsed [%s] ms", urlString, Duration.between(before, after).toMillis()));
+				sent = System.nanoTime();
+				conn.connect();
 
-			responseHeader = conn.getHeaderFields();
-			responseCode = conn.getResponseCode();
+				Instant after = Instant.now();
+				logger.finer(
+						String.format("%s end: elapsed [%s] ms", urlString, Duration.between(before, after).toMillis()));
 
-			if (responseCode == 401) {
-				throw new UnauthorizedException(url);
-			} else if (responseCode == 403) {
-				throw new ForbiddenException(url);
-			} else if (responseCode == 404) {
-				throw new UrlNotFoundException(url);
-			} else {
-				String response = trimToNull(readInputStream(conn));
-				if (rawRespRef != null) {
-					rawRespRef.append(response);
-				}
+				responseHeader = conn.getHeaderFields();
+				responseCode = conn.getResponseCode();
+				headerNanos = System.nanoTime() - sent;
 
-				// JSONSerializer serializer = new JSONSerializer();
-				// need to parse the data we get back into struct
-				// listener.getLogger().println("Called URL: '" + urlString + "', got response:
-				// '" + response.toString() + "'");
-
-				// Solving issue reported in this comment:
-				// https://github.com/jenkinsci/parameterized-remote-trigger-plugin/pull/3#issuecomment-39369194
-				// Seems like in Jenkins version 1.547, when using "/build" (job API for
-				// non-parameterized jobs), it returns a string indicating the status.
-				// But in newer versions of Jenkins, it just returns an empty response.
-				// So we need to compensate and check for both.
-				if (responseCode >= 400 || JSONUtils.mayBeJSON(response) == false) {
+				if (responseCode == 401) {
+					throw new UnauthorizedException(url);
+				} else if (responseCode == 403) {
+					if (crumb != null && CrumbManager.isInvalidCrumbResponse(conn)) {
+						throw new InvalidCrumbException(url);
+					}
+					throw new ForbiddenException(url);
+				} else if (responseCode == 404) {
+					throw new UrlNotFoundException(url);
+				} else if (responseCode == 429 || responseCode >= 500) {
+					// overloaded or unavailable, let the retry policy decide when to try again
+					throw new IOException(String.format("Server returned %s - %s: %s", responseCode,
+							conn.getResponseMessage(), url));
+				} else if (responseCode == 304 && conditionalKey != null) {
+					// not modified since the cached response
+					return new ConnectionResponse(responseHeader, cached != null ? cached.getBody() : null,
+							responseCode);
+				} else if (conditionalKey != null && responseCode < 400) {
+					responseObject = ConditionalGet.readJsonObject(conn, conditionalKey, cached, fields);
+					if (responseObject == null) {
+						return new ConnectionResponse(responseHeader, responseCode);
+					}
+				} else if (responseStream != null) {
+					if (responseCode < 400) {
+						copyResponse(conn, responseStream);
+					}
 					return new ConnectionResponse(responseHeader, responseCode);
+				} else if (rawRespRef == null && responseCode < 400) {
+					// parse the JSON straight from the stream, keeping only the requested fields
+					responseObject = readJsonObject(conn, fields);
+					if (responseObject == null) {
+						return new ConnectionResponse(responseHeader, responseCode);
+					}
 				} else {
-					responseObject = (JSONObject) JSONSerializer.toJSON(response);
+					String response = trimToNull(readInputStream(conn));
+					if (rawRespRef != null) {
+						rawRespRef.append(response);
+					}
+
+					// JSONSerializer serializer = new JSONSerializer();
+					// need to parse the data we get back into struct
+					// listener.getLogger().println("Called URL: '" + urlString + "', got response:
+					// '" + response.toString() + "'");
+
+					// Solving issue reported in this comment:
+					// https://github.com/jenkinsci/parameterized-remote-trigger-plugin/pull/3#issuecomment-39369194
+					// Seems like in Jenkins version 1.547, when using "/build" (job API for
+					// non-parameterized jobs), it returns a string indicating the status.
+					// But in newer versions of Jenkins, it just returns an empty response.
+					// So we need to compensate and check for both.
+					if (responseCode >= 400 || JSONUtils.mayBeJSON(response) == false) {
+						return new ConnectionResponse(responseHeader, responseCode);
+					} else {
+						responseObject = (JSONObject) JSONSerializer.toJSON(response);
+					}
 				}
-			}
 
-		} catch (IOException e) {
+				return new ConnectionResponse(responseHeader, responseObject, responseCode);
+			} catch (IOException e) {
+
+				if (e instanceof InvalidCrumbException) {
+					// the cached crumb went stale, e.g. because the remote Jenkins was restarted
+					CrumbManager.invalidate(context, overrideAuth, crumb);
+					if (!isCrumbRetry) {
+						context.logger.println("The crumb was rejected by the remote server, retrying with a new crumb.");
+						isCrumbRetry = true;
+						RemoteMetrics.recordRetry(url, "crumb");
+						continue;
+					}
+				}
 
-			// E.g. "HTTP/1.1 403 No valid crumb was included in the request"
-			List<String> hints = responseHeader != null ? responseHeader.get(null) : null;
-			String hintsString = (hints != null && hints.size() > 0) ? " - " + hints.toString() : "";
+				// E.g. "HTTP/1.1 403 No valid crumb was included in the request"
+				List<String> hints = responseHeader != null ? responseHeader.get(null) : null;
+				String hintsString = (hints != null && hints.size() > 0) ? " - " + hints.toString() : "";
 
-			// Shouldn't expose the token in console
-			logger.log(Level.WARNING, e.getMessage() + hintsString, e);
-			// If we have connectionRetryLimit set to > 0 then retry that many times.
-			if (numberOfAttempts <= retryLimit) {
-				context.logger.println(String.format(
-						"Connection to remote server failed %s, waiting for to retry - %s seconds until next attempt. URL: %s, parameters: %s",
-						(responseCode == 0 ? "" : "[" + responseCode + "]"), pollInterval,
-						getUrlWithoutParameters(urlString), parmsString));
+				// Shouldn't expose the token in console
+				logger.log(Level.WARNING, e.getMessage() + hintsString, e);
+				attempt.recordError(e);
 
-				// Sleep for 'pollInterval' seconds.
-				// Sleep takes miliseconds so need to convert this.pollInterval to milisecopnds
-				// (x 1000)
-				try {
-					// Could do with a better way of sleeping...
-					Thread.sleep(pollInterval * 1000);
-				} catch (InterruptedException ex) {
-					throw ex;
+				if (responseCode == 401 || responseCode == 403 || responseCode == 404) {
+					// retrying does not help against wrong credentials, missing permissions or a wrong URL
+					throw e;
+				}
+				if (e instanceof PartialResponseException) {
+					// a retry would write the part already copied again
+					attemptFailed = true;
+					throw e;
 				}
 
-				context.logger.println("Retry attempt #" + numberOfAttempts + " out of " + retryLimit);
-				numberOfAttempts++;
-				return sendHTTPCall(urlString, requestType, context, postParams, numberOfAttempts, pollInterval,
-						retryLimit, overrideAuth, rawRespRef, isCrubmCacheEnabled);
+				// only failures of the host count for the circuit breaker, not e.g. missing permissions
+				attemptFailed = responseCode == 0 || responseCode == 429 || responseCode >= 500;
+				retryState.recordFailure(responseCode, responseHeader);
+				retryDelay = retryLimit > 0 ? retryPolicy.getRetryDelay(retryState) : -1;
+				if (retryDelay < 0) {
+					// reached the maximum number of retries, time to fail
+					throw new ExceedRetryLimitException(e);
+				}
+				context.logger.println(String.format(
+						"Connection to remote server failed %s, waiting for to retry - %.1f seconds until next attempt. URL: %s, parameters: %s",
+						(responseCode == 0 ? "" : "[" + responseCode + "]"), retryDelay / 1000.0,
+						getUrlWithoutParameters(urlString), parmsString));
 
-			} else if (numberOfAttempts > retryLimit) {
-				// reached the maximum number of retries, time to fail
-				throw new ExceedRetryLimitException();
-			} else {
-				// something failed with the connection and we retried the max amount of
-				// times... so throw an exception to mark the build as failed.
-				throw e;
+			} finally {
+				// always make sure we release the connection
+				if (conn != null) {
+					releaseConnection(conn, context, responseCode != 0);
+				}
+				circuitBreaker.record(attemptFailed, headerNanos >= 0 ? headerNanos : System.nanoTime() - sent);
+				RemoteMetrics.recordRequest(url, requestType, responseCode, System.nanoTime() - start);
+				permit.release();
+				attemptScope.close();
+				attempt.setAttribute("http.status_code", responseCode);
+				attempt.end();
 			}
 
-		} finally {
-			// always make sure we close the connection
-			if (conn != null) {
-				conn.disconnect();
-			}
+			// the connection is released while waiting
+			sleepBeforeRetry(retryDelay, "error");
+			RemoteMetrics.recordRetry(url, "error");
+			context.logger.println("Retry attempt #" + retryState.getFailures());
 		}
-		return new ConnectionResponse(responseHeader, responseObject, responseCode);
 	}
 
-	private static ConnectionResponse tryCall(String urlString, String method, BuildContext context,
-			Map<String, Object> params, int pollInterval, int retryLimit, Auth2 overrideAuth, StringBuilder rawRespRef,
-			Semaphore lock, boolean isCrubmCacheEnabled) throws IOException, InterruptedException {
-		if (lock == null) {
-			context.logger.println("calling remote without locking...");
-			return sendHTTPCall(urlString, method, context, null, 1, pollInterval, retryLimit, overrideAuth, rawRespRef,
-					isCrubmCacheEnabled);
-		}
-		Boolean isAccquired = null;
+	/**
+	 * Sleeps between two attempts of a request, traced as a child span of the request.
+	 */
+	private static void sleepBeforeRetry(long retryDelay, String reason) throws InterruptedException {
+		Span sleep = Tracer.startSpan("retry sleep");
+		sleep.setAttribute("retry.reason", reason);
+		sleep.setAttribute("retry.delay_ms", retryDelay);
 		try {
-			try {
-				isAccquired = lock.tryAcquire(pollInterval, TimeUnit.SECONDS);
-				logger.log(Level.FINE, String.format("calling %s in semaphore...", urlString));
+			Thread.sleep(retryDelay);
+		} finally {
+			sleep.end();
+		}
+	}
 
-				// if we can't lock, just let it go.
-			} catch (InterruptedException e) {
-				logger.log(Level.WARNING, "fail to accquire lock because of interrupt, skip locking...", e);
-				context.logger.println("fail to accquire lock because of interrupt, skip locking...");
-			}
-			if (isAccquired != null && !isAccquired) {
-				logger.warning("fail to accquire lock because of timeout, skip locking...");
-				context.logger.println("fail to accquire lock because of timeout, skip locking...");
-			}
+	/**
+	 * @return the address of the remote server, or the host of the URL if the address of
+	 *         the server is not known.
+	 */
+	private static String getServerAddress(BuildContext context, URL url) {
+		String address = context.effectiveRemoteServer.getAddress();
+		if (isEmpty(address)) {
+			address = url.getProtocol() + "://" + url.getAuthority();
+		}
+		return address;
+	}
 
-			ConnectionResponse cr = sendHTTPCall(urlString, method, context, params, 1, pollInterval, retryLimit,
-					overrideAuth, rawRespRef, isCrubmCacheEnabled);
-			return cr;
+	/**
+	 * @return the circuit breaker of the host of the URL, the same key as for the connection limiter.
+	 */
+	private static CircuitBreaker getCircuitBreaker(URL url) {
+		return CircuitBreaker.forAddress(HostConcurrencyLimiter.getHost(url));
+	}
 
+	/**
+	 * Waits until the request rate limit of the remote server allows another request. Every attempt
+	 * takes a token, also retries. The poller postpones polls while no token is available, so polls
+	 * rarely wait here.
+	 */
+	private static void waitForRateLimit(BuildContext context, URL url, boolean postMode)
+			throws InterruptedException {
+		RequestRateLimiter limiter = RequestRateLimiter.forAddress(getServerAddress(context, url),
+				context.effectiveRemoteServer);
+		TokenBucket bucket = postMode ? limiter.getTriggerBucket() : limiter.getStatusBucket();
+		long waitNanos = bucket.reserve();
+		RemoteMetrics.recordRateLimitWait(url, Math.max(0, waitNanos));
+		if (waitNanos <= 0) {
+			return;
+		}
+		bucket.recordThrottled(waitNanos);
+		context.logger.println(String.format("Request rate limit of the remote server reached, waiting %.1f seconds.",
+				waitNanos / 1e9));
+		Span span = Tracer.startSpan("rate limit wait");
+		try {
+			TimeUnit.NANOSECONDS.sleep(waitNanos);
 		} finally {
-			if (isAccquired != null && isAccquired) {
-				lock.release();
-			}
+			span.end();
 		}
 	}
 
+	/**
+	 * Waits for a permit of the concurrency limiter of the host of the URL, limited by
+	 * the settings of the remote server.
+	 */
+	private static HostConcurrencyLimiter.Permit acquirePermit(BuildContext context, URL url, Priority priority)
+			throws IOException, InterruptedException {
+		RemoteJenkinsServer server = context.effectiveRemoteServer;
+		HostConcurrencyLimiter limiter = HostConcurrencyLimiter.forHost(HostConcurrencyLimiter.getHost(url));
+		if (limiter.getQueueLength() > 0) {
+			logger.log(Level.FINE, "waiting for a free connection: {0}", limiter);
+		}
+		return limiter.acquire(server.getMaxConnections(), priority, server.getConnectionQueueTimeout(),
+				TimeUnit.SECONDS);
+	}
+
 	public static ConnectionResponse tryPost(String urlString, BuildContext context, Map<String, Object> params,
-			int pollInterval, int retryLimit, Auth2 overrideAuth, Semaphore lock, boolean isCrubmCacheEnabled)
+			int retryLimit, Auth2 overrideAuth, boolean isCrubmCacheEnabled)
 			throws IOException, InterruptedException {
 
-		return tryCall(urlString, HTTP_POST, context, params, pollInterval, retryLimit, overrideAuth, null, lock,isCrubmCacheEnabled);
+		return sendHTTPCall(urlString, HTTP_POST, context, params, retryLimit, overrideAuth, null, isCrubmCacheEnabled,
+				null, null, false);
 	}
 
+	public static ConnectionResponse tryGet(String urlString, BuildContext context, int retryLimit,
+			Auth2 overrideAuth) throws IOException, InterruptedException {
+		return tryGet(urlString, context, retryLimit, overrideAuth, null);
+	}
+
+	/**
+	 * Same as {@link #tryGet(String, BuildContext, int, Auth2)}, but only keeps the
+	 * given fields of the JSON response.
+	 *
+	 * @param projection
+	 *            the fields of the response to keep, or null to keep all of them.
+	 */
+	public static ConnectionResponse tryGet(String urlString, BuildContext context, int retryLimit,
+			Auth2 overrideAuth, JsonProjection projection) throws IOException, InterruptedException {
+		return sendHTTPCall(urlString, HTTP_GET, context, null, retryLimit, overrideAuth, null, false, projection,
+				null, false);
+	}
+
+	/**
+	 * Same as {@link #tryGet(String, BuildContext, int, Auth2, JsonProjection)}, but sends the request
+	 * conditionally: if the resource did not change since the last request for the same URL, the
+	 * response has the response code 304 and the body of the last response, which must not be modified.
+	 * Intended for status and metadata requests repeated while waiting for a remote build.
+	 *
+	 * @param projection
+	 *            the fields of the response to keep, or null to keep all of them.
+	 */
+	public static ConnectionResponse tryGetConditional(String urlString, BuildContext context, int retryLimit,
+			Auth2 overrideAuth, JsonProjection projection) throws IOException, InterruptedException {
+		return sendHTTPCall(urlString, HTTP_GET, context, null, retryLimit, overrideAuth, null, false, projection,
+				null, true);
+	}
+
+	public static String tryGetRawResp(String urlString, BuildContext context, int retryLimit,
+			Auth2 overrideAuth) throws IOException, InterruptedException {
+		StringBuilder resp = new StringBuilder();
+		tryGetRawResp(urlString, context, retryLimit, overrideAuth, resp);
+		return resp.toString();
+	}
+
+	/**
+	 * Same as {@link #tryGetRawResp(String, BuildContext, int, Auth2)}, but also returns the header
+	 * and the response code.
+	 *
+	 * @param resp
+	 *            the raw response body is appended to it.
+	 */
+	static ConnectionResponse tryGetRawResp(String urlString, BuildContext context, int retryLimit,
+			Auth2 overrideAuth, StringBuilder resp) throws IOException, InterruptedException {
+		return sendHTTPCall(urlString, HTTP_GET, context, null, retryLimit, overrideAuth, resp, false, null, null,
+				false);
+	}
+
+	/**
+	 * Sends a GET request and copies the response body to the given stream using a fixed size
+	 * buffer, so that even huge responses (e.g. console logs) are never held in memory.
+	 *
+	 * @param out
+	 *            the stream to copy the response body to. It is not closed.
+	 * @return the response, containing the header and response code but no body.
+	 */
+	public static ConnectionResponse tryGetToStream(String urlString, BuildContext context, int retryLimit,
+			Auth2 overrideAuth, OutputStream out) throws IOException, InterruptedException {
+		return sendHTTPCall(urlString, HTTP_GET, context, null, retryLimit, overrideAuth, null, false, null, out, false);
+	}
+
+	/**
+	 * @deprecated the poll interval and the lock are ignored, the retries are timed by the retry policy
+	 *             and the connections are limited per remote host. Use
+	 *             {@link #tryPost(String, BuildContext, Map, int, Auth2, boolean)} instead.
+	 */
+	@Deprecated
+	public static ConnectionResponse tryPost(String urlString, BuildContext context, Map<String, Object> params,
+			int pollInterval, int retryLimit, Auth2 overrideAuth, Semaphore lock, boolean isCrubmCacheEnabled)
+			throws IOException, InterruptedException {
+		return tryPost(urlString, context, params, retryLimit, overrideAuth, isCrubmCacheEnabled);
+	}
+
+	/**
+	 * @deprecated the poll interval and the lock are ignored, use {@link #tryGet(String, BuildContext, int, Auth2)} instead.
+	 */
+	@Deprecated
 	public static ConnectionResponse tryGet(String urlString, BuildContext context, int pollInterval, int retryLimit,
 			Auth2 overrideAuth, Semaphore lock) throws IOException, InterruptedException {
-		return tryCall(urlString, HTTP_GET, context, null, pollInterval, retryLimit, overrideAuth, null, lock, false);
+		return tryGet(urlString, context, retryLimit, overrideAuth);
 	}
 
+	/**
+	 * @deprecated the poll interval and the lock are ignored, use
+	 *             {@link #tryGetRawResp(String, BuildContext, int, Auth2)} instead.
+	 */
+	@Deprecated
 	public static String tryGetRawResp(String urlString, BuildContext context, int pollInterval, int retryLimit,
 			Auth2 overrideAuth, Semaphore lock) throws IOException, InterruptedException {
-		StringBuilder resp = new StringBuilder();
-		tryCall(urlString, HTTP_GET, context, null, pollInterval, retryLimit, overrideAuth, resp, lock, false);
-		return resp.toString();
+		return tryGetRawResp(urlString, context, retryLimit, overrideAuth);
 	}
 
+	/**
+	 * @deprecated the poll interval is ignored, use {@link #tryPost(String, BuildContext, Map, int, Auth2, boolean)} instead.
+	 */
+	@Deprecated
 	public static ConnectionResponse post(String urlString, BuildContext context, Map<String, Object> params,
 			int pollInterval, int retryLimit, Auth2 overrideAuth, boolean isCrubmCacheEnabled) throws IOException, InterruptedException {
-		return tryPost(urlString, context, params, pollInterval, retryLimit, overrideAuth, null, isCrubmCacheEnabled);
+		return tryPost(urlString, context, params, retryLimit, overrideAuth, isCrubmCacheEnabled);
 	}
 
+	/**
+	 * @deprecated the poll interval is ignored, use {@link #tryGet(String, BuildContext, int, Auth2)} instead.
+	 */
+	@Deprecated
 	public static ConnectionResponse get(String urlString, BuildContext context, int pollInterval, int retryLimit,
 			Auth2 overrideAuth) throws IOException, InterruptedException {
-		return tryGet(urlString, context, pollInterval, retryLimit, overrideAuth, null);
+		return tryGet(urlString, context, retryLimit, overrideAuth);
 	}
 
+	/**
+	 * @deprecated only the retry limit is used, use {@link #tryGetRawResp(String, BuildContext, int, Auth2)} instead.
+	 */
+	@Deprecated
 	public static String getRawResp(String urlString, String requestType, BuildContext context,
 			Collection<String> postParams, int numberOfAttempts, int pollInterval, int retryLimit, Auth2 overrideAuth)
 			throws IOException, InterruptedException {
-		return tryGetRawResp(urlString, context, pollInterval, retryLimit, overrideAuth, null);
+		return tryGetRawResp(urlString, context, retryLimit, overrideAuth);
 	}
 
 }
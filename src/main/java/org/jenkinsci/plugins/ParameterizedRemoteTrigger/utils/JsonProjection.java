@@ -0,0 +1,189 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * The fields of a JSON response a caller is interested in, written in the syntax of
+ * the <code>tree</code> parameter of the Jenkins remote API, e.g.
+ * <code>building,result,executable[number,url]</code>.
+ *
+ * A projection is used by the {@link StreamingJsonParser} to only keep the selected fields
+ * of a response, and can be sent as <code>tree</code> parameter so the remote Jenkins
+ * does not even render the other ones. Ranges like <code>builds[number]{0,10}</code> are
+ * accepted but only evaluated by the remote side.
+ */
+public final class JsonProjection
+{
+
+    /**
+     * Selects a value including all its fields.
+     */
+    public static final JsonProjection ALL = new JsonProjection(null, "");
+
+    /**
+     * The selected fields, or null if all fields are selected.
+     */
+    @CheckForNull
+    private final Map<String, JsonProjection> fields;
+
+    /**
+     * The range of a selected array field, e.g. <code>{0,10}</code>, or empty.
+     */
+    @Nonnull
+    private final String range;
+
+    /**
+     * The projection in the syntax of the <code>tree</code> parameter, built once as it is part of every URL.
+     */
+    @Nonnull
+    private final String tree;
+
+    private JsonProjection(@CheckForNull Map<String, JsonProjection> fields, @Nonnull String range)
+    {
+        this.fields = fields == null ? null : Collections.unmodifiableMap(fields);
+        this.range = range;
+        StringBuilder sb = new StringBuilder();
+        appendFields(sb);
+        this.tree = sb.toString();
+    }
+
+    /**
+     * Parses a projection in the syntax of the <code>tree</code> parameter.
+     *
+     * @param tree
+     *            the fields to select, e.g. <code>building,result,executable[number,url]</code>.
+     * @return the projection.
+     * @throws IllegalArgumentException
+     *            if the tree is malformed.
+     */
+    @Nonnull
+    public static JsonProjection parse(@Nonnull String tree)
+    {
+        Parser parser = new Parser(tree);
+        JsonProjection projection = parser.parseFields();
+        if (parser.pos < tree.length()) {
+            throw new IllegalArgumentException(String.format("Unexpected '%s' at %d in tree: %s",
+                        tree.charAt(parser.pos), parser.pos, tree));
+        }
+        return projection;
+    }
+
+    /**
+     * @return true if all fields of the value are selected.
+     */
+    public boolean isAll()
+    {
+        return fields == null;
+    }
+
+    /**
+     * Gets the projection of a field of a JSON object.
+     *
+     * @param name
+     *            the name of the field.
+     * @return the projection for the value of the field, or null if the field is not selected.
+     */
+    @CheckForNull
+    public JsonProjection getField(@Nonnull String name)
+    {
+        return fields == null ? ALL : fields.get(name);
+    }
+
+    /**
+     * @return the projection in the syntax of the <code>tree</code> parameter.
+     */
+    @Override
+    public String toString()
+    {
+        return tree;
+    }
+
+    private void appendFields(StringBuilder sb)
+    {
+        if (fields == null) return;
+        boolean first = true;
+        for (Map.Entry<String, JsonProjection> field : fields.entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append(field.getKey());
+            JsonProjection value = field.getValue();
+            if (!value.isAll()) {
+                sb.append('[');
+                sb.append(value.tree);
+                sb.append(']');
+            }
+            sb.append(value.range);
+        }
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return tree.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return obj instanceof JsonProjection && tree.equals(((JsonProjection) obj).tree);
+    }
+
+    private static class Parser
+    {
+        private final String tree;
+        private int pos;
+
+        Parser(String tree)
+        {
+            this.tree = tree;
+        }
+
+        JsonProjection parseFields()
+        {
+            Map<String, JsonProjection> fields = new LinkedHashMap<String, JsonProjection>();
+            do {
+                if (pos < tree.length() && tree.charAt(pos) == ',') pos++;
+                String name = parseName();
+                JsonProjection value = ALL;
+                if (pos < tree.length() && tree.charAt(pos) == '[') {
+                    pos++;
+                    int start = pos;
+                    value = parseFields();
+                    if (pos >= tree.length() || tree.charAt(pos) != ']') {
+                        throw new IllegalArgumentException("Missing ']' for '[' at " + (start - 1) + " in tree: " + tree);
+                    }
+                    pos++;
+                }
+                String fieldRange = parseRange();
+                if (!fieldRange.isEmpty()) value = new JsonProjection(value.fields, fieldRange);
+                fields.put(name, value);
+            } while (pos < tree.length() && tree.charAt(pos) == ',');
+            return new JsonProjection(fields, "");
+        }
+
+        private String parseName()
+        {
+            int start = pos;
+            while (pos < tree.length() && "[]{},".indexOf(tree.charAt(pos)) < 0) pos++;
+            String name = tree.substring(start, pos).trim();
+            if (name.isEmpty()) throw new IllegalArgumentException("Missing field name at " + start + " in tree: " + tree);
+            return name;
+        }
+
+        private String parseRange()
+        {
+            if (pos >= tree.length() || tree.charAt(pos) != '{') return "";
+            int end = tree.indexOf('}', pos);
+            if (end < 0) throw new IllegalArgumentException("Missing '}' for '{' at " + pos + " in tree: " + tree);
+            String range = tree.substring(pos, end + 1);
+            pos = end + 1;
+            return range;
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The fields requested from the remote API, for every kind of request sent to it.
+ *
+ * Every request is sent with its projection as <code>tree</code> parameter, so the remote Jenkins
+ * only renders these fields and not e.g. the actions, change sets and artifacts of a build, and the
+ * same projection is used to parse the response. A field needed by a call site has to be added here.
+ */
+public final class RemoteApi
+{
+
+    /**
+     * The status of a build, see {@link org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteBuildConfiguration#updateBuildInfo}.
+     */
+    public static final JsonProjection BUILD_STATUS = JsonProjection.parse("building,result,timestamp,estimatedDuration");
+
+    /**
+     * The status of the recent builds of a job, polled in one batch.
+     */
+    public static final JsonProjection RUNNING_BUILDS = JsonProjection
+                .parse("builds[number,result,building,timestamp,estimatedDuration]");
+
+    /**
+     * The state of a queue item, see {@link org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.QueueItemData}.
+     */
+    public static final JsonProjection QUEUE_ITEM = JsonProjection
+                .parse("blocked,buildable,pending,cancelled,why,executable[number,url]");
+
+    /**
+     * The state of all items of the remote queue, polled in one batch.
+     */
+    public static final JsonProjection QUEUE_ITEMS = JsonProjection
+                .parse("items[id,blocked,buildable,pending,why,cancelled,executable[number,url]]");
+
+    /**
+     * The names and parameter definitions of a job, needed to trigger it.
+     */
+    public static final JsonProjection JOB_METADATA = JsonProjection.parse(
+                "actions[parameterDefinitions],property[parameterDefinitions],name,fullName,displayName,fullDisplayName,url");
+
+    private static final String API_PATH = "api/json/?tree=";
+
+    private RemoteApi()
+    {
+    }
+
+    /**
+     * @param url
+     *            the URL of a remote object, e.g. a build, a job or the queue.
+     * @param tree
+     *            the fields to request.
+     * @return the URL of the JSON API of the object, only requesting the given fields.
+     */
+    @Nonnull
+    public static String getApiUrl(@Nonnull String url, @Nonnull JsonProjection tree)
+    {
+        String fields = tree.toString();
+        StringBuilder sb = new StringBuilder(url.length() + API_PATH.length() + fields.length() + 1);
+        sb.append(url);
+        if (!url.endsWith("/")) sb.append('/');
+        return sb.append(API_PATH).append(fields).toString();
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.annotation.Nonnull;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteJenkinsServer;
+
+/**
+ * Limits the rate of requests to a remote Jenkins address, e.g. to stay below the request quota
+ * of a reverse proxy in front of it.
+ *
+ * Requests triggering or aborting builds (POST) and requests reading the status of builds (GET)
+ * take their tokens from separate {@link TokenBucket}s, so that a lot of polling can not hold back
+ * triggering new builds. Each bucket allows bursts of up to one second worth of requests.
+ *
+ * Every request takes a token, also each retry. The poller postpones a poll while the status bucket
+ * is empty, so that its requests rarely wait for a token on the I/O threads.
+ */
+public final class RequestRateLimiter
+{
+
+    private static final Map<String, RequestRateLimiter> LIMITERS = new ConcurrentHashMap<String, RequestRateLimiter>();
+
+    private final TokenBucket triggerBucket;
+    private final TokenBucket statusBucket;
+
+    private RequestRateLimiter(@Nonnull String address)
+    {
+        triggerBucket = new TokenBucket(address + " triggers", 0, 1);
+        statusBucket = new TokenBucket(address + " status requests", 0, 1);
+    }
+
+    /**
+     * @param address
+     *            the address of a remote Jenkins server.
+     * @param server
+     *            the configuration providing the rates, applied to the limiter of the address.
+     * @return the rate limiter of the address.
+     */
+    @Nonnull
+    public static RequestRateLimiter forAddress(@Nonnull String address, @Nonnull RemoteJenkinsServer server)
+    {
+        String key = address.endsWith("/") ? address.substring(0, address.length() - 1) : address;
+        RequestRateLimiter limiter = LIMITERS.get(key);
+        if (limiter == null) {
+            RequestRateLimiter created = new RequestRateLimiter(key);
+            limiter = LIMITERS.putIfAbsent(key, created);
+            if (limiter == null) limiter = created;
+        }
+        limiter.configure(server.getTriggerRateLimit(), server.getStatusRateLimit());
+        return limiter;
+    }
+
+    /**
+     * @return the state of all rate limiters, sorted by address.
+     */
+    @Nonnull
+    public static List<String> getStates()
+    {
+        List<String> states = new ArrayList<String>();
+        for (RequestRateLimiter limiter : new ConcurrentSkipListMap<String, RequestRateLimiter>(LIMITERS).values()) {
+            states.add(limiter.triggerBucket.toString());
+            states.add(limiter.statusBucket.toString());
+        }
+        return states;
+    }
+
+    /**
+     * @return the bucket for requests changing the state of the remote server (POST).
+     */
+    @Nonnull
+    public TokenBucket getTriggerBucket()
+    {
+        return triggerBucket;
+    }
+
+    /**
+     * @return the bucket for requests reading the state of the remote server (GET).
+     */
+    @Nonnull
+    public TokenBucket getStatusBucket()
+    {
+        return statusBucket;
+    }
+
+    private void configure(double triggerRate, double statusRate)
+    {
+        triggerBucket.configure(triggerRate, (int) Math.ceil(triggerRate));
+        statusBucket.configure(statusRate, (int) Math.ceil(statusRate));
+    }
+
+}
@@ -7,9 +7,12 @@ import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.ConnectionResponse;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteBuildConfiguration;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.ExceedRetryLimitException;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.UrlNotFoundException;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.pipeline.Handle;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildInfo;
 
+import hudson.AbortException;
+
 /*
  * Going to migrate all rest APIs to here
  * */
@@ -20,12 +23,15 @@ public class RestUtils {
 	public static ConnectionResponse cancelQueueItem(String rootUrl, Handle handle, BuildContext context,
 			RemoteBuildConfiguration remoteConfig) throws IOException, InterruptedException {
 
-		String cancelQueueUrl = String.format("%s/queue/cancelItem?id=%s", rootUrl, handle.getQueueId());
+		String cancelQueueUrl = handle.getBuildInfo().getUrls(rootUrl).getCancelUrl();
+		if (cancelQueueUrl == null) {
+			throw new AbortException("The remote server address or the queue id is not known.");
+		}
 		ConnectionResponse resp = null;
 		try {
-			resp = HttpHelper.tryPost(cancelQueueUrl, context, null, remoteConfig.getPollInterval() * 2, 0,
-					remoteConfig.getAuth2(), remoteConfig.getLock(cancelQueueUrl), remoteConfig.isUseCrumbCache());
-		} catch (ExceedRetryLimitException e) {
+			resp = HttpHelper.tryPost(cancelQueueUrl, context, null, 0, remoteConfig.getAuth2(),
+					remoteConfig.isUseCrumbCache());
+		} catch (ExceedRetryLimitException | UrlNotFoundException e) {
 			// Due to https://issues.jenkins-ci.org/browse/JENKINS-21311, we can't tell
 			// whether the action was succeed,
 			// Only try once and treat it as success
@@ -39,10 +45,12 @@ public class RestUtils {
 			RemoteBuildConfiguration remoteConfig) throws IOException, InterruptedException {
 
 		RemoteBuildInfo buildInfo = handle.getBuildInfo();
-		String stopJobUrl = String.format("%sstop", buildInfo.getBuildURL());
-		ConnectionResponse resp = HttpHelper.tryPost(stopJobUrl, context, null, remoteConfig.getPollInterval(),
-				remoteConfig.getConnectionRetryLimit(), remoteConfig.getAuth2(), remoteConfig.getLock(stopJobUrl),
-				remoteConfig.isUseCrumbCache());
+		String stopJobUrl = buildInfo.getUrls(context.effectiveRemoteServer.getAddress()).getStopUrl();
+		if (stopJobUrl == null) {
+			throw new AbortException("The URL of the remote build is not known.");
+		}
+		ConnectionResponse resp = HttpHelper.tryPost(stopJobUrl, context, null, remoteConfig.getConnectionRetryLimit(),
+				remoteConfig.getAuth2(), remoteConfig.isUseCrumbCache());
 		context.logger.println(String.format("Remote Job:%s was aborted!", buildInfo.getBuildURL()));
 		return resp;
 	}
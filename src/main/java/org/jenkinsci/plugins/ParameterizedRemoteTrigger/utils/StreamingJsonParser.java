@@ -0,0 +1,294 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONException;
+import net.sf.json.JSONNull;
+import net.sf.json.JSONObject;
+
+/**
+ * Parses a JSON object directly from a {@link Reader}, without reading the whole
+ * response into a String first.
+ *
+ * Only the fields selected by a {@link JsonProjection} are materialized as json-lib
+ * objects, all other values are skipped while reading. This keeps the memory used for
+ * big responses (e.g. job metadata with many parameter definitions) proportional to
+ * the fields the caller actually needs.
+ */
+public final class StreamingJsonParser
+{
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+
+    private StreamingJsonParser(@Nonnull Reader reader)
+    {
+        this.reader = reader;
+    }
+
+    /**
+     * Parses a JSON object from the reader.
+     *
+     * @param reader
+     *            the reader to parse from. It is not closed.
+     * @param projection
+     *            the fields to keep, {@link JsonProjection#ALL} to keep all of them.
+     * @return the JSON object containing only the selected fields, or null if the input is empty
+     *         or does not start with a JSON object (e.g. a plain text response).
+     * @throws IOException
+     *            if reading fails.
+     * @throws JSONException
+     *            if the input is not well-formed JSON.
+     */
+    @CheckForNull
+    public static JSONObject parseObject(@Nonnull Reader reader, @Nonnull JsonProjection projection) throws IOException
+    {
+        StreamingJsonParser parser = new StreamingJsonParser(reader);
+        int c = parser.peekNonWhitespace();
+        if (c != '{') return null;
+        return parser.readObject(projection);
+    }
+
+    private JSONObject readObject(JsonProjection projection) throws IOException
+    {
+        expect('{');
+        JSONObject object = new JSONObject();
+        if (peekNonWhitespace() == '}') {
+            pos++;
+            return object;
+        }
+        while (true) {
+            if (peekNonWhitespace() != '"') throw syntaxError("Expected field name");
+            String name = readString();
+            expectNonWhitespace(':');
+            JsonProjection fieldProjection = projection.getField(name);
+            if (fieldProjection == null) {
+                skipValue();
+            } else {
+                object.element(name, readValue(fieldProjection));
+            }
+            int c = nextNonWhitespace();
+            if (c == '}') return object;
+            if (c != ',') throw syntaxError("Expected ',' or '}'");
+        }
+    }
+
+    private JSONArray readArray(JsonProjection projection) throws IOException
+    {
+        expect('[');
+        JSONArray array = new JSONArray();
+        if (peekNonWhitespace() == ']') {
+            pos++;
+            return array;
+        }
+        while (true) {
+            array.element(readValue(projection));
+            int c = nextNonWhitespace();
+            if (c == ']') return array;
+            if (c != ',') throw syntaxError("Expected ',' or ']'");
+        }
+    }
+
+    private Object readValue(JsonProjection projection) throws IOException
+    {
+        int c = peekNonWhitespace();
+        switch (c) {
+            case '{':
+                return readObject(projection);
+            case '[':
+                return readArray(projection);
+            case '"':
+                return readString();
+            case 't':
+                expectLiteral("true");
+                return Boolean.TRUE;
+            case 'f':
+                expectLiteral("false");
+                return Boolean.FALSE;
+            case 'n':
+                expectLiteral("null");
+                return JSONNull.getInstance();
+            case -1:
+                throw syntaxError("Unexpected end of input");
+            default:
+                return readNumber();
+        }
+    }
+
+    /**
+     * Skips the next value without creating any objects for it.
+     */
+    private void skipValue() throws IOException
+    {
+        int depth = 0;
+        do {
+            int c = peekNonWhitespace();
+            switch (c) {
+                case '{':
+                case '[':
+                    pos++;
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    if (depth == 0) throw syntaxError("Expected value");
+                    pos++;
+                    depth--;
+                    break;
+                case '"':
+                    skipString();
+                    break;
+                case ',':
+                case ':':
+                    if (depth == 0) throw syntaxError("Expected value");
+                    pos++;
+                    break;
+                case -1:
+                    throw syntaxError("Unexpected end of input");
+                default:
+                    // literal or number
+                    while ((c = peek()) != -1 && ",:]} \t\r\n".indexOf(c) < 0) pos++;
+            }
+        } while (depth > 0);
+    }
+
+    private String readString() throws IOException
+    {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            int c = next();
+            if (c == '"') return sb.toString();
+            if (c == -1) throw syntaxError("Unterminated string");
+            if (c == '\\') {
+                sb.append(readEscape());
+            } else {
+                sb.append((char) c);
+            }
+        }
+    }
+
+    private void skipString() throws IOException
+    {
+        expect('"');
+        while (true) {
+            int c = next();
+            if (c == '"') return;
+            if (c == -1) throw syntaxError("Unterminated string");
+            if (c == '\\') readEscape();
+        }
+    }
+
+    private char readEscape() throws IOException
+    {
+        int c = next();
+        switch (c) {
+            case '"': return '"';
+            case '\\': return '\\';
+            case '/': return '/';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(next(), 16);
+                    if (digit < 0) throw syntaxError("Invalid unicode escape");
+                    value = (value << 4) + digit;
+                }
+                return (char) value;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    private Number readNumber() throws IOException
+    {
+        StringBuilder sb = new StringBuilder();
+        boolean decimal = false;
+        int c;
+        while ((c = peek()) != -1 && "+-0123456789.eE".indexOf(c) >= 0) {
+            if (c == '.' || c == 'e' || c == 'E') decimal = true;
+            sb.append((char) c);
+            pos++;
+        }
+        if (sb.length() == 0) throw syntaxError("Unexpected character");
+        try {
+            if (decimal) return Double.valueOf(sb.toString());
+            long value = Long.parseLong(sb.toString());
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) return Integer.valueOf((int) value);
+            return Long.valueOf(value);
+        }
+        catch (NumberFormatException e) {
+            throw syntaxError("Invalid number '" + sb + "'");
+        }
+    }
+
+    private void expectLiteral(String literal) throws IOException
+    {
+        for (int i = 0; i < literal.length(); i++) {
+            if (next() != literal.charAt(i)) throw syntaxError("Expected '" + literal + "'");
+        }
+    }
+
+    private void expect(char expected) throws IOException
+    {
+        if (next() != expected) throw syntaxError("Expected '" + expected + "'");
+    }
+
+    private void expectNonWhitespace(char expected) throws IOException
+    {
+        if (nextNonWhitespace() != expected) throw syntaxError("Expected '" + expected + "'");
+    }
+
+    private int nextNonWhitespace() throws IOException
+    {
+        int c = peekNonWhitespace();
+        if (c != -1) pos++;
+        return c;
+    }
+
+    private int peekNonWhitespace() throws IOException
+    {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t' || c == '\r' || c == '\n') pos++;
+        return c;
+    }
+
+    private int next() throws IOException
+    {
+        int c = peek();
+        if (c != -1) pos++;
+        return c;
+    }
+
+    private int peek() throws IOException
+    {
+        if (pos >= limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[pos];
+    }
+
+    private JSONException syntaxError(String message)
+    {
+        return new JSONException(message + " in JSON response");
+    }
+
+}
@@ -0,0 +1,152 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A token bucket limiting the rate of requests.
+ *
+ * The bucket is refilled continuously with the configured number of tokens per second, up to
+ * its capacity, and every request takes one token. Callers do not block in here: {@link #reserve()}
+ * takes a token right away, going into debt if the bucket is empty, and returns how long the caller
+ * has to wait before sending its request. {@link #tryReserve()} only takes a token if one is available
+ * and otherwise tells the wait time, so that scheduled callers can re-schedule themselves instead of waiting.
+ *
+ * A rate of 0 or less disables the limit.
+ */
+public final class TokenBucket
+{
+
+    private final String name;
+
+    // all fields below are guarded by this
+    private double ratePerSecond;
+    private double capacity;
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+    private long requests;
+    private long throttledRequests;
+    private long throttledNanos;
+    private long maxThrottledNanos;
+
+    /**
+     * @param name
+     *            the name of the bucket, used for the statistics.
+     * @param ratePerSecond
+     *            the number of requests per second, 0 or less for no limit.
+     * @param capacity
+     *            the maximum number of requests sent in a burst.
+     */
+    public TokenBucket(@Nonnull String name, double ratePerSecond, int capacity)
+    {
+        this.name = name;
+        configure(ratePerSecond, capacity);
+        this.tokens = this.capacity;
+    }
+
+    /**
+     * Changes the rate and capacity. Tokens taken so far are kept.
+     *
+     * @param ratePerSecond
+     *            the number of requests per second, 0 or less for no limit.
+     * @param capacity
+     *            the maximum number of requests sent in a burst.
+     */
+    public synchronized void configure(double ratePerSecond, int capacity)
+    {
+        refill(System.nanoTime());
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = Math.max(1, capacity);
+        tokens = Math.min(tokens, this.capacity);
+    }
+
+    /**
+     * Takes a token for a request.
+     *
+     * @return the time in nanoseconds the request has to wait until its token is available, 0 to send it right away.
+     */
+    public synchronized long reserve()
+    {
+        requests++;
+        if (ratePerSecond <= 0) return 0;
+        refill(System.nanoTime());
+        tokens -= 1;
+        return tokens >= 0 ? 0 : toNanos(-tokens);
+    }
+
+    /**
+     * Takes a token for a request, but only if one is available now.
+     *
+     * @return 0 if a token has been taken, otherwise the time in nanoseconds until one is available.
+     *         No token is taken then, so the request must not be sent.
+     */
+    public synchronized long tryReserve()
+    {
+        if (ratePerSecond > 0) {
+            refill(System.nanoTime());
+            if (tokens < 1) return toNanos(1 - tokens);
+            tokens -= 1;
+        }
+        requests++;
+        return 0;
+    }
+
+    /**
+     * @return the time in nanoseconds until a token is available, 0 if one is available now.
+     *         No token is taken.
+     */
+    public synchronized long getWaitNanos()
+    {
+        if (ratePerSecond <= 0) return 0;
+        refill(System.nanoTime());
+        return tokens >= 1 ? 0 : toNanos(1 - tokens);
+    }
+
+    /**
+     * Records that a request was held back by this bucket.
+     *
+     * @param nanos
+     *            the time the request was held back.
+     */
+    public synchronized void recordThrottled(long nanos)
+    {
+        throttledRequests++;
+        throttledNanos += nanos;
+        maxThrottledNanos = Math.max(maxThrottledNanos, nanos);
+    }
+
+    public synchronized long getThrottledRequests()
+    {
+        return throttledRequests;
+    }
+
+    public synchronized long getThrottledNanos()
+    {
+        return throttledNanos;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        if (ratePerSecond <= 0) {
+            return String.format("%s: no limit, %d requests", name, requests);
+        }
+        return String.format("%s: %s requests per second, %d requests, %d throttled for %.1f seconds in total (max %.1f seconds)",
+                    name, ratePerSecond, requests, throttledRequests, throttledNanos / 1e9, maxThrottledNanos / 1e9);
+    }
+
+    private void refill(long now)
+    {
+        if (ratePerSecond > 0) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerSecond / TimeUnit.SECONDS.toNanos(1));
+        }
+        lastRefill = now;
+    }
+
+    private long toNanos(double missingTokens)
+    {
+        return (long) Math.ceil(missingTokens * TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+    }
+
+}
@@ -0,0 +1,264 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * A size bounded cache whose entries expire after a time-to-live.
+ *
+ * Reads do not lock: they look up a {@link ConcurrentHashMap} and only record the access
+ * time on the entry. Expired entries are dropped when they are read, or by {@link #purgeExpired()}.
+ * When the capacity is exceeded the least recently used entries are evicted, down to 90% of
+ * the capacity so that evictions happen in batches.
+ *
+ * The time-to-live of every entry is extended by a random jitter of up to 10%, so that entries
+ * cached at the same time do not all expire, and get fetched again, at the same time.
+ */
+public class TtlCache<K, V>
+{
+
+    private final String name;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<K, Entry<V>>();
+    private final Object evictionLock = new Object();
+
+    private volatile long ttlNanos;
+    private volatile int capacity;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param name
+     *            the name of the cache, used for the statistics.
+     * @param ttl
+     *            the time-to-live of the entries.
+     * @param unit
+     *            the unit of the time-to-live.
+     * @param capacity
+     *            the maximum number of entries.
+     */
+    public TtlCache(@Nonnull String name, long ttl, @Nonnull TimeUnit unit, int capacity)
+    {
+        this.name = name;
+        configure(ttl, unit, capacity);
+    }
+
+    /**
+     * Changes the time-to-live and the capacity. Entries already cached keep their expiry time.
+     *
+     * @param ttl
+     *            the time-to-live of the entries.
+     * @param unit
+     *            the unit of the time-to-live.
+     * @param capacity
+     *            the maximum number of entries.
+     */
+    public void configure(long ttl, @Nonnull TimeUnit unit, int capacity)
+    {
+        if (ttl <= 0) throw new IllegalArgumentException("ttl must be positive");
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.ttlNanos = unit.toNanos(ttl);
+        this.capacity = capacity;
+        evictIfNeeded();
+    }
+
+    /**
+     * @param key
+     *            the key.
+     * @return the cached value, or null if there is none or it expired.
+     */
+    @CheckForNull
+    public V get(@Nonnull K key)
+    {
+        Entry<V> entry = entries.get(key);
+        long now = System.nanoTime();
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(now)) {
+            if (entries.remove(key, entry)) expirations.increment();
+            misses.increment();
+            return null;
+        }
+        entry.lastAccess = now;
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Caches a value, replacing a previously cached one.
+     *
+     * @param key
+     *            the key.
+     * @param value
+     *            the value.
+     * @return the value.
+     */
+    @Nonnull
+    public V put(@Nonnull K key, @Nonnull V value)
+    {
+        long now = System.nanoTime();
+        long ttl = ttlNanos;
+        long jitter = ttl >= 10 ? ThreadLocalRandom.current().nextLong(ttl / 10) : 0;
+        entries.put(key, new Entry<V>(value, now + ttl + jitter, now));
+        evictIfNeeded();
+        return value;
+    }
+
+    /**
+     * Removes the cached value of the given key.
+     *
+     * @param key
+     *            the key.
+     */
+    public void invalidate(@Nonnull K key)
+    {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes the given value of the given key, if it is still the cached one.
+     *
+     * @param key
+     *            the key.
+     * @param value
+     *            the value to remove.
+     */
+    public void invalidate(@Nonnull K key, @Nonnull V value)
+    {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.value == value) entries.remove(key, entry);
+    }
+
+    /**
+     * Removes all cached values.
+     */
+    public void invalidateAll()
+    {
+        entries.clear();
+    }
+
+    /**
+     * Removes all expired entries.
+     */
+    public void purgeExpired()
+    {
+        long now = System.nanoTime();
+        for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+            if (entry.getValue().isExpired(now) && entries.remove(entry.getKey(), entry.getValue())) {
+                expirations.increment();
+            }
+        }
+    }
+
+    /**
+     * @return the number of cached entries, including expired ones not purged yet.
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    public long getEvictionCount()
+    {
+        return evictions.sum();
+    }
+
+    public long getExpirationCount()
+    {
+        return expirations.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s: %d entries, %d hits, %d misses, %d evictions, %d expirations", name, size(),
+                    getHitCount(), getMissCount(), getEvictionCount(), getExpirationCount());
+    }
+
+    private void evictIfNeeded()
+    {
+        if (entries.size() <= capacity) return;
+        synchronized (evictionLock) {
+            if (entries.size() <= capacity) return;
+            purgeExpired();
+            int target = Math.max(1, capacity - capacity / 10);
+            if (entries.size() <= target) return;
+
+            // snapshot the access times, they may change while sorting
+            List<Candidate<K, V>> candidates = new ArrayList<Candidate<K, V>>(entries.size());
+            for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+                candidates.add(new Candidate<K, V>(entry.getKey(), entry.getValue()));
+            }
+            Collections.sort(candidates, new Comparator<Candidate<K, V>>() {
+                @Override
+                public int compare(Candidate<K, V> a, Candidate<K, V> b)
+                {
+                    return Long.compare(a.lastAccess - b.lastAccess, 0);
+                }
+            });
+            int toEvict = candidates.size() - target;
+            for (int i = 0; i < toEvict; i++) {
+                Candidate<K, V> candidate = candidates.get(i);
+                if (entries.remove(candidate.key, candidate.entry)) evictions.increment();
+            }
+        }
+    }
+
+    private static final class Candidate<K, V>
+    {
+        final K key;
+        final Entry<V> entry;
+        final long lastAccess;
+
+        Candidate(K key, Entry<V> entry)
+        {
+            this.key = key;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+    }
+
+    private static final class Entry<V>
+    {
+        final V value;
+        final long expiresAt;
+        volatile long lastAccess;
+
+        Entry(V value, long expiresAt, long lastAccess)
+        {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+
+        boolean isExpired(long now)
+        {
+            return now - expiresAt >= 0;
+        }
+    }
+
+}
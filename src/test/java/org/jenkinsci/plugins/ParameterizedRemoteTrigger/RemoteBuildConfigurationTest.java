@@ -12,6 +12,7 @@ import static org.mockito.Mockito.spy;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.MalformedURLException;
+import java.net.URL;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +26,8 @@ import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteBuildConfiguration
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.NullAuth;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.auth2.TokenAuth;
 import org.jenkinsci.plugins.ParameterizedRemoteTrigger.pipeline.RemoteBuildPipelineStep;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.pipeline.RemoteJobSpec;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildInfo;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -227,6 +230,61 @@ public class RemoteBuildConfigurationTest {
       assertEquals("", config.getToken());
     }
 
+    @Test @WithoutJenkins
+    public void testAdaptivePollInterval() throws IOException {
+
+      RemoteBuildConfiguration config = new RemoteBuildConfiguration();
+      config.setPollInterval(10);
+      RemoteBuildInfo buildInfo = new RemoteBuildInfo();
+      buildInfo.setBuildData(1, new URL("http://test:8080/job/job/1/"));
+      long now = System.currentTimeMillis();
+      buildInfo.setTiming(now - 60000, 2 * 3600000);
+
+      assertEquals(10, config.getPollInterval(buildInfo)); //disabled by default
+
+      config.setAdaptivePolling(true);
+      assertEquals(2, config.getMinPollInterval());
+      assertEquals(300, config.getMaxPollInterval());
+      assertEquals(300, config.getPollInterval(buildInfo)); //far from the expected end
+
+      buildInfo.setTiming(now - 3600000, 3600000 + 40000);
+      int interval = config.getPollInterval(buildInfo);
+      assertTrue(interval >= 19 && interval <= 20); //half of the remaining time
+
+      buildInfo.setTiming(now - 3600000, 3600000 + 1000);
+      assertEquals(2, config.getPollInterval(buildInfo)); //close to the expected end
+
+      buildInfo.setTiming(now - 3600000, 3600000 - 80000);
+      interval = config.getPollInterval(buildInfo);
+      assertTrue(interval >= 19 && interval <= 20); //overdue
+
+      buildInfo.setTiming(now - 3600000, -1);
+      assertEquals(10, config.getPollInterval(buildInfo)); //no estimate
+    }
+
+    @Test @WithoutJenkins
+    public void testForJob() throws IOException {
+
+      RemoteBuildConfiguration config = new RemoteBuildConfiguration();
+      config.setRemoteJenkinsUrl("http://test:8080");
+      config.setPollInterval(20);
+      config.setParameters("shared=1");
+
+      RemoteJobSpec spec = new RemoteJobSpec("job2");
+      spec.setParameters("a=1\nb=2");
+      spec.setToken("token2");
+      RemoteBuildConfiguration copy = config.forJob(spec);
+
+      assertNotEquals(config, copy);
+      assertEquals("job2", copy.getJob());
+      assertEquals("a=1\nb=2", copy.getParameters());
+      assertEquals("token2", copy.getToken());
+      assertEquals("http://test:8080", copy.getRemoteJenkinsUrl());
+      assertEquals(20, copy.getPollInterval());
+      assertEquals(true, copy.isUseCrumbCache());
+      assertEquals("shared=1", config.getParameters()); //original unchanged
+    }
+
     @Test @WithoutJenkins
     public void testJobUrlHandling_withoutServer() throws IOException {
         RemoteBuildConfiguration config = new RemoteBuildConfiguration();
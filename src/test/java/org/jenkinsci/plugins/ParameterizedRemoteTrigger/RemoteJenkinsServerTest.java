@@ -42,6 +42,7 @@ public class RemoteJenkinsServerTest {
         assertEquals("displayName", server.getDisplayName(), clone.getDisplayName());
         assertEquals("hasBuildTokenRootSupport", HAS_BUILD_TOKEN_ROOT_SUPPORT, clone.getHasBuildTokenRootSupport());
         assertEquals("hasBuildTokenRootSupport", server.getHasBuildTokenRootSupport(), clone.getHasBuildTokenRootSupport());
+        assertTrue("keepAlive", clone.isKeepAlive());
 
         //Test if original object affected by clone modifications
         clone.setAddress("http://www.changed.org:8443");
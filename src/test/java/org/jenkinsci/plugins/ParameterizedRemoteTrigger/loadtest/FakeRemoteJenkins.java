@@ -0,0 +1,614 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * An embedded HTTP server emulating the endpoints of a remote Jenkins used by the plugin:
+ * <ul>
+ * <li><code>/crumbIssuer/api/xml</code></li>
+ * <li><code>/job/{name}/build</code>, <code>/job/{name}/buildWithParameters</code> and <code>/job/{name}/api/json</code>,
+ * which honors the range of <code>tree=builds[...]{from,to}</code></li>
+ * <li><code>/queue/item/{id}/api/json</code>, <code>/queue/api/json</code> and <code>/queue/cancelItem</code></li>
+ * <li><code>/job/{name}/{number}/api/json</code>, <code>consoleText</code>, <code>logText/progressiveText</code> and <code>stop</code></li>
+ * </ul>
+ * Every job exists and accepts any parameters. A triggered build waits {@link #setQueueDelay(long)} in the queue
+ * and then runs {@link #setBuildDuration(long)}. Each request is delayed by {@link #setLatency(long, long)} and
+ * fails with {@link #setErrorRate(double, int)}, to emulate a slow or overloaded server. Single endpoints can be
+ * made to fail with {@link #setFailures(String, int, int)}. POST requests need the current crumb, which can be
+ * bound to the session it was issued in with {@link #setSessionBound(boolean)} and replaced with
+ * {@link #resetCrumbs()}, like a restart of the remote Jenkins does.
+ * The <code>tree</code> parameter is ignored, the full objects are returned. With {@link #setValidators(boolean)}
+ * the JSON responses carry an <code>ETag</code> and are answered with <code>304 Not Modified</code> if unchanged.
+ */
+public class FakeRemoteJenkins implements AutoCloseable {
+
+    private static final Pattern JOB_PATH = Pattern.compile("^((?:/job/[^/]+)+)(/.*)?$");
+    private static final Pattern BUILD_PATH = Pattern.compile("^/(\\d+)(/.*)?$");
+    private static final Pattern QUEUE_ITEM_PATH = Pattern.compile("^/queue/item/(\\d+)(/.*)?$");
+    private static final Pattern BUILDS_RANGE = Pattern.compile("^builds\\[.*\\]\\{(\\d+),(\\d+)\\}$");
+    private static final String CRUMB_FIELD = "Jenkins-Crumb";
+    private static final String SESSION_COOKIE = "JSESSIONID.fake";
+    private static final int CONSOLE_LINES = 20;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicInteger nextQueueId = new AtomicInteger();
+    private final Map<Integer, FakeBuild> queue = new ConcurrentHashMap<Integer, FakeBuild>();
+    private final Map<String, FakeJob> jobs = new ConcurrentHashMap<String, FakeJob>();
+    private final Map<String, AtomicLong> requests = new ConcurrentHashMap<String, AtomicLong>();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicInteger crumbGeneration = new AtomicInteger();
+    private final AtomicInteger nextSession = new AtomicInteger();
+    /**
+     * The crumbs issued in each session, if the crumbs are bound to sessions.
+     */
+    private final Map<String, String> sessions = new ConcurrentHashMap<String, String>();
+    private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<String, AtomicInteger>();
+    private volatile int failureStatus = 500;
+
+    private volatile long latency;
+    private volatile long latencyJitter;
+    private volatile double errorRate;
+    private volatile int errorStatus = 503;
+    private volatile long queueDelay;
+    private volatile long buildDuration = 1000;
+    private volatile boolean crumbRequired = true;
+    private volatile boolean validators;
+    private volatile boolean sessionBound;
+
+    public FakeRemoteJenkins() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        // requests wait for their latency, so one thread per open connection like a servlet container
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try {
+                handle(exchange);
+            } catch (RuntimeException e) {
+                send(exchange, 500, "text/plain", e.toString());
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * @return the root URL of the server, without trailing slash.
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @param latency
+     *            the time in milliseconds each request is delayed.
+     * @param jitter
+     *            a random additional delay in milliseconds, up to this value.
+     */
+    public void setLatency(long latency, long jitter) {
+        this.latency = latency;
+        this.latencyJitter = jitter;
+    }
+
+    /**
+     * @param errorRate
+     *            the fraction of requests failing, between 0 and 1.
+     * @param status
+     *            the HTTP status of the failing requests, e.g. 503.
+     */
+    public void setErrorRate(double errorRate, int status) {
+        this.errorRate = errorRate;
+        this.errorStatus = status;
+    }
+
+    /**
+     * @param endpoint
+     *            the endpoint, see {@link #getRequestCount(String)}.
+     * @param count
+     *            the number of following requests to the endpoint which fail.
+     * @param status
+     *            the HTTP status of the failing requests, e.g. 500.
+     */
+    public void setFailures(String endpoint, int count, int status) {
+        this.failureStatus = status;
+        failures.put(endpoint, new AtomicInteger(count));
+    }
+
+    /**
+     * @param queueDelay
+     *            the time in milliseconds a triggered build waits in the queue.
+     */
+    public void setQueueDelay(long queueDelay) {
+        this.queueDelay = queueDelay;
+    }
+
+    /**
+     * @param buildDuration
+     *            the time in milliseconds a build runs, also reported as estimated duration.
+     */
+    public void setBuildDuration(long buildDuration) {
+        this.buildDuration = buildDuration;
+    }
+
+    /**
+     * @param crumbRequired
+     *            false to emulate a server without CSRF protection.
+     */
+    public void setCrumbRequired(boolean crumbRequired) {
+        this.crumbRequired = crumbRequired;
+    }
+
+    /**
+     * @param sessionBound
+     *            true to only accept a crumb together with the cookie of the session it was issued in.
+     */
+    public void setSessionBound(boolean sessionBound) {
+        this.sessionBound = sessionBound;
+    }
+
+    /**
+     * Invalidates all crumbs and sessions issued so far, like a restart of the remote Jenkins.
+     */
+    public void resetCrumbs() {
+        crumbGeneration.incrementAndGet();
+        sessions.clear();
+    }
+
+    /**
+     * @param validators
+     *            true to send an <code>ETag</code> with the JSON responses and to honor <code>If-None-Match</code>.
+     */
+    public void setValidators(boolean validators) {
+        this.validators = validators;
+    }
+
+    /**
+     * @return the number of requests answered with <code>304 Not Modified</code>.
+     */
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    /**
+     * @param endpoint
+     *            the endpoint, e.g. <code>buildWithParameters</code>, <code>queueItem</code>, <code>buildApi</code>
+     *            or <code>jobBuildsApi</code> (the job API requesting the state of its builds).
+     * @return the number of requests received by the endpoint, including failed requests.
+     */
+    public long getRequestCount(String endpoint) {
+        AtomicLong count = requests.get(endpoint);
+        return (count == null) ? 0 : count.get();
+    }
+
+    /**
+     * @return the number of requests received by each endpoint.
+     */
+    public Map<String, Long> getRequestCounts() {
+        Map<String, Long> counts = new TreeMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> entry : requests.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
+        }
+        return counts;
+    }
+
+    /**
+     * @return the number of builds triggered so far.
+     */
+    public int getTriggeredBuilds() {
+        return nextQueueId.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        drain(exchange.getRequestBody());
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        String endpoint = getEndpoint(exchange.getRequestURI());
+        count(endpoint);
+
+        long delay = latency + (latencyJitter > 0 ? ThreadLocalRandom.current().nextLong(latencyJitter + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            send(exchange, errorStatus, "text/plain", "Injected error");
+            return;
+        }
+        AtomicInteger failing = failures.get(endpoint);
+        if (failing != null && failing.getAndDecrement() > 0) {
+            send(exchange, failureStatus, "text/plain", "Injected failure");
+            return;
+        }
+        if (crumbRequired && "POST".equals(method) && !endpoint.equals("unknown") && !isValidCrumb(exchange)) {
+            send(exchange, 403, "text/plain", "No valid crumb was included in the request");
+            return;
+        }
+
+        if (endpoint.equals("crumbIssuer")) {
+            if (crumbRequired) send(exchange, 200, "text/plain", CRUMB_FIELD + ":" + issueCrumb(exchange));
+            else send(exchange, 404, "text/plain", "");
+        } else if (endpoint.equals("queueApi")) {
+            sendJson(exchange, queueJson());
+        } else if (endpoint.equals("cancelItem")) {
+            FakeBuild build = queue.get(Integer.parseInt(getQueryParameter(exchange.getRequestURI(), "id")));
+            if (build != null) build.cancel();
+            // like Jenkins, which redirects to the queue page
+            send(exchange, 404, "text/plain", "");
+        } else if (endpoint.equals("queueItem")) {
+            Matcher matcher = QUEUE_ITEM_PATH.matcher(path);
+            matcher.matches();
+            FakeBuild build = queue.get(Integer.parseInt(matcher.group(1)));
+            if (build == null) send(exchange, 404, "text/plain", "");
+            else sendJson(exchange, build.queueItemJson());
+        } else if (endpoint.equals("unknown")) {
+            send(exchange, 404, "text/plain", "");
+        } else {
+            handleJob(exchange, path, method);
+        }
+    }
+
+    private void handleJob(HttpExchange exchange, String path, String method) throws IOException {
+        Matcher matcher = JOB_PATH.matcher(path);
+        matcher.matches();
+        String jobPath = matcher.group(1);
+        String rest = (matcher.group(2) == null) ? "/" : matcher.group(2);
+        FakeJob job = getJob(jobPath);
+
+        if (rest.equals("/build") || rest.equals("/buildWithParameters")) {
+            if (!"POST".equals(method)) {
+                send(exchange, 405, "text/plain", "");
+                return;
+            }
+            FakeBuild build = job.schedule(nextQueueId.incrementAndGet(), queueDelay, buildDuration);
+            queue.put(build.queueId, build);
+            exchange.getResponseHeaders().add("Location", getUrl() + "/queue/item/" + build.queueId + "/");
+            send(exchange, 201, "text/plain", "");
+            return;
+        }
+        if (rest.startsWith("/api/json")) {
+            sendJson(exchange, job.json(getBuildsRange(exchange.getRequestURI())));
+            return;
+        }
+        Matcher buildMatcher = BUILD_PATH.matcher(rest);
+        FakeBuild build = buildMatcher.matches() ? job.getBuild(Integer.parseInt(buildMatcher.group(1))) : null;
+        if (build == null) {
+            send(exchange, 404, "text/plain", "");
+            return;
+        }
+        String buildRest = (buildMatcher.group(2) == null) ? "/" : buildMatcher.group(2);
+        if (buildRest.startsWith("/api/json")) {
+            sendJson(exchange, build.json());
+        } else if (buildRest.equals("/consoleText")) {
+            send(exchange, 200, "text/plain", build.console());
+        } else if (buildRest.equals("/logText/progressiveText")) {
+            String console = build.console();
+            String start = getQueryParameter(exchange.getRequestURI(), "start");
+            int offset = Math.min(console.length(), (start == null) ? 0 : Integer.parseInt(start));
+            exchange.getResponseHeaders().add("X-Text-Size", String.valueOf(console.length()));
+            if (build.isBuilding()) exchange.getResponseHeaders().add("X-More-Data", "true");
+            send(exchange, 200, "text/plain", console.substring(offset));
+        } else if (buildRest.equals("/stop") && "POST".equals(method)) {
+            build.abort();
+            send(exchange, 200, "text/plain", "");
+        } else {
+            send(exchange, 404, "text/plain", "");
+        }
+    }
+
+    private String issueCrumb(HttpExchange exchange) {
+        String crumb = "crumb-" + crumbGeneration.get();
+        if (!sessionBound) return crumb;
+        String session = "session-" + nextSession.incrementAndGet();
+        crumb += "-" + session;
+        sessions.put(session, crumb);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; Path=/; HttpOnly");
+        return crumb;
+    }
+
+    private boolean isValidCrumb(HttpExchange exchange) {
+        String crumb = exchange.getRequestHeaders().getFirst(CRUMB_FIELD);
+        if (crumb == null) return false;
+        if (!sessionBound) return crumb.equals("crumb-" + crumbGeneration.get());
+        String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+        String prefix = SESSION_COOKIE + "=";
+        if (cookie == null || !cookie.startsWith(prefix)) return false;
+        int end = cookie.indexOf(';');
+        String session = cookie.substring(prefix.length(), end < 0 ? cookie.length() : end);
+        return crumb.equals(sessions.get(session));
+    }
+
+    private FakeJob getJob(String jobPath) {
+        FakeJob job = jobs.get(jobPath);
+        if (job == null) {
+            FakeJob created = new FakeJob(getUrl() + jobPath + "/", jobPath.substring(jobPath.lastIndexOf('/') + 1));
+            job = jobs.putIfAbsent(jobPath, created);
+            if (job == null) job = created;
+        }
+        return job;
+    }
+
+    private static String getEndpoint(URI uri) {
+        String path = uri.getPath();
+        if (path.startsWith("/crumbIssuer/")) return "crumbIssuer";
+        if (path.startsWith("/queue/api/json")) return "queueApi";
+        if (path.equals("/queue/cancelItem")) return "cancelItem";
+        if (QUEUE_ITEM_PATH.matcher(path).matches()) return "queueItem";
+        Matcher matcher = JOB_PATH.matcher(path);
+        if (!matcher.matches()) return "unknown";
+        String rest = (matcher.group(2) == null) ? "/" : matcher.group(2);
+        if (rest.equals("/build") || rest.equals("/buildWithParameters")) return rest.substring(1);
+        if (rest.startsWith("/api/json")) {
+            String tree = getTree(uri);
+            return (tree != null && tree.startsWith("builds[")) ? "jobBuildsApi" : "jobApi";
+        }
+        Matcher buildMatcher = BUILD_PATH.matcher(rest);
+        if (!buildMatcher.matches()) return "unknown";
+        String buildRest = (buildMatcher.group(2) == null) ? "/" : buildMatcher.group(2);
+        if (buildRest.startsWith("/api/json")) return "buildApi";
+        if (buildRest.equals("/consoleText")) return "consoleText";
+        if (buildRest.equals("/logText/progressiveText")) return "progressiveText";
+        if (buildRest.equals("/stop")) return "stop";
+        return "unknown";
+    }
+
+    private void count(String endpoint) {
+        AtomicLong count = requests.get(endpoint);
+        if (count == null) {
+            AtomicLong created = new AtomicLong();
+            count = requests.putIfAbsent(endpoint, created);
+            if (count == null) count = created;
+        }
+        count.incrementAndGet();
+    }
+
+    private String queueJson() {
+        StringBuilder sb = new StringBuilder("{\"_class\":\"hudson.model.Queue\",\"items\":[");
+        boolean first = true;
+        for (FakeBuild build : queue.values()) {
+            if (!build.isQueued()) continue;
+            if (!first) sb.append(',');
+            first = false;
+            sb.append(build.queueItemJson());
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static String getTree(URI uri) {
+        String tree = getQueryParameter(uri, "tree");
+        if (tree == null) return null;
+        try {
+            return URLDecoder.decode(tree, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the range <code>{from,to}</code> of the requested builds, all builds if none is given.
+     */
+    private static int[] getBuildsRange(URI uri) {
+        String tree = getTree(uri);
+        Matcher matcher = (tree == null) ? null : BUILDS_RANGE.matcher(tree);
+        if (matcher == null || !matcher.find()) return new int[] { 0, Integer.MAX_VALUE };
+        return new int[] { Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)) };
+    }
+
+    private static String getQueryParameter(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) return null;
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0 && pair.substring(0, separator).equals(name)) return pair.substring(separator + 1);
+        }
+        return null;
+    }
+
+    private static void drain(InputStream body) throws IOException {
+        byte[] buffer = new byte[8192];
+        while (body.read(buffer) != -1) {
+            // discard the parameters, every job accepts any
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, String json) throws IOException {
+        if (validators) {
+            String etag = "\"" + Integer.toHexString(json.hashCode()) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+        send(exchange, 200, "application/json", json);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + ";charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            OutputStream out = exchange.getResponseBody();
+            out.write(bytes);
+            out.flush();
+        }
+    }
+
+    private static class FakeJob {
+        final String url;
+        final String name;
+        final AtomicInteger nextBuildNumber = new AtomicInteger();
+        final Map<Integer, FakeBuild> builds = new ConcurrentHashMap<Integer, FakeBuild>();
+
+        FakeJob(String url, String name) {
+            this.url = url;
+            this.name = name;
+        }
+
+        FakeBuild schedule(int queueId, long queueDelay, long duration) {
+            long now = System.currentTimeMillis();
+            FakeBuild build = new FakeBuild(this, queueId, now + queueDelay, duration);
+            builds.put(build.number, build);
+            return build;
+        }
+
+        FakeBuild getBuild(int number) {
+            FakeBuild build = builds.get(number);
+            return (build == null || build.isQueued() || build.isCancelled()) ? null : build;
+        }
+
+        String json(int[] range) {
+            List<FakeBuild> started = new ArrayList<FakeBuild>();
+            for (FakeBuild build : builds.values()) {
+                if (!build.isQueued() && !build.isCancelled()) started.add(build);
+            }
+            started.sort((a, b) -> b.number - a.number);
+            StringBuilder sb = new StringBuilder();
+            sb.append("{\"_class\":\"hudson.model.FreeStyleProject\",\"actions\":[{\"_class\":");
+            sb.append("\"hudson.model.ParametersDefinitionProperty\",\"parameterDefinitions\":[{\"_class\":");
+            sb.append("\"hudson.model.StringParameterDefinition\",\"defaultParameterValue\":{\"name\":\"PARAM\",");
+            sb.append("\"value\":\"\"},\"description\":\"\",\"name\":\"PARAM\",\"type\":\"StringParameterDefinition\"}]}],");
+            sb.append("\"displayName\":\"").append(name).append("\",\"fullDisplayName\":\"").append(name);
+            sb.append("\",\"fullName\":\"").append(name).append("\",\"name\":\"").append(name);
+            sb.append("\",\"url\":\"").append(url).append("\",\"builds\":[");
+            for (int i = range[0]; i < Math.min(started.size(), range[1]); i++) {
+                if (i > range[0]) sb.append(',');
+                started.get(i).appendStatus(sb, true);
+            }
+            return sb.append("]}").toString();
+        }
+    }
+
+    private static class FakeBuild {
+        final FakeJob job;
+        final int queueId;
+        final int number;
+        final long startTime;
+        final long duration;
+        volatile boolean cancelled;
+        volatile long abortTime;
+
+        FakeBuild(FakeJob job, int queueId, long startTime, long duration) {
+            this.job = job;
+            this.queueId = queueId;
+            this.number = job.nextBuildNumber.incrementAndGet();
+            this.startTime = startTime;
+            this.duration = duration;
+        }
+
+        String getUrl() {
+            return job.url + number + "/";
+        }
+
+        boolean isQueued() {
+            return !cancelled && System.currentTimeMillis() < startTime;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        boolean isBuilding() {
+            long now = System.currentTimeMillis();
+            return !cancelled && now >= startTime && now < startTime + duration && abortTime == 0;
+        }
+
+        void cancel() {
+            if (isQueued()) cancelled = true;
+        }
+
+        void abort() {
+            if (isBuilding()) abortTime = System.currentTimeMillis();
+        }
+
+        String getResult() {
+            if (isBuilding()) return null;
+            return (abortTime > 0) ? "ABORTED" : "SUCCESS";
+        }
+
+        String queueItemJson() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{\"_class\":\"hudson.model.Queue$").append(isQueued() ? "WaitingItem" : "LeftItem");
+            sb.append("\",\"id\":").append(queueId).append(",\"blocked\":false,\"buildable\":false,");
+            sb.append("\"cancelled\":").append(cancelled).append(",\"stuck\":false,\"task\":{\"name\":\"");
+            sb.append(job.name).append("\",\"url\":\"").append(job.url).append("\"},");
+            if (isQueued()) {
+                long remaining = Math.max(0, startTime - System.currentTimeMillis());
+                sb.append("\"why\":\"In the quiet period. Expires in ").append(TimeUnit.MILLISECONDS.toSeconds(remaining));
+                sb.append(" sec\",\"executable\":null}");
+            } else if (cancelled) {
+                sb.append("\"why\":null,\"executable\":null}");
+            } else {
+                sb.append("\"why\":null,\"executable\":{\"_class\":\"hudson.model.FreeStyleBuild\",\"number\":");
+                sb.append(number).append(",\"url\":\"").append(getUrl()).append("\"}}");
+            }
+            return sb.toString();
+        }
+
+        String json() {
+            StringBuilder sb = new StringBuilder();
+            appendStatus(sb, false);
+            return sb.toString();
+        }
+
+        void appendStatus(StringBuilder sb, boolean summary) {
+            String result = getResult();
+            sb.append("{\"_class\":\"hudson.model.FreeStyleBuild\",\"number\":").append(number);
+            sb.append(",\"building\":").append(result == null);
+            sb.append(",\"result\":").append(result == null ? "null" : "\"" + result + "\"");
+            sb.append(",\"timestamp\":").append(startTime).append(",\"estimatedDuration\":").append(duration);
+            if (!summary) {
+                sb.append(",\"duration\":").append(result == null ? 0 : duration).append(",\"queueId\":").append(queueId);
+                sb.append(",\"displayName\":\"#").append(number).append("\",\"url\":\"").append(getUrl()).append("\"");
+            }
+            sb.append('}');
+        }
+
+        String console() {
+            long elapsed = System.currentTimeMillis() - startTime;
+            int lines = isBuilding() ? (int) Math.min(CONSOLE_LINES, CONSOLE_LINES * elapsed / Math.max(1, duration))
+                        : CONSOLE_LINES;
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < lines; i++) {
+                sb.append("[").append(job.name).append(" #").append(number).append("] line ").append(i).append('\n');
+            }
+            if (!isBuilding()) sb.append("Finished: ").append(getResult()).append('\n');
+            return sb.toString();
+        }
+    }
+
+}
@@ -0,0 +1,276 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.loadtest;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BasicBuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteBuildConfiguration;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteJenkinsServer;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.pipeline.Handle;
+
+/**
+ * Drives many trigger-and-wait cycles ({@link RemoteBuildConfiguration#performTriggerAndGetQueueId(BuildContext)}
+ * followed by {@link RemoteBuildConfiguration#performWaitForBuildAsync(BuildContext, Handle)}) against a remote
+ * Jenkins, usually a {@link FakeRemoteJenkins}, and reports throughput, latency and resource use.
+ *
+ * The triggers run on {@link #setTriggerThreads(int)} threads, like the executors of the local Jenkins. Waiting
+ * for the remote builds does not block these threads, so up to {@link #setConcurrency(int)} cycles are in progress
+ * at the same time, like pipelines waiting for their remote builds.
+ */
+public class LoadDriver {
+
+    private final String remoteUrl;
+    private int builds = 100;
+    private int concurrency = 10;
+    private int triggerThreads = 10;
+    private int jobs = 10;
+    private int pollInterval = 1;
+    private boolean blockBuildUntilComplete = true;
+    private double statusRateLimit;
+
+    public LoadDriver(String remoteUrl) {
+        this.remoteUrl = remoteUrl;
+    }
+
+    /**
+     * @param builds
+     *            the number of remote builds to trigger.
+     */
+    public void setBuilds(int builds) {
+        this.builds = builds;
+    }
+
+    /**
+     * @param concurrency
+     *            the maximal number of cycles in progress at the same time.
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param triggerThreads
+     *            the number of threads triggering the remote builds.
+     */
+    public void setTriggerThreads(int triggerThreads) {
+        this.triggerThreads = triggerThreads;
+    }
+
+    /**
+     * @param jobs
+     *            the number of distinct remote jobs the builds are spread over.
+     */
+    public void setJobs(int jobs) {
+        this.jobs = jobs;
+    }
+
+    public void setPollInterval(int pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public void setBlockBuildUntilComplete(boolean blockBuildUntilComplete) {
+        this.blockBuildUntilComplete = blockBuildUntilComplete;
+    }
+
+    /**
+     * @param statusRateLimit
+     *            the status requests per second allowed to the remote server, 0 for no limit.
+     */
+    public void setStatusRateLimit(double statusRateLimit) {
+        this.statusRateLimit = statusRateLimit;
+    }
+
+    /**
+     * Runs all cycles and waits until they are finished.
+     *
+     * @return the measurements.
+     * @throws InterruptedException
+     *            if any thread has interrupted the current thread.
+     */
+    public Report run() throws InterruptedException {
+        final Report report = new Report(builds);
+        final Semaphore inProgress = new Semaphore(concurrency);
+        final PrintStream logger = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+        ExecutorService triggers = Executors.newFixedThreadPool(triggerThreads);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        threadBean.resetPeakThreadCount();
+        report.threadsBefore = threadBean.getThreadCount();
+        sampler.scheduleAtFixedRate(() -> report.sampleHeap(memoryBean.getHeapMemoryUsage().getUsed()),
+                    0, 100, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < builds; i++) {
+                inProgress.acquire();
+                final int index = i;
+                triggers.execute(() -> {
+                    long cycleStart = System.nanoTime();
+                    try {
+                        RemoteBuildConfiguration config = createConfiguration(index);
+                        RemoteJenkinsServer server = config.evaluateEffectiveRemoteHost(new BasicBuildContext(null, null, null));
+                        server.setStatusRateLimit(statusRateLimit);
+                        BuildContext context = new BuildContext(logger, server, "load-test-" + index);
+                        Handle handle = config.performTriggerAndGetQueueId(context);
+                        report.recordTrigger(System.nanoTime() - cycleStart);
+                        config.performWaitForBuildAsync(context, handle).whenComplete((result, error) -> {
+                            report.recordCycle(System.nanoTime() - cycleStart, error);
+                            inProgress.release();
+                        });
+                    } catch (Throwable e) {
+                        report.recordCycle(System.nanoTime() - cycleStart, e);
+                        inProgress.release();
+                    }
+                });
+            }
+            inProgress.acquire(concurrency);
+        } finally {
+            report.elapsedNanos = System.nanoTime() - start;
+            report.peakThreads = threadBean.getPeakThreadCount();
+            triggers.shutdownNow();
+            sampler.shutdownNow();
+        }
+        return report;
+    }
+
+    private RemoteBuildConfiguration createConfiguration(int index) {
+        RemoteBuildConfiguration config = new RemoteBuildConfiguration();
+        config.setRemoteJenkinsUrl(remoteUrl);
+        config.setJob("load-" + (index % jobs));
+        config.setParameters("PARAM=" + index);
+        config.setPollInterval(pollInterval);
+        config.setBlockBuildUntilComplete(blockBuildUntilComplete);
+        config.setPreventRemoteBuildQueue(false);
+        config.setUseCrumbCache(true);
+        config.setUseJobInfoCache(true);
+        return config;
+    }
+
+    /**
+     * The measurements of a run.
+     */
+    public static class Report {
+        private final List<Long> triggerLatencies;
+        private final List<Long> cycleLatencies;
+        private final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicLong peakHeap = new AtomicLong();
+        long elapsedNanos;
+        int threadsBefore;
+        int peakThreads;
+
+        Report(int builds) {
+            triggerLatencies = Collections.synchronizedList(new ArrayList<Long>(builds));
+            cycleLatencies = Collections.synchronizedList(new ArrayList<Long>(builds));
+        }
+
+        void recordTrigger(long nanos) {
+            triggerLatencies.add(nanos);
+        }
+
+        void recordCycle(long nanos, Throwable error) {
+            cycleLatencies.add(nanos);
+            completed.incrementAndGet();
+            if (error != null) failures.add(error);
+        }
+
+        void sampleHeap(long used) {
+            peakHeap.accumulateAndGet(used, Math::max);
+        }
+
+        public int getCompleted() {
+            return completed.get();
+        }
+
+        public List<Throwable> getFailures() {
+            synchronized (failures) {
+                return new ArrayList<Throwable>(failures);
+            }
+        }
+
+        /**
+         * @return the completed cycles per second.
+         */
+        public double getThroughput() {
+            return completed.get() / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * @param percentile
+         *            between 0 and 100.
+         * @return the time in milliseconds from the start of the trigger until the remote build is accepted.
+         */
+        public double getTriggerLatency(double percentile) {
+            return percentile(triggerLatencies, percentile);
+        }
+
+        /**
+         * @param percentile
+         *            between 0 and 100.
+         * @return the time in milliseconds from the start of the trigger until the remote build is finished,
+         *         or started if not blocking until it is complete.
+         */
+        public double getCycleLatency(double percentile) {
+            return percentile(cycleLatencies, percentile);
+        }
+
+        public int getPeakThreads() {
+            return peakThreads;
+        }
+
+        /**
+         * @return the highest used heap in bytes, sampled every 100 ms.
+         */
+        public long getPeakHeap() {
+            return peakHeap.get();
+        }
+
+        private static double percentile(List<Long> latencies, double percentile) {
+            long[] sorted;
+            synchronized (latencies) {
+                sorted = new long[latencies.size()];
+                for (int i = 0; i < sorted.length; i++) sorted[i] = latencies.get(i);
+            }
+            if (sorted.length == 0) return 0;
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d cycles in %.1f s, %d failed: %.1f cycles/s%n"
+                        + "  trigger latency p50 %.0f ms, p99 %.0f ms%n"
+                        + "  cycle latency   p50 %.0f ms, p99 %.0f ms%n"
+                        + "  threads %d before, %d peak; heap %d MB peak",
+                        getCompleted(), elapsedNanos / 1e9, failures.size(), getThroughput(),
+                        getTriggerLatency(50), getTriggerLatency(99), getCycleLatency(50), getCycleLatency(99),
+                        threadsBefore, peakThreads, getPeakHeap() / (1024 * 1024));
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+/**
+ * Runs the {@link LoadDriver} against a {@link FakeRemoteJenkins}.
+ *
+ * The load test itself only runs on request, e.g.:
+ * <pre>
+ * mvn test -Dtest=LoadTest -Dloadtest=true -Djenkins.test.timeout=0 \
+ *     -Dloadtest.builds=5000 -Dloadtest.concurrency=2000 -Dloadtest.latency=50 -Dloadtest.errorRate=0.01
+ * </pre>
+ * See {@link #testLoad()} for all properties.
+ */
+public class LoadTest {
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Test
+    public void testSmoke() throws Exception {
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            remote.setLatency(5, 5);
+            remote.setQueueDelay(200);
+            remote.setBuildDuration(500);
+
+            LoadDriver driver = new LoadDriver(remote.getUrl());
+            driver.setBuilds(20);
+            driver.setConcurrency(10);
+            driver.setJobs(3);
+            LoadDriver.Report report = driver.run();
+
+            assertEquals(report.getFailures().toString(), 0, report.getFailures().size());
+            assertEquals(20, report.getCompleted());
+            assertEquals(20, remote.getTriggeredBuilds());
+        }
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        assumeTrue(Boolean.getBoolean("loadtest"));
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            remote.setLatency(Long.getLong("loadtest.latency", 20), Long.getLong("loadtest.latencyJitter", 20));
+            remote.setErrorRate(Double.parseDouble(System.getProperty("loadtest.errorRate", "0")),
+                        Integer.getInteger("loadtest.errorStatus", 503));
+            remote.setQueueDelay(Long.getLong("loadtest.queueDelay", 2000));
+            remote.setBuildDuration(Long.getLong("loadtest.buildDuration", 10000));
+            remote.setCrumbRequired(!Boolean.getBoolean("loadtest.noCrumb"));
+
+            LoadDriver driver = new LoadDriver(remote.getUrl());
+            driver.setBuilds(Integer.getInteger("loadtest.builds", 1000));
+            driver.setConcurrency(Integer.getInteger("loadtest.concurrency", 500));
+            driver.setTriggerThreads(Integer.getInteger("loadtest.triggerThreads", 20));
+            driver.setJobs(Integer.getInteger("loadtest.jobs", 10));
+            driver.setPollInterval(Integer.getInteger("loadtest.pollInterval", 1));
+            LoadDriver.Report report = driver.run();
+
+            System.out.println(report);
+            System.out.println("  requests " + remote.getRequestCounts());
+            for (Throwable failure : report.getFailures().subList(0, Math.min(5, report.getFailures().size()))) {
+                System.out.println("  failure: " + failure);
+            }
+        }
+    }
+
+}
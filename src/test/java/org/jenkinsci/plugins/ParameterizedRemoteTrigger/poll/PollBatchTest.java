@@ -0,0 +1,158 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BasicBuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteBuildConfiguration;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteJenkinsServer;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.loadtest.FakeRemoteJenkins;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.pipeline.Handle;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob.RemoteBuildStatus;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.retry.FixedDelayRetryPolicy;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+/**
+ * Waits for builds of a {@link FakeRemoteJenkins} and counts the requests per endpoint, to check that
+ * the waiting builds are polled by {@link QueuedItemsBatch} and {@link RunningBuildsBatch}.
+ */
+public class PollBatchTest
+{
+
+    private static final int BUILDS = 4;
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Test
+    public void testQueuedBuildsArePolledTogether() throws Exception {
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            remote.setQueueDelay(3000);
+            remote.setBuildDuration(100);
+
+            waitForAll(triggerAll(remote, "queued", BUILDS));
+
+            // one request per poll for all queued builds, instead of one per build
+            long queuePolls = remote.getRequestCount("queueApi");
+            assertTrue("queue polls: " + queuePolls, queuePolls >= 1 && queuePolls <= 5);
+            // each item once after the trigger and at least once after it left the queue, to get its build
+            long itemPolls = remote.getRequestCount("queueItem");
+            assertTrue("queue item polls: " + itemPolls, itemPolls >= 2 * BUILDS && itemPolls <= 2 * BUILDS + 2);
+        }
+    }
+
+    @Test
+    public void testRunningBuildsOfOneJobArePolledTogether() throws Exception {
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            remote.setBuildDuration(4000);
+
+            List<Waiter> first = triggerAll(remote, "running-a", BUILDS);
+            List<Waiter> second = triggerAll(remote, "running-b", BUILDS);
+            first.addAll(second);
+            long start = System.nanoTime();
+            waitForAll(first);
+            long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+            // one batch per job, each polling once per interval
+            long jobPolls = remote.getRequestCount("jobBuildsApi");
+            assertTrue("job polls: " + jobPolls, jobPolls >= 2 && jobPolls <= 2 * (elapsedSeconds + 2));
+            // polled one by one only while a batch has a single build
+            long buildPolls = remote.getRequestCount("buildApi");
+            assertTrue("build polls: " + buildPolls, buildPolls <= 4);
+        }
+    }
+
+    @Test
+    public void testBuildsOutsideTheWindowArePolledOneByOne() throws Exception {
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            remote.setBuildDuration(3000);
+
+            List<Waiter> waited = triggerAll(remote, "window", 2);
+            // more newer builds than the batch requests on top of the waited ones
+            triggerAll(remote, "window", 12);
+            waitForAll(waited);
+
+            for (Waiter waiter : waited) {
+                assertEquals(RemoteBuildStatus.FINISHED, waiter.handle.getBuildInfo().getStatus());
+            }
+            assertTrue(remote.getRequestCount("jobBuildsApi") >= 1);
+            assertTrue("build polls: " + remote.getRequestCount("buildApi"), remote.getRequestCount("buildApi") >= 2);
+        }
+    }
+
+    @Test
+    public void testFailedBatchBacksOff() throws Exception {
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            remote.setQueueDelay(5000);
+            remote.setBuildDuration(100);
+            remote.setFailures("queueApi", 2, 500);
+
+            waitForAll(triggerAll(remote, "backoff", BUILDS));
+
+            // failed after 1 s and after 2 more s, then succeeded after 4 more s, once all builds left the queue
+            assertEquals(3, remote.getRequestCount("queueApi"));
+        }
+    }
+
+    private static List<Waiter> triggerAll(FakeRemoteJenkins remote, String job, int builds) throws Exception {
+        List<Waiter> waiters = new ArrayList<Waiter>();
+        for (int i = 0; i < builds; i++) {
+            RemoteBuildConfiguration config = createConfiguration(remote, job);
+            BuildContext context = createContext(config, job);
+            waiters.add(new Waiter(config, context, config.performTriggerAndGetQueueId(context)));
+        }
+        return waiters;
+    }
+
+    private static void waitForAll(List<Waiter> waiters) throws Exception {
+        List<CompletableFuture<Handle>> waits = new ArrayList<CompletableFuture<Handle>>();
+        for (Waiter waiter : waiters) {
+            waits.add(waiter.config.performWaitForBuildAsync(waiter.context, waiter.handle));
+        }
+        CompletableFuture.allOf(waits.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+    }
+
+    private static RemoteBuildConfiguration createConfiguration(FakeRemoteJenkins remote, String job) {
+        RemoteBuildConfiguration config = new RemoteBuildConfiguration();
+        config.setRemoteJenkinsUrl(remote.getUrl());
+        config.setJob(job);
+        config.setPollInterval(1);
+        config.setBlockBuildUntilComplete(true);
+        config.setPreventRemoteBuildQueue(false);
+        config.setUseCrumbCache(true);
+        config.setUseJobInfoCache(true);
+        return config;
+    }
+
+    private static BuildContext createContext(RemoteBuildConfiguration config, String item) throws Exception {
+        RemoteJenkinsServer server = config.evaluateEffectiveRemoteHost(new BasicBuildContext(null, null, null));
+        // fail a request right away, so that a failed batch is visible
+        FixedDelayRetryPolicy retryPolicy = new FixedDelayRetryPolicy();
+        retryPolicy.setRetries(0);
+        server.setRetryPolicy(retryPolicy);
+        return new BuildContext(new PrintStream(new ByteArrayOutputStream()), server, item);
+    }
+
+    private static class Waiter {
+        final RemoteBuildConfiguration config;
+        final BuildContext context;
+        final Handle handle;
+
+        Waiter(RemoteBuildConfiguration config, BuildContext context, Handle handle) {
+            this.config = config;
+            this.context = context;
+            this.handle = handle;
+        }
+    }
+
+}
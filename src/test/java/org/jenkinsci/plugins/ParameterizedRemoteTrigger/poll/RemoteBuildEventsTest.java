@@ -0,0 +1,96 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.poll;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.WithoutJenkins;
+
+import hudson.security.csrf.DefaultCrumbIssuer;
+
+public class RemoteBuildEventsTest {
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    private static class RecordingListener implements RemoteBuildEvents.Listener {
+        final List<String> phases = new ArrayList<String>();
+
+        @Override
+        public synchronized void onEvent(String phase) {
+            phases.add(phase);
+        }
+    }
+
+    @Test @WithoutJenkins
+    public void testFireAndUnregister() {
+        String token = RemoteBuildEvents.newToken();
+        RecordingListener listener = new RecordingListener();
+        assertFalse(RemoteBuildEvents.fire(token, "STARTED"));
+
+        RemoteBuildEvents.register(token, listener);
+        assertTrue(RemoteBuildEvents.fire(token, "STARTED"));
+        RemoteBuildEvents.unregister(token, listener);
+        assertFalse(RemoteBuildEvents.fire(token, "COMPLETED"));
+        assertEquals(1, listener.phases.size());
+        assertEquals("STARTED", listener.phases.get(0));
+    }
+
+    @Test
+    public void testCallbackFromRemote() throws Exception {
+        // the remote Jenkins does not have a crumb of this one
+        jenkinsRule.jenkins.setCrumbIssuer(new DefaultCrumbIssuer(false));
+
+        String token = RemoteBuildEvents.newToken();
+        RecordingListener listener = new RecordingListener();
+        RemoteBuildEvents.register(token, listener);
+        try {
+            String callbackUrl = RemoteBuildEvents.getCallbackUrl(token);
+            assertEquals(jenkinsRule.getURL() + "remote-build-events/" + token + "/", callbackUrl);
+
+            // as sent by the Notification plugin
+            assertEquals(200, post(callbackUrl, "{\"name\":\"job\",\"build\":{\"number\":1,\"phase\":\"STARTED\"}}"));
+            // as sent by a plain HTTP POST
+            assertEquals(200, post(callbackUrl + "?phase=COMPLETED", ""));
+            assertEquals(404, post(jenkinsRule.getURL() + "remote-build-events/unknown/", ""));
+
+            assertEquals(2, listener.phases.size());
+            assertEquals("STARTED", listener.phases.get(0));
+            assertEquals("COMPLETED", listener.phases.get(1));
+        }
+        finally {
+            RemoteBuildEvents.unregister(token, listener);
+        }
+    }
+
+    private static int post(String url, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        OutputStream out = connection.getOutputStream();
+        try {
+            out.write(body.getBytes("UTF-8"));
+        }
+        finally {
+            out.close();
+        }
+        try {
+            return connection.getResponseCode();
+        }
+        finally {
+            connection.disconnect();
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.remoteJob;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.net.URL;
+
+import org.junit.Test;
+import org.jvnet.hudson.test.WithoutJenkins;
+
+public class RemoteBuildUrlsTest {
+
+    @Test @WithoutJenkins
+    public void testQueuedBuild() {
+        RemoteBuildInfo buildInfo = new RemoteBuildInfo();
+        buildInfo.setQueueId("42");
+
+        RemoteBuildUrls urls = buildInfo.getUrls("https://server:8080/jenkins/");
+        assertEquals("https://server:8080/jenkins/queue/item/42/api/json/?tree=blocked,buildable,pending,cancelled,why,executable[number,url]",
+                    urls.getQueueItemApiUrl());
+        assertEquals("https://server:8080/jenkins/queue/cancelItem?id=42", urls.getCancelUrl());
+        assertNull(urls.getBuildStatusApiUrl());
+        assertNull(urls.getConsoleUrl(0));
+        // reused for every poll
+        assertSame(urls, buildInfo.getUrls("https://server:8080/jenkins/"));
+        assertNull(buildInfo.getUrls(null).getQueueItemApiUrl());
+    }
+
+    @Test @WithoutJenkins
+    public void testRunningBuild() throws Exception {
+        RemoteBuildInfo buildInfo = new RemoteBuildInfo();
+        buildInfo.setQueueId("42");
+        RemoteBuildUrls queued = buildInfo.getUrls("https://server:8080/jenkins");
+        buildInfo.setBuildData(7, new URL("https://server:8080/jenkins/job/Folder/job/JobName/7/"));
+
+        RemoteBuildUrls urls = buildInfo.getUrls("https://server:8080/jenkins");
+        assertNotSame(queued, urls);
+        assertEquals("https://server:8080/jenkins/job/Folder/job/JobName/7/api/json/?tree=building,result,timestamp,estimatedDuration",
+                    urls.getBuildStatusApiUrl());
+        assertEquals("https://server:8080/jenkins/job/Folder/job/JobName/7/stop", urls.getStopUrl());
+        assertEquals("https://server:8080/jenkins/job/Folder/job/JobName/7/logText/progressiveText?start=1024",
+                    urls.getConsoleUrl(1024));
+        assertEquals("https://server:8080/jenkins/job/Folder/job/JobName/", urls.getJobUrl());
+        assertSame(urls, buildInfo.getUrls("https://server:8080/jenkins"));
+    }
+
+    @Test @WithoutJenkins
+    public void testJobUrl() throws Exception {
+        assertEquals("https://server/job/My%20Folder/job/JobName", RemoteBuildUrls.getJobUrl("https://server//", " My Folder/JobName "));
+        assertEquals("http://other/job/JobName/", RemoteBuildUrls.getJobUrl(null, "http://other/job/JobName/"));
+        assertNull(new RemoteBuildInfo().getUrls("https://server").getJobUrl());
+    }
+
+}
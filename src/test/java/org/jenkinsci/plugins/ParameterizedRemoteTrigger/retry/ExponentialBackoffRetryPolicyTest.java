@@ -0,0 +1,109 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.retry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.jvnet.hudson.test.WithoutJenkins;
+
+public class ExponentialBackoffRetryPolicyTest
+{
+
+    @Test @WithoutJenkins
+    public void testSeparateBudgets() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+        policy.setConnectErrorRetries(2);
+        policy.setServerErrorRetries(1);
+        RetryState state = new RetryState();
+
+        state.recordFailure(0, null);
+        assertTrue(policy.getRetryDelay(state) >= 0);
+        state.recordFailure(500, null);
+        assertTrue(policy.getRetryDelay(state) >= 0);
+        state.recordFailure(0, null);
+        assertTrue(policy.getRetryDelay(state) >= 0);
+        state.recordFailure(0, null);
+        assertEquals(-1, policy.getRetryDelay(state));
+        state.recordFailure(502, null);
+        assertEquals(-1, policy.getRetryDelay(state));
+    }
+
+    @Test @WithoutJenkins
+    public void testJitteredBackoffIsBounded() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+        policy.setInitialDelay(2);
+        policy.setMaxDelay(5);
+        policy.setConnectErrorRetries(10);
+        RetryState state = new RetryState();
+        long[] bounds = { 2000, 4000, 5000, 5000 };
+        for (long bound : bounds) {
+            state.recordFailure(0, null);
+            for (int i = 0; i < 100; i++) {
+                long delay = policy.getRetryDelay(state);
+                assertTrue(delay + " > " + bound, delay >= 0 && delay <= bound);
+            }
+        }
+    }
+
+    @Test @WithoutJenkins
+    public void testRetryAfter() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+        policy.setInitialDelay(1);
+        RetryState state = new RetryState();
+        Map<String, List<String>> header = Collections.singletonMap("Retry-After", Collections.singletonList("30"));
+
+        state.recordFailure(429, header);
+        long delay = policy.getRetryDelay(state);
+        assertTrue(String.valueOf(delay), delay >= 30000 && delay <= 31000);
+
+        // only honored when the server asks to slow down
+        state.recordFailure(500, header);
+        assertTrue(policy.getRetryDelay(state) <= 2000);
+    }
+
+    @Test @WithoutJenkins
+    public void testRetryAfterLongerThanMaxDelay() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+        policy.setInitialDelay(10);
+        policy.setMaxDelay(60);
+        RetryState state = new RetryState();
+        Map<String, List<String>> header = Collections.singletonMap("Retry-After", Collections.singletonList("120"));
+
+        // the Retry-After is a floor, the jittered backoff comes on top of it
+        state.recordFailure(503, header);
+        for (int i = 0; i < 100; i++) {
+            long delay = policy.getRetryDelay(state);
+            assertTrue(String.valueOf(delay), delay >= 120000 && delay <= 130000);
+        }
+    }
+
+    @Test @WithoutJenkins
+    public void testRetryAfterIsBounded() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+        policy.setInitialDelay(1);
+        policy.setMaxDelay(60);
+        policy.setMaxRetryAfter(600);
+        RetryState state = new RetryState();
+        Map<String, List<String>> header = Collections.singletonMap("Retry-After", Collections.singletonList("3600"));
+
+        state.recordFailure(503, header);
+        long delay = policy.getRetryDelay(state);
+        assertTrue(String.valueOf(delay), delay >= 600000 && delay <= 601000);
+    }
+
+    @Test @WithoutJenkins
+    public void testParseRetryAfter() {
+        assertEquals(120000, RetryState.parseRetryAfter("120", 0));
+        assertEquals(-1, RetryState.parseRetryAfter(null, 0));
+        assertEquals(-1, RetryState.parseRetryAfter("soon", 0));
+        // Sun, 06 Nov 1994 08:49:37 GMT
+        long date = 784111777000L;
+        assertEquals(7000, RetryState.parseRetryAfter("Sun, 06 Nov 1994 08:49:37 GMT", date - 7000));
+        assertEquals(0, RetryState.parseRetryAfter("Sun, 06 Nov 1994 08:49:37 GMT", date + 7000));
+    }
+
+}
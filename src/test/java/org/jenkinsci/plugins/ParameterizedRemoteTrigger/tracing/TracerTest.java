@@ -0,0 +1,102 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.tracing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.WithoutJenkins;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+
+public class TracerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void disable() {
+        Tracer.configure(null);
+    }
+
+    @Test @WithoutJenkins
+    public void testDisabled() {
+        Tracer.configure(" ");
+        Span span = Tracer.startSpan("trigger");
+        assertSame(Span.NOOP, span);
+        assertNull(span.getTraceParent());
+        try (Tracer.Scope scope = Tracer.activate(span)) {
+            assertNull(Tracer.current());
+        }
+    }
+
+    @Test @WithoutJenkins
+    public void testTraceParent() {
+        Tracer.configure(new File(folder.getRoot(), "traces.json").getPath());
+        Span root = Tracer.startSpan("trigger");
+        Span child;
+        try (Tracer.Scope scope = Tracer.activate(root)) {
+            assertSame(root, Tracer.current());
+            child = Tracer.startSpan("HTTP POST", Span.Kind.CLIENT, Tracer.current());
+        }
+        assertNull(Tracer.current());
+
+        assertTrue(root.getTraceParent(), root.getTraceParent().matches("00-[0-9a-f]{32}-[0-9a-f]{16}-01"));
+        assertEquals(root.getTraceId(), child.getTraceId());
+        assertEquals(root.getSpanId(), child.getParentSpanId());
+        assertNull(root.getParentSpanId());
+        assertFalse(root.getSpanId().equals(child.getSpanId()));
+    }
+
+    @Test @WithoutJenkins
+    public void testFileExport() throws Exception {
+        File file = new File(folder.getRoot(), "traces/traces.json");
+        Tracer.configure(file.getPath());
+        Span root = Tracer.startSpan("trigger \"job\"");
+        Span child = Tracer.startSpan("HTTP GET", Span.Kind.CLIENT, root);
+        child.setAttribute("http.status_code", 503).setAttribute("cache.hit", false);
+        child.recordError(new java.io.IOException("Server returned 503"));
+        child.end();
+        root.end();
+        // only exported once
+        root.end();
+        Tracer.flush();
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        JSONObject resourceSpans = JSONObject.fromObject(lines.get(0)).getJSONArray("resourceSpans").getJSONObject(0);
+        assertEquals("service.name", resourceSpans.getJSONObject("resource").getJSONArray("attributes")
+                    .getJSONObject(0).getString("key"));
+        JSONObject scopeSpans = resourceSpans.getJSONArray("scopeSpans").getJSONObject(0);
+        assertEquals(OtlpJsonExporter.SCOPE_NAME, scopeSpans.getJSONObject("scope").getString("name"));
+        JSONArray spans = scopeSpans.getJSONArray("spans");
+        assertEquals(2, spans.size());
+
+        JSONObject exportedChild = spans.getJSONObject(0);
+        assertEquals(child.getSpanId(), exportedChild.getString("spanId"));
+        assertEquals(root.getSpanId(), exportedChild.getString("parentSpanId"));
+        assertEquals(3, exportedChild.getInt("kind"));
+        assertEquals(2, exportedChild.getJSONObject("status").getInt("code"));
+        JSONObject statusCode = exportedChild.getJSONArray("attributes").getJSONObject(0);
+        assertEquals("http.status_code", statusCode.getString("key"));
+        assertEquals("503", statusCode.getJSONObject("value").getString("intValue"));
+
+        JSONObject exportedRoot = spans.getJSONObject(1);
+        assertEquals("trigger \"job\"", exportedRoot.getString("name"));
+        assertFalse(exportedRoot.has("parentSpanId"));
+        assertTrue(Long.parseLong(exportedRoot.getString("endTimeUnixNano"))
+                    >= Long.parseLong(exportedRoot.getString("startTimeUnixNano")));
+    }
+
+}
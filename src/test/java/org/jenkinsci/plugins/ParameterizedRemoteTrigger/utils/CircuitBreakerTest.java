@@ -0,0 +1,62 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.CircuitBreaker.State;
+import org.junit.Test;
+import org.jvnet.hudson.test.WithoutJenkins;
+
+public class CircuitBreakerTest
+{
+
+    @Test @WithoutJenkins
+    public void testKeyedByAddress() {
+        CircuitBreaker breaker = CircuitBreaker.forAddress("http://keyed.example.org:8080/");
+        assertSame(breaker, CircuitBreaker.forAddress("http://keyed.example.org:8080"));
+        assertEquals("http://keyed.example.org:8080", breaker.getAddress());
+    }
+
+    @Test @WithoutJenkins
+    public void testOpensOnFailureRate() {
+        CircuitBreaker breaker = CircuitBreaker.forAddress("http://failing.example.org");
+        for (int i = 0; i < 5; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.record(false, 0);
+        }
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.record(true, 0);
+        }
+        // the minimum number of requests is not reached yet
+        assertEquals(State.CLOSED, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.record(false, 0);
+        assertTrue(breaker.tryAcquire());
+        breaker.record(true, 0);
+        // 5 of 11 failed
+        assertEquals(State.CLOSED, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.record(true, 0);
+        // 6 of 12 failed
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertTrue(breaker.getRemainingOpenMillis() > 0);
+    }
+
+    @Test @WithoutJenkins
+    public void testStaysClosedWhenHealthy() {
+        CircuitBreaker breaker = CircuitBreaker.forAddress("http://healthy.example.org");
+        for (int i = 0; i < 100; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.record(i % 3 == 0, 0);
+        }
+        assertEquals(State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getRemainingOpenMillis());
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BasicBuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.ConnectionResponse;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteBuildConfiguration;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteJenkinsServer;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.loadtest.FakeRemoteJenkins;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import net.sf.json.JSONObject;
+
+public class ConditionalGetTest
+{
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Test
+    public void testNotModifiedIsAnsweredFromCache() throws Exception {
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            remote.setValidators(true);
+            BuildContext context = createContext(remote);
+            String url = RemoteApi.getApiUrl(remote.getUrl() + "/job/etag/", RemoteApi.JOB_METADATA);
+
+            ConnectionResponse first = HttpHelper.tryGetConditional(url, context, 0, null, RemoteApi.JOB_METADATA);
+            assertEquals(200, first.getResponseCode());
+            assertNotNull(first.getBody());
+
+            ConnectionResponse second = HttpHelper.tryGetConditional(url, context, 0, null, RemoteApi.JOB_METADATA);
+            assertEquals(304, second.getResponseCode());
+            assertSame(first.getBody(), second.getBody());
+            assertEquals(1, remote.getNotModifiedCount());
+            assertEquals(2, remote.getRequestCount("jobApi"));
+        }
+    }
+
+    @Test
+    public void testUnchangedBodyIsNotParsedAgain() throws Exception {
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            BuildContext context = createContext(remote);
+            String url = RemoteApi.getApiUrl(remote.getUrl() + "/job/hash/", RemoteApi.JOB_METADATA);
+
+            JSONObject first = HttpHelper.tryGetConditional(url, context, 0, null, RemoteApi.JOB_METADATA).getBody();
+            JSONObject second = HttpHelper.tryGetConditional(url, context, 0, null, RemoteApi.JOB_METADATA).getBody();
+            assertNotNull(first);
+            // the same object, not a newly parsed copy of the same body
+            assertSame(first, second);
+            assertEquals(0, remote.getNotModifiedCount());
+            assertEquals(2, remote.getRequestCount("jobApi"));
+        }
+    }
+
+    private static BuildContext createContext(FakeRemoteJenkins remote) throws Exception {
+        RemoteBuildConfiguration config = new RemoteBuildConfiguration();
+        config.setRemoteJenkinsUrl(remote.getUrl());
+        config.setJob("conditional-get");
+        RemoteJenkinsServer server = config.evaluateEffectiveRemoteHost(new BasicBuildContext(null, null, null));
+        return new BuildContext(new PrintStream(new ByteArrayOutputStream()), server, "conditional-get");
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BasicBuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.BuildContext;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.ConnectionResponse;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.JenkinsCrumb;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteBuildConfiguration;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteJenkinsServer;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.loadtest.FakeRemoteJenkins;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.WithoutJenkins;
+
+public class CrumbManagerTest
+{
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Before
+    public void clearCrumbCache() {
+        // the crumbs are cached per host, which all fake servers share
+        DropCachePeriodicWork.getCrumbCache().invalidateAll();
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneCrumbRequest() throws Exception {
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            remote.setLatency(300, 0);
+            final BuildContext context = createContext(remote);
+            final int builds = 8;
+            final CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(builds);
+            try {
+                List<Future<ConnectionResponse>> posts = new ArrayList<Future<ConnectionResponse>>();
+                for (int i = 0; i < builds; i++) {
+                    posts.add(executor.submit(new Callable<ConnectionResponse>() {
+                        @Override
+                        public ConnectionResponse call() throws Exception {
+                            start.await();
+                            return trigger(remote, context);
+                        }
+                    }));
+                }
+                start.countDown();
+                for (Future<ConnectionResponse> post : posts) {
+                    assertEquals(201, post.get(30, TimeUnit.SECONDS).getResponseCode());
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertEquals(1, remote.getRequestCount("crumbIssuer"));
+            assertEquals(builds, remote.getRequestCount("build"));
+        }
+    }
+
+    @Test
+    public void testRejectedCrumbIsRefreshedOnce() throws Exception {
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            BuildContext context = createContext(remote);
+            assertEquals(201, trigger(remote, context).getResponseCode());
+            assertEquals(1, remote.getRequestCount("crumbIssuer"));
+
+            // the cached crumb is not valid anymore after a restart of the remote Jenkins
+            remote.resetCrumbs();
+            assertEquals(201, trigger(remote, context).getResponseCode());
+            assertEquals(2, remote.getRequestCount("crumbIssuer"));
+            // the rejected request and its single retry with the new crumb
+            assertEquals(3, remote.getRequestCount("build"));
+
+            // the new crumb is cached again
+            assertEquals(201, trigger(remote, context).getResponseCode());
+            assertEquals(2, remote.getRequestCount("crumbIssuer"));
+        }
+    }
+
+    @Test
+    public void testCsrfProtectionDisabled() throws Exception {
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            remote.setCrumbRequired(false);
+            BuildContext context = createContext(remote);
+
+            JenkinsCrumb crumb = CrumbManager.getCrumb(context, null, true, 0);
+            assertFalse(crumb.isEnabledOnRemote());
+            assertEquals(201, trigger(remote, context).getResponseCode());
+            assertEquals(201, trigger(remote, context).getResponseCode());
+            // the 404 of the crumb issuer is cached like a crumb
+            assertEquals(1, remote.getRequestCount("crumbIssuer"));
+        }
+    }
+
+    @Test
+    public void testCrumbIsSentWithItsSession() throws Exception {
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            remote.setSessionBound(true);
+            BuildContext context = createContext(remote);
+
+            assertEquals(201, trigger(remote, context).getResponseCode());
+            assertEquals(201, trigger(remote, context).getResponseCode());
+            assertEquals(1, remote.getRequestCount("crumbIssuer"));
+            assertEquals(2, remote.getRequestCount("build"));
+
+            // a new session comes with the new crumb
+            remote.resetCrumbs();
+            assertEquals(201, trigger(remote, context).getResponseCode());
+            assertEquals(2, remote.getRequestCount("crumbIssuer"));
+        }
+    }
+
+    @Test @WithoutJenkins
+    public void testSessionCookies() {
+        Map<String, List<String>> header = new HashMap<String, List<String>>();
+        header.put("Set-Cookie", Arrays.asList("JSESSIONID.1=abc; Path=/; HttpOnly", "other=1"));
+        header.put("Content-Type", Collections.singletonList("text/plain"));
+        assertEquals("JSESSIONID.1=abc; other=1", CrumbManager.getSessionCookies(header));
+        assertNull(CrumbManager.getSessionCookies(Collections.<String, List<String>>emptyMap()));
+    }
+
+    private static ConnectionResponse trigger(FakeRemoteJenkins remote, BuildContext context) throws Exception {
+        return HttpHelper.tryPost(remote.getUrl() + "/job/crumb/build", context, new HashMap<String, Object>(), 0,
+                    null, true);
+    }
+
+    private static BuildContext createContext(FakeRemoteJenkins remote) throws Exception {
+        RemoteBuildConfiguration config = new RemoteBuildConfiguration();
+        config.setRemoteJenkinsUrl(remote.getUrl());
+        config.setJob("crumb");
+        RemoteJenkinsServer server = config.evaluateEffectiveRemoteHost(new BasicBuildContext(null, null, null));
+        return new BuildContext(new PrintStream(new ByteArrayOutputStream()), server, "crumb");
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.exceptions.ConnectionQueueTimeoutException;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.HostConcurrencyLimiter.Permit;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils.HostConcurrencyLimiter.Priority;
+import org.junit.Test;
+import org.jvnet.hudson.test.WithoutJenkins;
+
+public class HostConcurrencyLimiterTest
+{
+
+    @Test @WithoutJenkins
+    public void testSharedPerHost() {
+        assertSame(HostConcurrencyLimiter.forHost("http://shared.example.org"),
+                    HostConcurrencyLimiter.forHost("http://shared.example.org"));
+    }
+
+    @Test @WithoutJenkins
+    public void testTimesOutWhenAllConnectionsInUse() throws Exception {
+        HostConcurrencyLimiter limiter = HostConcurrencyLimiter.forHost("http://busy.example.org");
+        Permit first = limiter.acquire(2, Priority.NORMAL, 1, TimeUnit.SECONDS);
+        Permit second = limiter.acquire(2, Priority.NORMAL, 1, TimeUnit.SECONDS);
+        assertEquals(2, limiter.getActive());
+        try {
+            limiter.acquire(2, Priority.HIGH, 50, TimeUnit.MILLISECONDS);
+            fail("the limit was exceeded");
+        }
+        catch (ConnectionQueueTimeoutException e) {
+            assertEquals(0, limiter.getQueueLength());
+        }
+
+        first.release();
+        first.release(); // releasing twice has no effect
+        assertEquals(1, limiter.getActive());
+        limiter.acquire(2, Priority.NORMAL, 50, TimeUnit.MILLISECONDS).release();
+        second.release();
+        assertEquals(0, limiter.getActive());
+    }
+
+    @Test @WithoutJenkins
+    public void testQueuedByPriorityThenArrival() throws Exception {
+        final HostConcurrencyLimiter limiter = HostConcurrencyLimiter.forHost("http://queued.example.org");
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        Permit permit = limiter.acquire(1, Priority.NORMAL, 1, TimeUnit.SECONDS);
+
+        List<Thread> threads = new ArrayList<Thread>();
+        String[] names = { "low", "normal-1", "high", "normal-2" };
+        Priority[] priorities = { Priority.LOW, Priority.NORMAL, Priority.HIGH, Priority.NORMAL };
+        for (int i = 0; i < names.length; i++) {
+            final String name = names[i];
+            final Priority priority = priorities[i];
+            Thread thread = new Thread() {
+                @Override
+                public void run()
+                {
+                    try {
+                        Permit queued = limiter.acquire(1, priority, 10, TimeUnit.SECONDS);
+                        order.add(name);
+                        queued.release();
+                    }
+                    catch (Exception e) {
+                        order.add(name + " failed: " + e);
+                    }
+                }
+            };
+            thread.start();
+            threads.add(thread);
+            // wait until queued, so that the arrival order is known
+            while (limiter.getQueueLength() < i + 1) Thread.sleep(5);
+        }
+
+        permit.release();
+        for (Thread thread : threads) thread.join(10000);
+        assertEquals(Arrays.asList("high", "normal-1", "normal-2", "low"), order);
+        assertEquals(0, limiter.getActive());
+    }
+
+}
@@ -0,0 +1,21 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.jvnet.hudson.test.WithoutJenkins;
+
+public class RemoteApiTest
+{
+
+    @Test @WithoutJenkins
+    public void testApiUrl() {
+        assertEquals("http://jenkins/job/a/1/api/json/?tree=building,result,timestamp,estimatedDuration",
+                    RemoteApi.getApiUrl("http://jenkins/job/a/1/", RemoteApi.BUILD_STATUS));
+        assertEquals("http://jenkins/queue/item/7/api/json/?tree=blocked,buildable,pending,cancelled,why,executable[number,url]",
+                    RemoteApi.getApiUrl("http://jenkins/queue/item/7", RemoteApi.QUEUE_ITEM));
+        assertEquals("http://jenkins/queue/api/json/?tree=items[id,blocked,buildable,pending,why,cancelled,executable[number,url]]",
+                    RemoteApi.getApiUrl("http://jenkins/queue/", RemoteApi.QUEUE_ITEMS));
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.RemoteJenkinsServer;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.loadtest.FakeRemoteJenkins;
+import org.jenkinsci.plugins.ParameterizedRemoteTrigger.loadtest.LoadDriver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+public class RequestRateLimiterTest
+{
+
+    private static final List<String> POST_ENDPOINTS = Arrays.asList("build", "buildWithParameters", "cancelItem", "stop");
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Test
+    public void testEveryStatusRequestTakesAToken() throws Exception {
+        double rate = 5;
+        try (FakeRemoteJenkins remote = new FakeRemoteJenkins()) {
+            remote.setQueueDelay(500);
+            remote.setBuildDuration(1500);
+            // the retries and the fallback polls after failed batches must be charged as well
+            remote.setErrorRate(0.2, 503);
+
+            LoadDriver driver = new LoadDriver(remote.getUrl());
+            driver.setBuilds(8);
+            driver.setConcurrency(8);
+            driver.setJobs(2);
+            driver.setStatusRateLimit(rate);
+            long start = System.nanoTime();
+            driver.run();
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            long statusRequests = 0;
+            for (Map.Entry<String, Long> count : remote.getRequestCounts().entrySet()) {
+                if (!POST_ENDPOINTS.contains(count.getKey())) statusRequests += count.getValue();
+            }
+            // a full bucket allows one burst of a second worth of requests, then the rate applies
+            long allowed = (long) Math.ceil(rate) + (long) Math.floor(rate * elapsedSeconds);
+            assertTrue(statusRequests + " status requests in " + elapsedSeconds + " s, allowed " + allowed,
+                        statusRequests <= allowed);
+
+            RemoteJenkinsServer server = new RemoteJenkinsServer();
+            server.setStatusRateLimit(rate);
+            TokenBucket bucket = RequestRateLimiter.forAddress(remote.getUrl(), server).getStatusBucket();
+            assertTrue("the rate limit was never reached", bucket.getThrottledRequests() > 0);
+        }
+    }
+
+}
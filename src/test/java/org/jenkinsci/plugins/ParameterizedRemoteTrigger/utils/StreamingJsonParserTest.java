@@ -0,0 +1,69 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+import org.jvnet.hudson.test.WithoutJenkins;
+
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+
+public class StreamingJsonParserTest
+{
+
+    private static final String QUEUE_ITEM = "{\"_class\":\"hudson.model.Queue$LeftItem\","
+                + "\"actions\":[{\"parameters\":[{\"name\":\"a\",\"value\":\"x}]\\\"y\"}]}],"
+                + "\"blocked\":false,\"buildable\":false,\"cancelled\":false,\"why\":null,"
+                + "\"executable\":{\"_class\":\"hudson.model.FreeStyleBuild\",\"number\":42,"
+                + "\"url\":\"http://remote/job/test/42/\",\"duration\":1.5e3}}";
+
+    @Test @WithoutJenkins
+    public void testProjection() throws IOException {
+        JSONObject json = parse(QUEUE_ITEM, "blocked,cancelled,executable[number,url]");
+        assertEquals(3, json.size());
+        assertFalse(json.getBoolean("blocked"));
+        assertFalse(json.getBoolean("cancelled"));
+        assertFalse(json.has("actions"));
+        JSONObject executable = json.getJSONObject("executable");
+        assertEquals(2, executable.size());
+        assertEquals(42, executable.getInt("number"));
+        assertEquals("http://remote/job/test/42/", executable.getString("url"));
+    }
+
+    @Test @WithoutJenkins
+    public void testAllFields() throws IOException {
+        JSONObject json = StreamingJsonParser.parseObject(new StringReader(QUEUE_ITEM), JsonProjection.ALL);
+        assertEquals("x}]\"y", json.getJSONArray("actions").getJSONObject(0).getJSONArray("parameters")
+                    .getJSONObject(0).getString("value"));
+        assertTrue(json.getJSONObject("executable").has("duration"));
+    }
+
+    @Test @WithoutJenkins
+    public void testNoJsonObject() throws IOException {
+        assertNull(parse("", "result"));
+        assertNull(parse("  \n", "result"));
+        assertNull(parse("Scheduled", "result"));
+    }
+
+    @Test(expected = JSONException.class) @WithoutJenkins
+    public void testTruncated() throws IOException {
+        parse("{\"building\":true,\"result\":", "result");
+    }
+
+    @Test @WithoutJenkins
+    public void testProjectionToString() {
+        String tree = "items[id,blocked,executable[number,url]],builds[number,result]{0,10}";
+        assertEquals(tree, JsonProjection.parse(tree).toString());
+    }
+
+    private JSONObject parse(String json, String tree) throws IOException {
+        return StreamingJsonParser.parseObject(new StringReader(json), JsonProjection.parse(tree));
+    }
+
+}
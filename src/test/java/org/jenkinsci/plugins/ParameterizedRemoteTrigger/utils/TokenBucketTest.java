@@ -0,0 +1,63 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.jvnet.hudson.test.WithoutJenkins;
+
+public class TokenBucketTest
+{
+
+    @Test @WithoutJenkins
+    public void testUnlimited() {
+        TokenBucket bucket = new TokenBucket("unlimited", 0, 1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, bucket.reserve());
+        }
+        assertEquals(0, bucket.getWaitNanos());
+    }
+
+    @Test @WithoutJenkins
+    public void testBurstThenWait() {
+        TokenBucket bucket = new TokenBucket("limited", 2, 2);
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+
+        // the bucket is empty, the next token comes after half a second
+        long waitNanos = bucket.getWaitNanos();
+        assertTrue(waitNanos > TimeUnit.MILLISECONDS.toNanos(400));
+        assertTrue(waitNanos <= TimeUnit.MILLISECONDS.toNanos(500));
+
+        // reserving goes into debt, each further request waits half a second longer
+        long first = bucket.reserve();
+        long second = bucket.reserve();
+        assertTrue(first > TimeUnit.MILLISECONDS.toNanos(400));
+        assertTrue(second - first > TimeUnit.MILLISECONDS.toNanos(490));
+    }
+
+    @Test @WithoutJenkins
+    public void testTryReserveDoesNotGoIntoDebt() {
+        TokenBucket bucket = new TokenBucket("limited", 2, 1);
+        assertEquals(0, bucket.tryReserve());
+
+        // no token is taken while the bucket is empty, so the wait does not grow
+        long first = bucket.tryReserve();
+        long second = bucket.tryReserve();
+        assertTrue(first > TimeUnit.MILLISECONDS.toNanos(400));
+        assertTrue(second <= first);
+        assertTrue(bucket.getWaitNanos() <= second);
+    }
+
+    @Test @WithoutJenkins
+    public void testRecordsThrottledTime() {
+        TokenBucket bucket = new TokenBucket("throttled", 1, 1);
+        bucket.recordThrottled(TimeUnit.SECONDS.toNanos(2));
+        bucket.recordThrottled(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(2, bucket.getThrottledRequests());
+        assertEquals(TimeUnit.SECONDS.toNanos(3), bucket.getThrottledNanos());
+    }
+
+}
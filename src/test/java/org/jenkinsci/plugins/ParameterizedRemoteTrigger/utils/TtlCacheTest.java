@@ -0,0 +1,51 @@
+package org.jenkinsci.plugins.ParameterizedRemoteTrigger.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.jvnet.hudson.test.WithoutJenkins;
+
+public class TtlCacheTest
+{
+
+    @Test @WithoutJenkins
+    public void testHitAndMiss() {
+        TtlCache<String, String> cache = new TtlCache<String, String>("test", 1, TimeUnit.MINUTES, 10);
+        assertNull(cache.get("a"));
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test @WithoutJenkins
+    public void testExpiry() throws InterruptedException {
+        TtlCache<String, String> cache = new TtlCache<String, String>("test", 10, TimeUnit.MILLISECONDS, 10);
+        cache.put("a", "1");
+        Thread.sleep(50);
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getExpirationCount());
+    }
+
+    @Test @WithoutJenkins
+    public void testLeastRecentlyUsedIsEvicted() throws InterruptedException {
+        TtlCache<Integer, String> cache = new TtlCache<Integer, String>("test", 1, TimeUnit.MINUTES, 10);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "v" + i);
+            Thread.sleep(1);
+        }
+        cache.get(0);
+        cache.put(10, "v10");
+
+        assertEquals(9, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+        assertEquals("v0", cache.get(0));
+        assertNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("v3", cache.get(3));
+    }
+
+}